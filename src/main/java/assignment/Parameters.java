@@ -1,5 +1,21 @@
 package assignment;
 
+import assignment.client.ConnectionMode;
+import assignment.client.ExecutionEngine;
+import assignment.client.LoadMode;
+import assignment.client.RequestSource;
+import assignment.client.TransportType;
+import assignment.client.VirtualThreadSupport;
+import assignment.distributed.DistributedRole;
+import assignment.phase.PhaseDefinition;
+import assignment.phase.PhaseDefinitionParser;
+import assignment.phase.WarmupParameters;
+import assignment.resilience.CircuitBreakerPolicy;
+import assignment.resilience.ConcurrencyLimitPolicy;
+import assignment.resilience.RetryPolicy;
+import assignment.search.SearchParameters;
+import assignment.statistics.SampleLogParameters;
+import assignment.workload.WorkloadParameters;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -13,9 +29,10 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
 @ToString
 @AllArgsConstructor
 public class Parameters {
@@ -25,6 +42,38 @@ public class Parameters {
     private static final String SKI_DAY_PROP_NAME = "skiDay";
     private static final String RESORT_NAME_PROP_NAME = "resortName";
     private static final String SERVER_ADDRESS_PROP_NAME = "hostServerAddress";
+    private static final String LOAD_MODE_PROP_NAME = "loadMode";
+    private static final String PHASE_ONE_ARRIVAL_RATE_PROP_NAME = "phaseOneArrivalRate";
+    private static final String PHASE_TWO_ARRIVAL_RATE_PROP_NAME = "phaseTwoArrivalRate";
+    private static final String PHASE_THREE_ARRIVAL_RATE_PROP_NAME = "phaseThreeArrivalRate";
+    private static final String EXECUTION_ENGINE_PROP_NAME = "executionEngine";
+    private static final String ASYNC_WINDOW_SIZE_PROP_NAME = "asyncWindowSize";
+    private static final String HTTP_CONNECTION_MODE_PROP_NAME = "httpConnectionMode";
+    private static final String HTTP_MAX_IDLE_CONNECTIONS_PROP_NAME = "httpMaxIdleConnections";
+    private static final String HTTP_KEEP_ALIVE_MILLIS_PROP_NAME = "httpKeepAliveMillis";
+    private static final String HTTP_MAX_REQUESTS_PROP_NAME = "httpMaxRequests";
+    private static final String HTTP_MAX_REQUESTS_PER_HOST_PROP_NAME = "httpMaxRequestsPerHost";
+    private static final String HTTP_TCP_NO_DELAY_PROP_NAME = "httpTcpNoDelay";
+    private static final String HTTP_SEND_BUFFER_SIZE_PROP_NAME = "httpSendBufferSize";
+    private static final String HTTP_RECEIVE_BUFFER_SIZE_PROP_NAME = "httpReceiveBufferSize";
+    private static final String HTTP_RETRY_ON_CONNECTION_FAILURE_PROP_NAME = "httpRetryOnConnectionFailure";
+    private static final String HTTP_TRANSPORT_PROP_NAME = "httpTransport";
+    private static final String HTTP_PIPELINE_CONNECTIONS_PROP_NAME = "httpPipelineConnections";
+    private static final String HTTP_PIPELINE_DEPTH_PROP_NAME = "httpPipelineDepth";
+    private static final String DISTRIBUTED_ROLE_PROP_NAME = "distributedRole";
+    private static final String COORDINATOR_HOST_PROP_NAME = "coordinatorHost";
+    private static final String COORDINATOR_PORT_PROP_NAME = "coordinatorPort";
+    private static final String WORKER_COUNT_PROP_NAME = "workerCount";
+    private static final String REQUEST_SOURCE_PROP_NAME = "requestSource";
+    private static final String CORPUS_FILE_PROP_NAME = "corpusFile";
+    private static final String CORPUS_SEED_PROP_NAME = "corpusSeed";
+    private static final String RECORD_TRAFFIC_FILE_PROP_NAME = "recordTrafficFile";
+    private static final String COORDINATED_OMISSION_CORRECTION_PROP_NAME = "coordinatedOmissionCorrection";
+    private static final String EXPECTED_INTERVAL_MILLIS_PROP_NAME = "expectedIntervalMillis";
+    private static final String LIFT_RIDE_BATCH_SIZE_PROP_NAME = "liftRideBatchSize";
+    private static final String LIFT_RIDE_BATCH_LINGER_MILLIS_PROP_NAME = "liftRideBatchLingerMillis";
+    private static final String REPORT_INTERVAL_SECONDS_PROP_NAME = "reportIntervalSeconds";
+    private static final String REPORT_FILE_PROP_NAME = "reportFile";
     private static final List<String> REQUIRED_PROPERTIES = Arrays.asList(
             NUM_SKI_LIFTS_PROP_NAME,
             NUM_SKIERS_PROP_NAME,
@@ -43,7 +92,38 @@ public class Parameters {
     private static final String DEFAULT_DAY = "1";
     private static final int MINIMUM_THREAD_COUNT_LIMIT = 4;
     private static final int MAXIMUM_THREAD_COUNT_LIMIT = 256;
+    private static final int DEFAULT_MAX_THREAD_COUNT = 256;
+    private static final int MAXIMUM_VIRTUAL_THREAD_COUNT_LIMIT = 100000;
     private static final String DEFAULT_FILE_NAME = "output_file";
+    private static final String DEFAULT_LOAD_MODE = "closed";
+    private static final String DEFAULT_PHASE_ONE_ARRIVAL_RATE = "500";
+    private static final String DEFAULT_PHASE_TWO_ARRIVAL_RATE = "2000";
+    private static final String DEFAULT_PHASE_THREE_ARRIVAL_RATE = "500";
+    private static final String DEFAULT_EXECUTION_ENGINE = "threads";
+    private static final String DEFAULT_ASYNC_WINDOW_SIZE = "1024";
+    private static final String DEFAULT_HTTP_CONNECTION_MODE = "pooled";
+    private static final String DEFAULT_HTTP_KEEP_ALIVE_MILLIS = "300000";
+    private static final String DEFAULT_HTTP_TCP_NO_DELAY = "true";
+    private static final String DEFAULT_HTTP_BUFFER_SIZE = "0";
+    // Off, so a call that fails on its connection is counted rather than silently sent again, POSTs included.
+    private static final String DEFAULT_HTTP_RETRY_ON_CONNECTION_FAILURE = "false";
+    private static final String DEFAULT_HTTP_TRANSPORT = "okhttp";
+    private static final String DEFAULT_HTTP_PIPELINE_CONNECTIONS = "4";
+    private static final String DEFAULT_HTTP_PIPELINE_DEPTH = "16";
+    private static final String DEFAULT_DISTRIBUTED_ROLE = "standalone";
+    private static final String DEFAULT_COORDINATOR_HOST = "localhost";
+    private static final String DEFAULT_COORDINATOR_PORT = "9500";
+    private static final String DEFAULT_WORKER_COUNT = "1";
+    private static final String DEFAULT_REQUEST_SOURCE = "random";
+    private static final String DEFAULT_CORPUS_FILE = "requestCorpus.bin";
+    private static final String DEFAULT_CORPUS_SEED = "42";
+    private static final String DEFAULT_LIFT_RIDE_BATCH_SIZE = "1";
+    private static final String DEFAULT_COORDINATED_OMISSION_CORRECTION = "false";
+    private static final String DEFAULT_EXPECTED_INTERVAL_MILLIS = "0";
+    private static final String DEFAULT_LIFT_RIDE_BATCH_LINGER_MILLIS = "20";
+    private static final String DEFAULT_REPORT_INTERVAL_SECONDS = "0";
+    private static final String DEFAULT_REPORT_FILE = "intervalReport.csv";
+    private static final int SKIERS_PER_THREAD_DENOMINATOR = 4;
     private static final String DEFAULT_SERVER_ADDRESS =
             "http://ec2-18-236-236-150.us-west-2.compute.amazonaws.com:8080/SkiServerWar";
 
@@ -53,6 +133,44 @@ public class Parameters {
     private int skiDayNumber;
     private String resortId;
     private String hostServerAddress;
+    private LoadMode loadMode;
+    private ExecutionEngine executionEngine;
+    private int asyncWindowSize;
+    private ConnectionMode httpConnectionMode;
+    private int httpMaxIdleConnections;
+    private long httpKeepAliveMillis;
+    private int httpMaxRequests;
+    private int httpMaxRequestsPerHost;
+    private boolean httpTcpNoDelay;
+    private int httpSendBufferSize;
+    private int httpReceiveBufferSize;
+    private boolean httpRetryOnConnectionFailure;
+    private TransportType httpTransport;
+    private int httpPipelineConnections;
+    private int httpPipelineDepth;
+    private List<PhaseDefinition> phases;
+    private DistributedRole distributedRole;
+    private String coordinatorHost;
+    private int coordinatorPort;
+    private int workerCount;
+    private int skierIdOffset;
+    private RequestSource requestSource;
+    private String corpusFile;
+    private long corpusSeed;
+    private String recordTrafficFile;
+    private boolean coordinatedOmissionCorrection;
+    private long expectedIntervalMillis;
+    private int liftRideBatchSize;
+    private long liftRideBatchLingerMillis;
+    private int reportIntervalSeconds;
+    private String reportFile;
+    private SearchParameters searchParameters;
+    private WorkloadParameters workloadParameters;
+    private WarmupParameters warmupParameters;
+    private SampleLogParameters sampleLogParameters;
+    private RetryPolicy retryPolicy;
+    private CircuitBreakerPolicy circuitBreakerPolicy;
+    private ConcurrencyLimitPolicy concurrencyLimitPolicy;
 
     public static Optional<Parameters> parsePropertiesFile(String filePath) {
         Properties properties = new Properties();
@@ -69,6 +187,30 @@ public class Parameters {
         return Optional.of(createDefaultParameters());
     }
 
+    public int getSkiersPerThread() {
+        return Math.max(1, skierCount / maxThreadCount / SKIERS_PER_THREAD_DENOMINATOR);
+    }
+
+    public static Parameters fromProperties(Properties properties) {
+        return propertiesToParameters(properties);
+    }
+
+    /**
+     * The share of this run that one of workerCount processes sends: a disjoint slice of the skier
+     * IDs, and each phase with its threads and arrival rate divided between the workers.
+     */
+    public Parameters forWorker(int workerIndex, int workerCount) {
+        int skiersPerWorker = skierCount / workerCount;
+        return toBuilder()
+                .skierCount(workerIndex == workerCount - 1
+                        ? skierCount - skiersPerWorker * workerIndex : skiersPerWorker)
+                .skierIdOffset(skierIdOffset + skiersPerWorker * workerIndex)
+                .phases(phases.stream()
+                        .map(phase -> phase.forWorker(workerIndex, workerCount))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
     private static Parameters propertiesToParameters(Properties properties) {
         if (requiredPropertiesPresent(properties)) {
             int skierCount = Integer.parseInt(properties.getProperty(NUM_SKIERS_PROP_NAME, DEFAULT_SKIER_COUNT));
@@ -78,6 +220,30 @@ public class Parameters {
 
             String resort = properties.getProperty(RESORT_NAME_PROP_NAME, DEFAULT_RESORT_ID);
             String serverAddress = properties.getProperty(SERVER_ADDRESS_PROP_NAME, DEFAULT_SERVER_ADDRESS);
+            LoadMode loadMode = LoadMode.fromPropertyValue(
+                    properties.getProperty(LOAD_MODE_PROP_NAME, DEFAULT_LOAD_MODE));
+            ExecutionEngine executionEngine = ExecutionEngine.fromPropertyValue(
+                    properties.getProperty(EXECUTION_ENGINE_PROP_NAME, DEFAULT_EXECUTION_ENGINE));
+            validateThreadCountForEngine(maxThreadCount, executionEngine);
+            int asyncWindowSize = PropertyParsing.parsePositiveInt(
+                    properties, ASYNC_WINDOW_SIZE_PROP_NAME, DEFAULT_ASYNC_WINDOW_SIZE);
+            int phaseOneArrivalRate = PropertyParsing.parsePositiveInt(
+                    properties, PHASE_ONE_ARRIVAL_RATE_PROP_NAME, DEFAULT_PHASE_ONE_ARRIVAL_RATE);
+            int phaseTwoArrivalRate = PropertyParsing.parsePositiveInt(
+                    properties, PHASE_TWO_ARRIVAL_RATE_PROP_NAME, DEFAULT_PHASE_TWO_ARRIVAL_RATE);
+            int phaseThreeArrivalRate = PropertyParsing.parsePositiveInt(
+                    properties, PHASE_THREE_ARRIVAL_RATE_PROP_NAME, DEFAULT_PHASE_THREE_ARRIVAL_RATE);
+            List<PhaseDefinition> phases = PhaseDefinitionParser.parse(properties, maxThreadCount)
+                    .orElseGet(() -> PhaseDefinition.legacyPhases(
+                            maxThreadCount, phaseOneArrivalRate, phaseTwoArrivalRate, phaseThreeArrivalRate));
+            String defaultMaxIdleConnections = String.valueOf(maxThreadCount + maxThreadCount / 2);
+            DistributedRole distributedRole = DistributedRole.fromPropertyValue(
+                    properties.getProperty(DISTRIBUTED_ROLE_PROP_NAME, DEFAULT_DISTRIBUTED_ROLE));
+            int workerCount = PropertyParsing.parsePositiveInt(
+                    properties, WORKER_COUNT_PROP_NAME, DEFAULT_WORKER_COUNT);
+            if (distributedRole == DistributedRole.COORDINATOR) {
+                validateWorkerCount(workerCount, phases, loadMode);
+            }
 
             return Parameters.builder()
                     .hostServerAddress(serverAddress)
@@ -86,11 +252,90 @@ public class Parameters {
                     .skiDayNumber(skiDayNumber)
                     .maxThreadCount(maxThreadCount)
                     .resortId(resort)
+                    .loadMode(loadMode)
+                    .executionEngine(executionEngine)
+                    .asyncWindowSize(asyncWindowSize)
+                    .httpConnectionMode(ConnectionMode.fromPropertyValue(
+                            properties.getProperty(HTTP_CONNECTION_MODE_PROP_NAME, DEFAULT_HTTP_CONNECTION_MODE)))
+                    .httpMaxIdleConnections(PropertyParsing.parsePositiveInt(
+                            properties, HTTP_MAX_IDLE_CONNECTIONS_PROP_NAME, defaultMaxIdleConnections))
+                    .httpKeepAliveMillis(PropertyParsing.parsePositiveInt(
+                            properties, HTTP_KEEP_ALIVE_MILLIS_PROP_NAME, DEFAULT_HTTP_KEEP_ALIVE_MILLIS))
+                    .httpMaxRequests(PropertyParsing.parsePositiveInt(
+                            properties, HTTP_MAX_REQUESTS_PROP_NAME, String.valueOf(asyncWindowSize)))
+                    .httpMaxRequestsPerHost(PropertyParsing.parsePositiveInt(
+                            properties, HTTP_MAX_REQUESTS_PER_HOST_PROP_NAME, String.valueOf(asyncWindowSize)))
+                    .httpTcpNoDelay(Boolean.parseBoolean(
+                            properties.getProperty(HTTP_TCP_NO_DELAY_PROP_NAME, DEFAULT_HTTP_TCP_NO_DELAY)))
+                    .httpSendBufferSize(PropertyParsing.parseNonNegativeInt(
+                            properties, HTTP_SEND_BUFFER_SIZE_PROP_NAME, DEFAULT_HTTP_BUFFER_SIZE))
+                    .httpReceiveBufferSize(PropertyParsing.parseNonNegativeInt(
+                            properties, HTTP_RECEIVE_BUFFER_SIZE_PROP_NAME, DEFAULT_HTTP_BUFFER_SIZE))
+                    .httpRetryOnConnectionFailure(Boolean.parseBoolean(properties.getProperty(
+                            HTTP_RETRY_ON_CONNECTION_FAILURE_PROP_NAME, DEFAULT_HTTP_RETRY_ON_CONNECTION_FAILURE)))
+                    .httpTransport(TransportType.fromPropertyValue(
+                            properties.getProperty(HTTP_TRANSPORT_PROP_NAME, DEFAULT_HTTP_TRANSPORT)))
+                    .httpPipelineConnections(PropertyParsing.parsePositiveInt(
+                            properties, HTTP_PIPELINE_CONNECTIONS_PROP_NAME, DEFAULT_HTTP_PIPELINE_CONNECTIONS))
+                    .httpPipelineDepth(PropertyParsing.parsePositiveInt(
+                            properties, HTTP_PIPELINE_DEPTH_PROP_NAME, DEFAULT_HTTP_PIPELINE_DEPTH))
+                    .phases(phases)
+                    .distributedRole(distributedRole)
+                    .coordinatorHost(properties.getProperty(COORDINATOR_HOST_PROP_NAME, DEFAULT_COORDINATOR_HOST))
+                    .coordinatorPort(PropertyParsing.parsePositiveInt(
+                            properties, COORDINATOR_PORT_PROP_NAME, DEFAULT_COORDINATOR_PORT))
+                    .workerCount(workerCount)
+                    .requestSource(RequestSource.fromPropertyValue(
+                            properties.getProperty(REQUEST_SOURCE_PROP_NAME, DEFAULT_REQUEST_SOURCE)))
+                    .corpusFile(properties.getProperty(CORPUS_FILE_PROP_NAME, DEFAULT_CORPUS_FILE))
+                    .corpusSeed(PropertyParsing.parseLong(properties, CORPUS_SEED_PROP_NAME, DEFAULT_CORPUS_SEED))
+                    .recordTrafficFile(properties.getProperty(RECORD_TRAFFIC_FILE_PROP_NAME, "").trim())
+                    .coordinatedOmissionCorrection(Boolean.parseBoolean(properties.getProperty(
+                            COORDINATED_OMISSION_CORRECTION_PROP_NAME, DEFAULT_COORDINATED_OMISSION_CORRECTION)))
+                    .expectedIntervalMillis(PropertyParsing.parseNonNegativeInt(
+                            properties, EXPECTED_INTERVAL_MILLIS_PROP_NAME, DEFAULT_EXPECTED_INTERVAL_MILLIS))
+                    .liftRideBatchSize(PropertyParsing.parsePositiveInt(
+                            properties, LIFT_RIDE_BATCH_SIZE_PROP_NAME, DEFAULT_LIFT_RIDE_BATCH_SIZE))
+                    .liftRideBatchLingerMillis(PropertyParsing.parsePositiveInt(properties,
+                            LIFT_RIDE_BATCH_LINGER_MILLIS_PROP_NAME, DEFAULT_LIFT_RIDE_BATCH_LINGER_MILLIS))
+                    .reportIntervalSeconds(PropertyParsing.parseNonNegativeInt(
+                            properties, REPORT_INTERVAL_SECONDS_PROP_NAME, DEFAULT_REPORT_INTERVAL_SECONDS))
+                    .reportFile(properties.getProperty(REPORT_FILE_PROP_NAME, DEFAULT_REPORT_FILE).trim())
+                    .searchParameters(SearchParameters.parse(properties, maxThreadCount))
+                    .workloadParameters(WorkloadParameters.parse(properties))
+                    .warmupParameters(WarmupParameters.parse(properties))
+                    .sampleLogParameters(SampleLogParameters.parse(properties))
+                    .retryPolicy(RetryPolicy.parse(properties))
+                    .circuitBreakerPolicy(CircuitBreakerPolicy.parse(properties))
+                    .concurrencyLimitPolicy(ConcurrencyLimitPolicy.parse(properties))
                     .build();
         }
         throw new IllegalArgumentException("Invalid Properties Provided.");
     }
 
+    private static void validateThreadCountForEngine(int maxThreadCount, ExecutionEngine executionEngine) {
+        if (executionEngine == ExecutionEngine.THREADS && maxThreadCount > MAXIMUM_THREAD_COUNT_LIMIT) {
+            throw new IllegalArgumentException(MAX_THREADS_PROP_NAME + " above " + MAXIMUM_THREAD_COUNT_LIMIT
+                    + " requires the virtual or async execution engine.");
+        }
+        if (executionEngine == ExecutionEngine.VIRTUAL && !VirtualThreadSupport.isSupported()) {
+            throw new IllegalArgumentException("The virtual execution engine requires a Java 21 or newer runtime.");
+        }
+    }
+
+    // Every worker needs at least one thread of each phase, and in open-loop runs one request per second of
+    // its rate, so that dividing a phase never adds load the configuration did not ask for.
+    private static void validateWorkerCount(int workerCount, List<PhaseDefinition> phases, LoadMode loadMode) {
+        for (PhaseDefinition phase : phases) {
+            if (phase.getThreadCount() < workerCount
+                    || (loadMode == LoadMode.OPEN && phase.getArrivalRate() < workerCount)) {
+                throw new IllegalArgumentException(WORKER_COUNT_PROP_NAME + " " + workerCount
+                        + " is more than phase " + phase.getName() + " has threads"
+                        + (loadMode == LoadMode.OPEN ? " or requests per second" : "") + " to divide.");
+            }
+        }
+    }
+
     private static boolean requiredPropertiesPresent(Properties properties) {
         boolean allPropsPresent = properties.stringPropertyNames().containsAll(REQUIRED_PROPERTIES);
         boolean allIntPropsPresent = REQUIRED_PROPERTIES_WITH_INT_VALUES.stream()
@@ -105,7 +350,7 @@ public class Parameters {
                 int value = Integer.parseInt(rawPropertyValue);
                 switch(propName) {
                     case MAX_THREADS_PROP_NAME:
-                        return value >= MINIMUM_THREAD_COUNT_LIMIT && value <= MAXIMUM_THREAD_COUNT_LIMIT;
+                        return value >= MINIMUM_THREAD_COUNT_LIMIT && value <= MAXIMUM_VIRTUAL_THREAD_COUNT_LIMIT;
                     case SKI_DAY_PROP_NAME:
                         return value >= 1 && value <= MAX_SKI_DAY;
                     case NUM_SKIERS_PROP_NAME:
@@ -126,11 +371,52 @@ public class Parameters {
     private static Parameters createDefaultParameters() {
         return Parameters.builder()
                 .resortId(DEFAULT_RESORT_ID)
-                .maxThreadCount(256)
+                .maxThreadCount(DEFAULT_MAX_THREAD_COUNT)
                 .skiDayNumber(Integer.parseInt(DEFAULT_DAY))
                 .liftCount(Integer.parseInt(DEFAULT_LIFT_COUNT))
                 .hostServerAddress(DEFAULT_SERVER_ADDRESS)
                 .skierCount(Integer.parseInt(DEFAULT_SKIER_COUNT))
+                .loadMode(LoadMode.fromPropertyValue(DEFAULT_LOAD_MODE))
+                .executionEngine(ExecutionEngine.fromPropertyValue(DEFAULT_EXECUTION_ENGINE))
+                .asyncWindowSize(Integer.parseInt(DEFAULT_ASYNC_WINDOW_SIZE))
+                .httpConnectionMode(ConnectionMode.fromPropertyValue(DEFAULT_HTTP_CONNECTION_MODE))
+                .httpMaxIdleConnections(DEFAULT_MAX_THREAD_COUNT + DEFAULT_MAX_THREAD_COUNT / 2)
+                .httpKeepAliveMillis(Long.parseLong(DEFAULT_HTTP_KEEP_ALIVE_MILLIS))
+                .httpMaxRequests(Integer.parseInt(DEFAULT_ASYNC_WINDOW_SIZE))
+                .httpMaxRequestsPerHost(Integer.parseInt(DEFAULT_ASYNC_WINDOW_SIZE))
+                .httpTcpNoDelay(Boolean.parseBoolean(DEFAULT_HTTP_TCP_NO_DELAY))
+                .httpSendBufferSize(Integer.parseInt(DEFAULT_HTTP_BUFFER_SIZE))
+                .httpReceiveBufferSize(Integer.parseInt(DEFAULT_HTTP_BUFFER_SIZE))
+                .httpRetryOnConnectionFailure(Boolean.parseBoolean(DEFAULT_HTTP_RETRY_ON_CONNECTION_FAILURE))
+                .httpTransport(TransportType.fromPropertyValue(DEFAULT_HTTP_TRANSPORT))
+                .httpPipelineConnections(Integer.parseInt(DEFAULT_HTTP_PIPELINE_CONNECTIONS))
+                .httpPipelineDepth(Integer.parseInt(DEFAULT_HTTP_PIPELINE_DEPTH))
+                .phases(PhaseDefinition.legacyPhases(
+                        DEFAULT_MAX_THREAD_COUNT,
+                        Integer.parseInt(DEFAULT_PHASE_ONE_ARRIVAL_RATE),
+                        Integer.parseInt(DEFAULT_PHASE_TWO_ARRIVAL_RATE),
+                        Integer.parseInt(DEFAULT_PHASE_THREE_ARRIVAL_RATE)))
+                .distributedRole(DistributedRole.fromPropertyValue(DEFAULT_DISTRIBUTED_ROLE))
+                .coordinatorHost(DEFAULT_COORDINATOR_HOST)
+                .coordinatorPort(Integer.parseInt(DEFAULT_COORDINATOR_PORT))
+                .workerCount(Integer.parseInt(DEFAULT_WORKER_COUNT))
+                .requestSource(RequestSource.fromPropertyValue(DEFAULT_REQUEST_SOURCE))
+                .corpusFile(DEFAULT_CORPUS_FILE)
+                .corpusSeed(Long.parseLong(DEFAULT_CORPUS_SEED))
+                .recordTrafficFile("")
+                .coordinatedOmissionCorrection(Boolean.parseBoolean(DEFAULT_COORDINATED_OMISSION_CORRECTION))
+                .expectedIntervalMillis(Long.parseLong(DEFAULT_EXPECTED_INTERVAL_MILLIS))
+                .liftRideBatchSize(Integer.parseInt(DEFAULT_LIFT_RIDE_BATCH_SIZE))
+                .liftRideBatchLingerMillis(Long.parseLong(DEFAULT_LIFT_RIDE_BATCH_LINGER_MILLIS))
+                .reportIntervalSeconds(Integer.parseInt(DEFAULT_REPORT_INTERVAL_SECONDS))
+                .reportFile(DEFAULT_REPORT_FILE)
+                .searchParameters(SearchParameters.parse(new Properties(), DEFAULT_MAX_THREAD_COUNT))
+                .workloadParameters(WorkloadParameters.parse(new Properties()))
+                .warmupParameters(WarmupParameters.parse(new Properties()))
+                .sampleLogParameters(SampleLogParameters.parse(new Properties()))
+                .retryPolicy(RetryPolicy.parse(new Properties()))
+                .circuitBreakerPolicy(CircuitBreakerPolicy.parse(new Properties()))
+                .concurrencyLimitPolicy(ConcurrencyLimitPolicy.parse(new Properties()))
                 .build();
     }
 }
@@ -0,0 +1,60 @@
+package assignment;
+
+import java.util.Properties;
+
+/**
+ * Parsing for the numeric settings in client_config.properties, shared by the parameter classes of
+ * every package, so each value is trimmed and a bad one is rejected with its property name.
+ */
+public final class PropertyParsing {
+    private PropertyParsing() {
+    }
+
+    public static int parseInt(Properties properties, String propName, String defaultValue) {
+        try {
+            return Integer.parseInt(properties.getProperty(propName, defaultValue).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(propName + " should be an integer.");
+        }
+    }
+
+    public static int parsePositiveInt(Properties properties, String propName, String defaultValue) {
+        int value = parseInt(properties, propName, defaultValue);
+        if (value <= 0) {
+            throw new IllegalArgumentException(propName + " should be a positive integer.");
+        }
+        return value;
+    }
+
+    public static int parseNonNegativeInt(Properties properties, String propName, String defaultValue) {
+        int value = parseInt(properties, propName, defaultValue);
+        if (value < 0) {
+            throw new IllegalArgumentException(propName + " should not be negative.");
+        }
+        return value;
+    }
+
+    public static long parseLong(Properties properties, String propName, String defaultValue) {
+        try {
+            return Long.parseLong(properties.getProperty(propName, defaultValue).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(propName + " should be an integer.");
+        }
+    }
+
+    public static double parseDouble(Properties properties, String propName, String defaultValue) {
+        try {
+            return Double.parseDouble(properties.getProperty(propName, defaultValue).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(propName + " should be a number.");
+        }
+    }
+
+    public static double parseNonNegativeDouble(Properties properties, String propName, String defaultValue) {
+        double value = parseDouble(properties, propName, defaultValue);
+        if (value < 0) {
+            throw new IllegalArgumentException(propName + " should not be negative.");
+        }
+        return value;
+    }
+}
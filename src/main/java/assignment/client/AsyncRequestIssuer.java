@@ -0,0 +1,38 @@
+package assignment.client;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Sends requests through the asynchronous ApiClient call path with at most windowSize of them in
+ * flight. Statistics are recorded from the response callbacks.
+ */
+public class AsyncRequestIssuer implements RequestIssuer {
+    private final RequestSender requestSender;
+    private final Semaphore window;
+
+    public AsyncRequestIssuer(RequestSender requestSender, int windowSize) {
+        this.requestSender = requestSender;
+        this.window = new Semaphore(windowSize);
+    }
+
+    @Override
+    public void awaitCapacity() {
+        window.acquireUninterruptibly();
+    }
+
+    @Override
+    public void issue(String requestType, long requestStartTime, Runnable onComplete) {
+        requestSender.sendAsync(requestType, requestStartTime, () -> {
+            window.release();
+            onComplete.run();
+        });
+    }
+
+    @Override
+    public void issueRecord(int recordIndex, long requestStartTime, Runnable onComplete) {
+        requestSender.sendRecordAsync(recordIndex, requestStartTime, () -> {
+            window.release();
+            onComplete.run();
+        });
+    }
+}
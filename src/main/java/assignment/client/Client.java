@@ -1,16 +1,53 @@
 package assignment.client;
 
 import assignment.Parameters;
+import assignment.corpus.CorpusCursor;
+import assignment.corpus.CorpusPhase;
+import assignment.corpus.RequestCorpus;
+import assignment.distributed.Coordinator;
+import assignment.distributed.DistributedRole;
+import assignment.distributed.WorkerAssignment;
+import assignment.distributed.WorkerConnection;
+import assignment.resilience.CircuitBreakerInterceptor;
+import assignment.resilience.ConcurrencyLimitInterceptor;
+import assignment.resilience.RetryInterceptor;
+import assignment.traffic.TrafficRecorder;
+import assignment.phase.PhaseDefinition;
+import assignment.statistics.ExpectedIntervalTracker;
+import assignment.statistics.IntervalReporter;
+import assignment.statistics.LatencyHistogram;
+import assignment.statistics.LiftRideBatchStatistics;
 import assignment.statistics.RequestStatistics;
+import assignment.statistics.SampleRecorders;
+import assignment.workload.SkierBehaviourModel;
+import assignment.workload.UniformWorkloadModel;
+import assignment.workload.WorkloadModel;
+import assignment.workload.WorkloadModelType;
+import io.swagger.client.ApiClient;
+import io.swagger.client.api.SkiersApi;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
@@ -18,23 +55,7 @@ import java.util.stream.IntStream;
 public class Client {
     private static final String CONFIG_FILE_PATH = "client_config.properties";
     private static final double MILLISECONDS_IN_SECOND = 1000.0;
-
-    private static final int MAX_THREAD_DENOMINATOR = 4;
-
-    private static final int PHASE_ONE_TIME_START = 1;
-    private static final int PHASE_ONE_TIME_END = 90;
-    private static final int PHASE_TWO_TIME_START = 91;
-    private static final int PHASE_TWO_TIME_END = 360;
-    private static final int PHASE_THREE_TIME_START = 361;
-    private static final int PHASE_THREE_TIME_END = 420;
-
-    private static final int PHASE_ONE_GET_REQ_COUNT = 5;
-    private static final int PHASE_ONE_POST_REQ_COUNT = 1000;
-    private static final int PHASE_TWO_GET_REQ_COUNT = 5;
-    private static final int PHASE_TWO_POST_REQ_COUNT = 1000;
-    private static final int PHASE_THREE_GET_REQ_COUNT = 10;
-    private static final int PHASE_THREE_POST_REQ_COUNT = 1000;
-    private static final int PHASE_ONE_TWO_SECOND_GET_COUNT = 0;
+    private static final double NANOS_IN_MILLISECOND = 1000000.0;
 
     private static final Logger logger =
             LogManager.getLogger(Client.class);
@@ -45,159 +66,511 @@ public class Client {
 
         if(clientParams.isPresent()) {
             final Parameters parameters = clientParams.get();
-
-            RequestStatistics requestStatistics =
-                    new RequestStatistics("outputData" + parameters.getMaxThreadCount() + "Threads.csv");
-            Thread statsWriteThread = requestStatistics.startWritingToCsv();
-
-            int maxThreads = parameters.getMaxThreadCount();
-            int totalThreads = maxThreads + maxThreads/2;
-            int phaseOneThreads = maxThreads / MAX_THREAD_DENOMINATOR;
-            int phaseThreeThreads = maxThreads / MAX_THREAD_DENOMINATOR;
-
-            int phaseOneCountDownEnd = ((int) Math.ceil(phaseOneThreads / 10.0));
-            int phaseTwoCountDownEnd = ((int) Math.ceil(maxThreads / 10.0));
-
-            AtomicInteger successCount = new AtomicInteger(0);
-            AtomicInteger failureCount = new AtomicInteger(0);
-
-            CountDownLatch totalCountDownLatch = new CountDownLatch(totalThreads);
-            CountDownLatch phaseOneLatch = new CountDownLatch(phaseOneCountDownEnd);
-            CountDownLatch phaseTwoLatch = new CountDownLatch(phaseTwoCountDownEnd);
-            CountDownLatch phaseThreeLatch = new CountDownLatch(0);
-
-            long programStartTime = System.currentTimeMillis();
-
-            logger.log(Level.INFO, "Phase One Beginning");
-            createThreads(
-                    parameters,
-                    phaseOneLatch,
-                    totalCountDownLatch,
-                    phaseOneThreads,
-                    PHASE_ONE_TIME_START,
-                    PHASE_ONE_TIME_END,
-                    PHASE_ONE_GET_REQ_COUNT,
-                    PHASE_ONE_TWO_SECOND_GET_COUNT,
-                    PHASE_ONE_POST_REQ_COUNT,
-                    successCount,
-                    failureCount,
-                    requestStatistics);
-
-            phaseOneLatch.await();
-
-            logger.log(Level.INFO, "Phase Two Beginning");
-            createThreads(
-                    parameters,
-                    phaseTwoLatch,
-                    totalCountDownLatch,
-                    maxThreads,
-                    PHASE_TWO_TIME_START,
-                    PHASE_TWO_TIME_END,
-                    PHASE_TWO_GET_REQ_COUNT,
-                    PHASE_ONE_TWO_SECOND_GET_COUNT,
-                    PHASE_TWO_POST_REQ_COUNT,
-                    successCount,
-                    failureCount,
-                    requestStatistics);
-
-            phaseTwoLatch.await();
-
-            logger.log(Level.INFO, "Phase Three Beginning");
-            createThreads(
-                    parameters,
-                    phaseThreeLatch,
-                    totalCountDownLatch,
-                    phaseThreeThreads,
-                    PHASE_THREE_TIME_START,
-                    PHASE_THREE_TIME_END,
-                    PHASE_THREE_GET_REQ_COUNT,
-                    PHASE_THREE_GET_REQ_COUNT,
-                    PHASE_THREE_POST_REQ_COUNT,
-                    successCount,
-                    failureCount,
-                    requestStatistics);
-
-            totalCountDownLatch.await();
-
-            logger.log(Level.INFO, "Client processed all requests");
-            long endTime = System.currentTimeMillis();
-
-            requestStatistics.addStatsToQueue(Collections.emptyList());
-            statsWriteThread.join();
-
-            requestStatistics.startCalculation();
-            requestStatistics.setVals();
-
-            printResults(requestStatistics, parameters, programStartTime, endTime, successCount, failureCount);
+            DistributedRole role = args.length > 0
+                    ? DistributedRole.fromPropertyValue(args[0]) : parameters.getDistributedRole();
+
+            switch (role) {
+                case COORDINATOR:
+                    runCoordinator(parameters);
+                    break;
+                case WORKER:
+                    runWorker(parameters);
+                    break;
+                default:
+                    runStandalone(parameters);
+            }
         } else {
             logger.log(Level.DEBUG, "Unable to load parameters config file");
         }
         logger.log(Level.INFO, "Client shutting down..........");
     }
 
+    private static void runStandalone(Parameters parameters) throws InterruptedException, IOException {
+        RequestStatistics requestStatistics =
+                new RequestStatistics("outputData" + parameters.getMaxThreadCount() + "Threads",
+                        parameters.getSampleLogParameters(), parameters.toString());
+        RunSummary summary = runLoad(parameters, PhaseBarrier.NONE, requestStatistics);
+
+        requestStatistics.setVals(summary.getLatencyHistograms());
+        printResults(requestStatistics, parameters, summary);
+    }
+
+    private static void runCoordinator(Parameters parameters) throws IOException {
+        String configText = new String(Files.readAllBytes(Paths.get(CONFIG_FILE_PATH)), StandardCharsets.UTF_8);
+        Coordinator coordinator = new Coordinator(parameters.getCoordinatorPort(), parameters.getWorkerCount());
+        RunSummary summary = coordinator.run(configText, parameters.getPhases().size());
+
+        RequestStatistics requestStatistics = new RequestStatistics();
+        requestStatistics.setVals(summary.getLatencyHistograms());
+        printResults(requestStatistics, parameters, summary);
+    }
+
+    private static void runWorker(Parameters parameters) throws InterruptedException, IOException {
+        try (WorkerConnection connection =
+                     WorkerConnection.connect(parameters.getCoordinatorHost(), parameters.getCoordinatorPort())) {
+            WorkerAssignment assignment = connection.receiveAssignment();
+            Properties properties = new Properties();
+            properties.load(new StringReader(assignment.getConfigText()));
+            Parameters workerParameters = Parameters.fromProperties(properties)
+                    .forWorker(assignment.getWorkerIndex(), assignment.getWorkerCount());
+            logger.log(Level.INFO, "Running as worker " + (assignment.getWorkerIndex() + 1)
+                    + " of " + assignment.getWorkerCount());
+
+            RequestStatistics requestStatistics = new RequestStatistics("outputData"
+                    + workerParameters.getMaxThreadCount() + "ThreadsWorker" + assignment.getWorkerIndex(),
+                    workerParameters.getSampleLogParameters(), workerParameters.toString());
+            connection.sendResult(runLoad(workerParameters, connection, requestStatistics));
+        }
+    }
+
+    private static RunSummary runLoad(
+            Parameters parameters,
+            PhaseBarrier phaseBarrier,
+            RequestStatistics requestStatistics) throws InterruptedException, IOException {
+        Thread statsWriteThread = requestStatistics.startWritingSamples();
+
+        AtomicInteger successCount = new AtomicInteger(0);
+        AtomicInteger failureCount = new AtomicInteger(0);
+
+        TunedSocketFactory socketFactory = new TunedSocketFactory(
+                parameters.isHttpTcpNoDelay(),
+                parameters.getHttpSendBufferSize(),
+                parameters.getHttpReceiveBufferSize());
+        ApiClient apiClient = HttpClientFactory.createApiClient(parameters, socketFactory);
+        SkiersApi skiersApi = new SkiersApi(apiClient);
+
+        // The warm-up runs before any interceptor is installed, so it is neither recorded for replay nor
+        // counted by the retry, circuit breaker and limiter reports.
+        RunSummary.RunSummaryBuilder summaryBuilder = RunSummary.builder();
+        if (parameters.getWarmupParameters().isEnabled()) {
+            runWarmup(parameters, skiersApi, summaryBuilder);
+            HttpClientFactory.resetConnectionStats(apiClient, socketFactory);
+        }
+
+        TrafficRecorder trafficRecorder = null;
+        if (!parameters.getRecordTrafficFile().isEmpty()) {
+            trafficRecorder = new TrafficRecorder(parameters.getRecordTrafficFile(), apiClient.getBasePath());
+            apiClient.getHttpClient().interceptors().add(trafficRecorder);
+            trafficRecorder.start();
+        }
+        // Added after the recorder so a recording holds each call once, not once per attempt.
+        RetryInterceptor retryInterceptor = null;
+        if (parameters.getRetryPolicy().isEnabled()) {
+            retryInterceptor = new RetryInterceptor(parameters.getRetryPolicy());
+            apiClient.getHttpClient().interceptors().add(retryInterceptor);
+        }
+        // Inside the retry interceptor, so every attempt counts against the circuit.
+        CircuitBreakerInterceptor circuitBreakerInterceptor = null;
+        if (parameters.getCircuitBreakerPolicy().isEnabled()) {
+            circuitBreakerInterceptor = new CircuitBreakerInterceptor(parameters.getCircuitBreakerPolicy());
+            apiClient.getHttpClient().interceptors().add(circuitBreakerInterceptor);
+        }
+        // Innermost, so the limit is measured on calls that actually reach the server.
+        ConcurrencyLimitInterceptor concurrencyLimitInterceptor = null;
+        if (parameters.getConcurrencyLimitPolicy().isEnabled()) {
+            concurrencyLimitInterceptor = new ConcurrencyLimitInterceptor(parameters.getConcurrencyLimitPolicy());
+            apiClient.getHttpClient().interceptors().add(concurrencyLimitInterceptor);
+            concurrencyLimitInterceptor.start();
+        }
+
+        long programStartTime = System.currentTimeMillis();
+        long programStartCpuTime = getProcessCpuTimeNanos();
+
+        VirtualThreadMonitor virtualThreadMonitor = new VirtualThreadMonitor();
+        if (parameters.getExecutionEngine() == ExecutionEngine.VIRTUAL) {
+            virtualThreadMonitor.start();
+        }
+        IntervalReporter intervalReporter = null;
+        if (parameters.getReportIntervalSeconds() > 0) {
+            intervalReporter = new IntervalReporter(
+                    parameters.getReportIntervalSeconds(), parameters.getReportFile(), successCount, failureCount);
+            requestStatistics.setIntervalReporter(intervalReporter);
+            intervalReporter.start();
+        }
+
+        runPhases(parameters, phaseBarrier, skiersApi, successCount, failureCount, requestStatistics);
+
+        logger.log(Level.INFO, "Client processed all requests");
+        long endTime = System.currentTimeMillis();
+        long cpuTimeNanos = getProcessCpuTimeNanos() - programStartCpuTime;
+        if (parameters.getExecutionEngine() == ExecutionEngine.VIRTUAL) {
+            virtualThreadMonitor.stop();
+        }
+        if (intervalReporter != null) {
+            intervalReporter.stop();
+        }
+
+        requestStatistics.finishWriting();
+        statsWriteThread.join();
+        if (trafficRecorder != null) {
+            trafficRecorder.stop();
+        }
+        if (concurrencyLimitInterceptor != null) {
+            concurrencyLimitInterceptor.stop();
+        }
+
+        HttpClientFactory.printConnectionStats(apiClient, socketFactory);
+        if (retryInterceptor != null) {
+            retryInterceptor.printReport();
+        }
+        if (circuitBreakerInterceptor != null) {
+            circuitBreakerInterceptor.printReport(programStartTime);
+        }
+        if (concurrencyLimitInterceptor != null) {
+            concurrencyLimitInterceptor.printReport();
+        }
+        if (parameters.getExecutionEngine() == ExecutionEngine.VIRTUAL) {
+            virtualThreadMonitor.printReport();
+        }
+
+        return summaryBuilder
+                .startTime(programStartTime)
+                .endTime(endTime)
+                .cpuTimeNanos(cpuTimeNanos)
+                .peakThreadCount(ManagementFactory.getThreadMXBean().getPeakThreadCount())
+                .successCount(successCount.get())
+                .failureCount(failureCount.get())
+                .latencyHistograms(requestStatistics.getLatencyHistograms())
+                .correctedLatencyHistograms(requestStatistics.getCorrectedLatencyHistograms())
+                .liftRideBatchStatistics(requestStatistics.getLiftRideBatchStatistics())
+                .build();
+    }
+
+    // Warm-up traffic goes through the same ApiClient, so it opens the pooled connections and gets the
+    // client code compiled, but its statistics are dropped and its requests and connections are not counted.
+    private static void runWarmup(
+            Parameters parameters,
+            SkiersApi skiersApi,
+            RunSummary.RunSummaryBuilder summaryBuilder) throws InterruptedException, IOException {
+        Parameters warmupParameters = parameters.toBuilder()
+                .requestSource(RequestSource.RANDOM)
+                .phases(Collections.singletonList(
+                        parameters.getWarmupParameters().toPhase(parameters.getPhases())))
+                .build();
+        AtomicInteger warmupSuccessCount = new AtomicInteger(0);
+        AtomicInteger warmupFailureCount = new AtomicInteger(0);
+
+        long warmupStartTime = System.currentTimeMillis();
+        runPhases(warmupParameters, PhaseBarrier.NONE, skiersApi,
+                warmupSuccessCount, warmupFailureCount, RequestStatistics.discarding());
+        long warmupEndTime = System.currentTimeMillis();
+        int warmupRequestCount = warmupSuccessCount.get() + warmupFailureCount.get();
+        logger.log(Level.INFO, "Warm-up finished after " + warmupRequestCount + " requests");
+
+        summaryBuilder
+                .warmupStartTime(warmupStartTime)
+                .warmupEndTime(warmupEndTime)
+                .warmupRequestCount(warmupRequestCount);
+    }
+
+    public static void runPhases(
+            Parameters parameters,
+            PhaseBarrier phaseBarrier,
+            SkiersApi skiersApi,
+            AtomicInteger successCount,
+            AtomicInteger failureCount,
+            RequestStatistics requestStatistics) throws InterruptedException, IOException {
+        List<PhaseDefinition> phases = parameters.getPhases();
+        boolean scheduled = parameters.getLoadMode() == LoadMode.OPEN
+                || parameters.getExecutionEngine() == ExecutionEngine.ASYNC;
+        ThreadFactory threadFactory = createWorkerThreadFactory(parameters);
+        RequestCorpus requestCorpus = parameters.getRequestSource() == RequestSource.CORPUS
+                ? openCorpus(parameters) : null;
+        // One simulated resort is shared by every phase so skiers keep their place in the day.
+        WorkloadModel skierBehaviourModel =
+                parameters.getWorkloadParameters().getModelType() == WorkloadModelType.SKIER
+                        ? new SkierBehaviourModel(parameters.getSkierIdOffset(), parameters.getSkierCount(),
+                                parameters.getLiftCount(), parameters.getWorkloadParameters())
+                        : null;
+
+        ExecutorService executorService = null;
+        if (scheduled && parameters.getExecutionEngine() != ExecutionEngine.ASYNC) {
+            int workerPoolSize = phases.stream().mapToInt(PhaseDefinition::getThreadCount).sum();
+            executorService = Executors.newFixedThreadPool(workerPoolSize, threadFactory);
+        }
+
+        List<CountDownLatch> endLatches = new ArrayList<>();
+        long runStartNanos = System.nanoTime();
+        PhaseDefinition previousPhase = null;
+        CountDownLatch previousPhaseLatch = null;
+        long previousPhaseStartNanos = runStartNanos;
+
+        for (int i = 0; i < phases.size(); i++) {
+            PhaseDefinition phase = phases.get(i);
+            PhaseDefinition nextPhase = i + 1 < phases.size() ? phases.get(i + 1) : null;
+
+            awaitPhaseStart(phase, previousPhase, previousPhaseLatch, previousPhaseStartNanos, runStartNanos);
+            phaseBarrier.awaitPhaseStart(i);
+
+            int phaseWorkUnits = scheduled ? phase.getTotalRequestCount() : phase.getThreadCount();
+            CountDownLatch phaseLatch = new CountDownLatch(getNextPhaseTriggerCount(phase, nextPhase, phaseWorkUnits));
+            CountDownLatch endLatch = new CountDownLatch(scheduled ? 1 : phase.getThreadCount());
+            long phaseStartNanos = System.nanoTime();
+            CorpusPhase corpusPhase = requestCorpus != null ? requestCorpus.getPhase(i) : null;
+
+            logger.log(Level.INFO, "Phase " + phase.getName() + " Beginning"
+                    + describeRate(parameters.getLoadMode() == LoadMode.OPEN, phase.getArrivalRate()));
+            if (scheduled) {
+                startScheduledPhase(
+                        parameters, phase, corpusPhase, skierBehaviourModel, skiersApi, executorService,
+                        phaseLatch, endLatch, successCount, failureCount, requestStatistics);
+            } else {
+                createThreads(
+                        parameters, phase, corpusPhase, skierBehaviourModel, skiersApi, threadFactory,
+                        phaseStartNanos, phaseLatch, endLatch, successCount, failureCount, requestStatistics);
+            }
+
+            endLatches.add(endLatch);
+            previousPhase = phase;
+            previousPhaseLatch = phaseLatch;
+            previousPhaseStartNanos = phaseStartNanos;
+        }
+
+        for (CountDownLatch endLatch : endLatches) {
+            endLatch.await();
+        }
+        if (executorService != null) {
+            executorService.shutdown();
+        }
+    }
+
+    private static RequestCorpus openCorpus(Parameters parameters) throws IOException {
+        RequestCorpus requestCorpus = RequestCorpus.open(Paths.get(parameters.getCorpusFile()));
+        if (requestCorpus.getPhaseCount() != parameters.getPhases().size()) {
+            throw new IllegalArgumentException(parameters.getCorpusFile() + " holds " + requestCorpus.getPhaseCount()
+                    + " phases but " + parameters.getPhases().size() + " are configured.");
+        }
+        // The replay reads corpus threads from the phase's offset on; a corpus with fewer would repeat streams.
+        for (int i = 0; i < parameters.getPhases().size(); i++) {
+            PhaseDefinition phase = parameters.getPhases().get(i);
+            CorpusPhase corpusPhase = requestCorpus.getPhase(i);
+            if (corpusPhase.getThreadCount() < phase.getThreadIndexOffset() + phase.getThreadCount()) {
+                throw new IllegalArgumentException(parameters.getCorpusFile() + " holds "
+                        + corpusPhase.getThreadCount() + " threads for phase " + phase.getName() + " but it needs "
+                        + (phase.getThreadIndexOffset() + phase.getThreadCount()) + ".");
+            }
+            if (corpusPhase.getRecordsPerThread() != phase.getRequestCountPerThread()) {
+                throw new IllegalArgumentException(parameters.getCorpusFile() + " holds "
+                        + corpusPhase.getRecordsPerThread() + " requests per thread for phase " + phase.getName()
+                        + " but " + phase.getRequestCountPerThread() + " are configured.");
+            }
+        }
+        return requestCorpus;
+    }
+
+    private static void awaitPhaseStart(
+            PhaseDefinition phase,
+            PhaseDefinition previousPhase,
+            CountDownLatch previousPhaseLatch,
+            long previousPhaseStartNanos,
+            long runStartNanos) throws InterruptedException {
+        if (phase.getStartAtSeconds() != PhaseDefinition.NO_START_TIME) {
+            sleepUntil(runStartNanos + TimeUnit.SECONDS.toNanos(phase.getStartAtSeconds()));
+        } else if (previousPhase != null && previousPhase.isDurationBased()) {
+            sleepUntil(previousPhaseStartNanos + TimeUnit.SECONDS.toNanos(previousPhase.getDurationSeconds())
+                    * phase.getStartAfterPercent() / 100);
+        } else if (previousPhaseLatch != null) {
+            previousPhaseLatch.await();
+        }
+    }
+
+    private static int getNextPhaseTriggerCount(PhaseDefinition phase, PhaseDefinition nextPhase, int phaseWorkUnits) {
+        if (nextPhase == null || phase.isDurationBased()
+                || nextPhase.getStartAtSeconds() != PhaseDefinition.NO_START_TIME) {
+            return 0;
+        }
+        return (int) Math.ceil(phaseWorkUnits * nextPhase.getStartAfterPercent() / 100.0);
+    }
+
+    private static void sleepUntil(long targetNanos) throws InterruptedException {
+        long remainingNanos = targetNanos - System.nanoTime();
+        if (remainingNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(remainingNanos);
+        }
+    }
+
+    private static void startScheduledPhase(
+            Parameters parameters,
+            PhaseDefinition phase,
+            CorpusPhase corpusPhase,
+            WorkloadModel skierBehaviourModel,
+            SkiersApi skiersApi,
+            ExecutorService executorService,
+            CountDownLatch phaseLatch,
+            CountDownLatch endLatch,
+            AtomicInteger successCount,
+            AtomicInteger failureCount,
+            RequestStatistics requestStatistics) {
+
+        LiftRideBatcher liftRideBatcher = createLiftRideBatcher(
+                parameters, skiersApi, parameters.getExecutionEngine() == ExecutionEngine.ASYNC,
+                successCount, failureCount, requestStatistics, phaseLatch);
+        // Paced requests are already timed from when they were due, so only unpaced ones need correcting.
+        SampleRecorders sampleRecorders = new SampleRecorders(requestStatistics,
+                parameters.getLoadMode() == LoadMode.OPEN ? null : createExpectedIntervalTracker(parameters));
+        RequestSender requestSender = RequestSender.builder()
+                .workloadModel(chooseWorkloadModel(
+                        skierBehaviourModel,
+                        parameters,
+                        phase,
+                        parameters.getSkierIdOffset() + 1,
+                        parameters.getSkierIdOffset() + phase.getThreadCount() * parameters.getSkiersPerThread()))
+                .liftRideBatcher(liftRideBatcher)
+                .day(parameters.getSkiDayNumber())
+                .resortName(parameters.getResortId())
+                .skiersApi(skiersApi)
+                .corpusPhase(corpusPhase)
+                .successCount(successCount)
+                .failureCount(failureCount)
+                .sampleRecorders(sampleRecorders)
+                .build();
+
+        RequestIssuer requestIssuer = parameters.getExecutionEngine() == ExecutionEngine.ASYNC
+                ? new AsyncRequestIssuer(requestSender, parameters.getAsyncWindowSize())
+                : new PooledRequestIssuer(requestSender, executorService);
+
+        PhaseScheduler phaseScheduler = PhaseScheduler.builder()
+                .phase(phase)
+                .paced(parameters.getLoadMode() == LoadMode.OPEN)
+                .requestIssuer(requestIssuer)
+                .corpusCursor(corpusPhase != null ? new CorpusCursor(
+                        corpusPhase, phase.getThreadIndexOffset(), phase.getThreadCount(), phase.isDurationBased())
+                        : null)
+                .liftRideBatcher(liftRideBatcher)
+                .phaseLatch(phaseLatch)
+                .endLatch(endLatch)
+                .sampleRecorders(sampleRecorders)
+                .build();
+
+        (new Thread(phaseScheduler)).start();
+    }
+
+    private static ThreadFactory createWorkerThreadFactory(Parameters parameters) {
+        if (parameters.getExecutionEngine() == ExecutionEngine.VIRTUAL) {
+            return VirtualThreadSupport.newVirtualThreadFactory();
+        }
+        return Thread::new;
+    }
+
     private static void createThreads(
             Parameters parameters,
+            PhaseDefinition phase,
+            CorpusPhase corpusPhase,
+            WorkloadModel skierBehaviourModel,
+            SkiersApi skiersApi,
+            ThreadFactory threadFactory,
+            long phaseStartNanos,
             CountDownLatch phaseLatch,
             CountDownLatch endLatch,
-            int numberThreads,
-            int startTime,
-            int endTime,
-            int getRequestCount,
-            int getRequestCountPhase3,
-            int postRequestCount,
             AtomicInteger successCount,
             AtomicInteger failureCount,
             RequestStatistics requestStatistics) {
 
-        int numberSkiers = parameters.getSkierCount();
-        int maxThreads = parameters.getMaxThreadCount();
+        int numberSkiersPerThread = parameters.getSkiersPerThread();
 
-        IntStream.range(0, numberThreads)
+        IntStream.range(0, phase.getThreadCount())
                 .forEach( i -> {
-                    int numberSkiersPerThread = numberSkiers / maxThreads / MAX_THREAD_DENOMINATOR;
-                    int skierIdStart = i * numberSkiersPerThread + 1;
-                    int skierIdStop = (i + 1) * numberSkiersPerThread;
+                    int skierIdStart = parameters.getSkierIdOffset() + i * numberSkiersPerThread + 1;
+                    int skierIdStop = parameters.getSkierIdOffset() + (i + 1) * numberSkiersPerThread;
 
                     ClientThread clientThread =
                             ClientThread.builder()
-                                    .serverAddress(parameters.getHostServerAddress())
+                                    .skiersApi(skiersApi)
                                     .day(parameters.getSkiDayNumber())
+                                    .phase(phase)
+                                    .corpusPhase(corpusPhase)
+                                    .workerIndex(i)
+                                    .phaseStartNanos(phaseStartNanos)
                                     .phaseLatch(phaseLatch)
                                     .endLatch(endLatch)
-                                    .getRequestCount(getRequestCount)
-                                    .getRequestCountPhaseThree(getRequestCountPhase3)
-                                    .postRequestCount(postRequestCount)
-                                    .liftCount(parameters.getLiftCount())
-                                    .startTime(startTime)
-                                    .endTime(endTime)
-                                    .skierIdBegin(skierIdStart)
-                                    .skierIdEnd(skierIdStop)
+                                    .workloadModel(chooseWorkloadModel(
+                                            skierBehaviourModel, parameters, phase, skierIdStart, skierIdStop))
+                                    .liftRideBatcher(createLiftRideBatcher(
+                                            parameters, skiersApi, false, successCount, failureCount,
+                                            requestStatistics, null))
                                     .resortName(parameters.getResortId())
                                     .successCount(successCount)
                                     .failureCount(failureCount)
                                     .requestStatistics(requestStatistics)
+                                    .expectedIntervalTracker(createExpectedIntervalTracker(parameters))
                                     .build();
 
-                    (new Thread(clientThread)).start();
+                    threadFactory.newThread(clientThread).start();
                 });
     }
 
-    private static void printResults(
-            RequestStatistics requestStatistics,
+    private static WorkloadModel chooseWorkloadModel(
+            WorkloadModel skierBehaviourModel,
             Parameters parameters,
-            long startTime,
-            long endTime,
+            PhaseDefinition phase,
+            int skierIdBegin,
+            int skierIdEnd) {
+        if (skierBehaviourModel != null) {
+            return skierBehaviourModel;
+        }
+        return new UniformWorkloadModel(
+                skierIdBegin, skierIdEnd, parameters.getLiftCount(), phase.getLiftTimeStart(), phase.getLiftTimeEnd());
+    }
+
+    private static LiftRideBatcher createLiftRideBatcher(
+            Parameters parameters,
+            SkiersApi skiersApi,
+            boolean async,
             AtomicInteger successCount,
-            AtomicInteger failureCount) {
+            AtomicInteger failureCount,
+            RequestStatistics requestStatistics,
+            CountDownLatch rideLatch) {
+        if (parameters.getLiftRideBatchSize() <= 1) {
+            return null;
+        }
+        return new LiftRideBatcher(skiersApi, parameters.getLiftRideBatchSize(),
+                parameters.getLiftRideBatchLingerMillis(), async, successCount, failureCount, requestStatistics,
+                rideLatch);
+    }
+
+    private static ExpectedIntervalTracker createExpectedIntervalTracker(Parameters parameters) {
+        if (!parameters.isCoordinatedOmissionCorrection()) {
+            return null;
+        }
+        return new ExpectedIntervalTracker(parameters.getExpectedIntervalMillis());
+    }
+
+    private static String describeRate(boolean openLoop, int arrivalRate) {
+        return openLoop ? " at " + arrivalRate + " req/s" : "";
+    }
+
+    private static long getProcessCpuTimeNanos() {
+        OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+        if (osBean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) osBean).getProcessCpuTime();
+        }
+        return 0;
+    }
+
+    public static void printResults(
+            RequestStatistics requestStatistics,
+            Parameters parameters,
+            RunSummary summary) {
 
-        double wallTime = (endTime - startTime)/MILLISECONDS_IN_SECOND;
-        double throughput = (successCount.get() + failureCount.get()) / wallTime;
+        double wallTime = (summary.getEndTime() - summary.getStartTime())/MILLISECONDS_IN_SECOND;
+        int totalRequests = summary.getSuccessCount() + summary.getFailureCount();
+        double throughput = totalRequests / wallTime;
+        double cpuMillisPerRequest = summary.getCpuTimeNanos() / NANOS_IN_MILLISECOND / Math.max(totalRequests, 1);
 
         System.out.println("Max Threads: " + parameters.getMaxThreadCount());
-        System.out.println("Number of Successful Requests Sent: " + successCount);
-        System.out.println("Number of Unsuccessful Requests: " + failureCount);
+        System.out.println("Load Mode: " + parameters.getLoadMode());
+        System.out.println("Execution Engine: " + parameters.getExecutionEngine());
+        if (summary.hasWarmup()) {
+            System.out.println("Warm-up requests (not measured): " + summary.getWarmupRequestCount());
+            System.out.println("Warm-up ended at: " + Instant.ofEpochMilli(summary.getWarmupEndTime()) + " after "
+                    + (summary.getWarmupEndTime() - summary.getWarmupStartTime()) / MILLISECONDS_IN_SECOND + " s");
+        }
+        System.out.println("Number of Successful Requests Sent: " + summary.getSuccessCount());
+        System.out.println("Number of Unsuccessful Requests: " + summary.getFailureCount());
         System.out.println("Total Wall Time(s): " + wallTime);
         System.out.println("Throughput (req/s): " + throughput);
+        System.out.println("Client CPU per request(ms): " + cpuMillisPerRequest);
+        System.out.println("Peak live client threads: " + summary.getPeakThreadCount());
         System.out.println("Mean POST response time(ms): " + requestStatistics.getMeanPostLatency());
         System.out.println("Mean GET1 response time(ms): " + requestStatistics.getMeanGet1Latency());
         System.out.println("Mean GET2 response time(ms): " + requestStatistics.getMeanGet2Latency());
@@ -210,5 +583,37 @@ public class Client {
         System.out.println("99th Percentile POST response time(ms): " + requestStatistics.getP99PostResponseTime());
         System.out.println("99th Percentile GET1 response time(ms): " + requestStatistics.getP99Get1ResponseTime());
         System.out.println("99th Percentile GET2 response time(ms): " + requestStatistics.getP99Get2ResponseTime());
+        summary.getLatencyHistograms().forEach((requestType, histogram) -> {
+            if (histogram.getTotalCount() > 0) {
+                System.out.println(requestType + " response time(ms) stddev "
+                        + String.format("%.2f", histogram.getStandardDeviation()) + ", "
+                        + LatencyHistogram.REPORTED_PERCENTILE_NAMES + "/max " + histogram.describePercentiles());
+            }
+        });
+
+        if (parameters.isCoordinatedOmissionCorrection() && summary.getCorrectedLatencyHistograms() != null) {
+            summary.getCorrectedLatencyHistograms().forEach((requestType, histogram) -> {
+                if (histogram.getTotalCount() > 0) {
+                    printCorrectedLatencies(requestType, histogram,
+                            summary.getLatencyHistograms().get(requestType).getTotalCount());
+                }
+            });
+        }
+
+        LiftRideBatchStatistics batchStatistics = summary.getLiftRideBatchStatistics();
+        if (batchStatistics != null && batchStatistics.getBatchCount() > 0) {
+            System.out.println("Lift ride batches sent: " + batchStatistics.getBatchCount());
+            System.out.println("Mean rides per batch: " + String.format("%.1f", batchStatistics.getMeanBatchSize()));
+            System.out.println("Median batch response time(ms): " + batchStatistics.getBatchLatencyAtPercentile(0.5));
+            System.out.println("99th Percentile batch response time(ms): "
+                    + batchStatistics.getBatchLatencyAtPercentile(0.99));
+        }
+    }
+
+    private static void printCorrectedLatencies(String requestType, LatencyHistogram histogram, long measuredCount) {
+        System.out.println("Corrected " + requestType + " median/99th/99.9th percentile response time(ms): "
+                + histogram.getValueAtPercentile(0.5) + "/" + histogram.getValueAtPercentile(0.99) + "/"
+                + histogram.getValueAtPercentile(0.999) + " (" + (histogram.getTotalCount() - measuredCount)
+                + " omitted requests added)");
     }
 }
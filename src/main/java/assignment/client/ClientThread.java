@@ -1,22 +1,18 @@
 package assignment.client;
 
+import assignment.corpus.CorpusCursor;
+import assignment.corpus.CorpusPhase;
+import assignment.phase.PhaseDefinition;
+import assignment.statistics.ExpectedIntervalTracker;
 import assignment.statistics.RequestStatistics;
-import io.swagger.client.ApiClient;
-import io.swagger.client.ApiException;
-import io.swagger.client.ApiResponse;
+import assignment.statistics.SampleRecorders;
+import assignment.workload.WorkloadModel;
 import io.swagger.client.api.SkiersApi;
-import io.swagger.client.model.LiftRide;
-import io.swagger.client.model.SkierVertical;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import org.apache.logging.log4j.Level;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
@@ -24,151 +20,105 @@ import java.util.stream.IntStream;
 @AllArgsConstructor
 public class ClientThread implements Runnable {
     private static final int MINUTES_IN_DAY = 420;
-    private static final int POST_SUCCESS_CODE = 201;
-    private static final int GET_SUCCESS_CODE = 200;
-    private static final int GET_SUCCESS_CODE_NO_DATA = 204;
+    private static final long INACTIVE_POLL_MILLIS = 100;
+    private static final double NANOS_IN_SECOND = 1_000_000_000.0;
 
-    private static final Logger logger =
-            LogManager.getLogger(ClientThread.class);
-
-    private int skierIdBegin;
-    private int skierIdEnd;
-    private int startTime;
-    private int endTime;
-    private int liftCount;
     private int day;
-    private int getRequestCount;
-    private int getRequestCountPhaseThree;
-    private int postRequestCount;
+    private int workerIndex;
+    private long phaseStartNanos;
 
     private AtomicInteger successCount;
     private AtomicInteger failureCount;
 
-    private String serverAddress;
     private String resortName;
 
+    private SkiersApi skiersApi;
+    private WorkloadModel workloadModel;
+    private LiftRideBatcher liftRideBatcher;
+    private PhaseDefinition phase;
+    private CorpusPhase corpusPhase;
+
     private CountDownLatch phaseLatch;
     private CountDownLatch endLatch;
 
     private RequestStatistics requestStatistics;
+    private ExpectedIntervalTracker expectedIntervalTracker;
 
     @Override
     public void run() {
-        SkiersApi skiersApi = new SkiersApi();
-        ApiClient apiClient = skiersApi.getApiClient();
-        apiClient.setReadTimeout(120000);
-        apiClient.setWriteTimeout(120000);
-        apiClient.setConnectTimeout(120000);
-
-        apiClient.setBasePath(serverAddress);
-        LinkedList<RequestStatistics.SingleRequestStatistic> threadStats = new LinkedList<>();
-
-        String dayString = String.valueOf(day);
-
-        IntStream.range(0, postRequestCount)
-                .forEach(val -> {
-                    String randSkierId = String.valueOf(
-                            ThreadLocalRandom.current().nextInt(skierIdBegin, skierIdEnd + 1));
-                    String randLiftId = String.valueOf(
-                            ThreadLocalRandom.current().nextInt(1, liftCount + 1));
-                    String randTime = String.valueOf(
-                            ThreadLocalRandom.current().nextDouble(startTime, endTime));
-
-                    LiftRide reqBody = new LiftRide()
-                            .dayID(dayString)
-                            .time(randTime)
-                            .skierID(randSkierId)
-                            .liftID(randLiftId)
-                            .resortID(resortName);
-
-                    try {
-                        long startTime = System.currentTimeMillis();
-
-                        ApiResponse<Void> res = skiersApi.writeNewLiftRideWithHttpInfo(reqBody);
-
-                        incrementCounts(res.getStatusCode() == POST_SUCCESS_CODE);
-
-                        long endTime = System.currentTimeMillis();
-                        RequestStatistics.SingleRequestStatistic stats =
-                                RequestStatistics.SingleRequestStatistic.builder()
-                                        .startTime(startTime)
-                                        .endTime(endTime)
-                                        .responseCode(res.getStatusCode())
-                                        .requestType(RequestStatistics.POST_METHOD_NAME_ONE)
-                                        .build();
-                        threadStats.add(stats);
-                    } catch (ApiException e) {
-                        failureCount.incrementAndGet();
-                        logger.log(Level.ERROR, e.getMessage());
-                    }
-                });
-
-        IntStream.range(0, getRequestCount)
-                .forEach(val -> {
-                    String randSkierId = String.valueOf(
-                            ThreadLocalRandom.current().nextInt(skierIdBegin, skierIdEnd + 1));
-                    try {
-                        long startTime = System.currentTimeMillis();
-
-                        ApiResponse<SkierVertical> res =
-                                skiersApi.getSkierDayVerticalWithHttpInfo(resortName, dayString, randSkierId);
-
-                        incrementCounts(res.getStatusCode() == GET_SUCCESS_CODE
-                                || res.getStatusCode() == GET_SUCCESS_CODE_NO_DATA);
-
-                        long endTime = System.currentTimeMillis();
-                        RequestStatistics.SingleRequestStatistic stats =
-                                RequestStatistics.SingleRequestStatistic.builder()
-                                        .startTime(startTime)
-                                        .endTime(endTime)
-                                        .responseCode(res.getStatusCode())
-                                        .requestType(RequestStatistics.GET_METHOD_NAME_ONE)
-                                        .build();
-                        threadStats.add(stats);
-                    } catch (ApiException e) {
-                        failureCount.incrementAndGet();
-                        logger.log(Level.ERROR, e.getMessage());
-                    }
-                });
-
-        IntStream.range(0, getRequestCountPhaseThree)
-                .forEach(val -> {
-                    String randSkierId = String.valueOf(
-                            ThreadLocalRandom.current().nextInt(skierIdBegin, skierIdEnd + 1));
-                    try {
-                        long startTime = System.currentTimeMillis();
-
-                        ApiResponse<SkierVertical> res =
-                                skiersApi.getSkierResortTotalsWithHttpInfo(
-                                        randSkierId, Collections.singletonList(resortName));
-                        incrementCounts(res.getStatusCode() == GET_SUCCESS_CODE
-                                || res.getStatusCode() == GET_SUCCESS_CODE_NO_DATA);
-
-                        long endTime = System.currentTimeMillis();
-                        RequestStatistics.SingleRequestStatistic stats =
-                                RequestStatistics.SingleRequestStatistic.builder()
-                                        .startTime(startTime)
-                                        .endTime(endTime)
-                                        .responseCode(res.getStatusCode())
-                                        .requestType(RequestStatistics.GET_METHOD_NAME_TWO)
-                                        .build();
-                        threadStats.add(stats);
-                    } catch (ApiException e) {
-                        failureCount.incrementAndGet();
-                        logger.log(Level.ERROR, e.getMessage());
-                    }
-                });
+        // Only this thread sends and completes requests, so it only ever uses one recorder.
+        SampleRecorders sampleRecorders = new SampleRecorders(requestStatistics, expectedIntervalTracker);
+        RequestSender requestSender = RequestSender.builder()
+                .workloadModel(workloadModel)
+                .liftRideBatcher(liftRideBatcher)
+                .day(day)
+                .resortName(resortName)
+                .skiersApi(skiersApi)
+                .corpusPhase(corpusPhase)
+                .successCount(successCount)
+                .failureCount(failureCount)
+                .sampleRecorders(sampleRecorders)
+                .build();
+
+        if (corpusPhase != null) {
+            CorpusCursor corpusCursor = new CorpusCursor(
+                    corpusPhase, phase.getThreadIndexOffset() + workerIndex, 1, phase.isDurationBased());
+            while (corpusCursor.hasNext() && awaitActive()) {
+                requestSender.sendRecord(corpusCursor.nextRecord(), RequestSender.START_WHEN_SENT);
+            }
+        } else if (phase.isDurationBased()) {
+            RequestMix requestMix = RequestMix.weighted(
+                    phase.getPostRequestCount(), phase.getGet1RequestCount(), phase.getGet2RequestCount());
+            while (awaitActive()) {
+                requestSender.send(requestMix.nextRequestType(), RequestSender.START_WHEN_SENT);
+            }
+        } else {
+            IntStream.range(0, phase.getPostRequestCount())
+                    .forEach(val -> {
+                        awaitActive();
+                        requestSender.sendLiftRide(RequestSender.START_WHEN_SENT);
+                    });
+
+            IntStream.range(0, phase.getGet1RequestCount())
+                    .forEach(val -> {
+                        awaitActive();
+                        requestSender.sendDayVertical(RequestSender.START_WHEN_SENT);
+                    });
+
+            IntStream.range(0, phase.getGet2RequestCount())
+                    .forEach(val -> {
+                        awaitActive();
+                        requestSender.sendResortTotals(RequestSender.START_WHEN_SENT);
+                    });
+        }
 
-        requestStatistics.addStatsToQueue(threadStats);
+        if (liftRideBatcher != null) {
+            liftRideBatcher.close();
+        }
+        sampleRecorders.close();
         phaseLatch.countDown();
         endLatch.countDown();
     }
 
-    private void incrementCounts(boolean isCorrectResponse) {
-        if (isCorrectResponse) {
-            successCount.incrementAndGet();
-        } else {
-            failureCount.incrementAndGet();
+    /**
+     * Blocks while the phase's ramp shape leaves this worker idle. Returns false once a duration-based
+     * phase is over.
+     */
+    private boolean awaitActive() {
+        while (true) {
+            double elapsedSeconds = (System.nanoTime() - phaseStartNanos) / NANOS_IN_SECOND;
+            if (phase.isDurationBased() && elapsedSeconds >= phase.getDurationSeconds()) {
+                return false;
+            }
+            if (workerIndex < Math.ceil(phase.intensityAt(elapsedSeconds) * phase.getThreadCount())) {
+                return true;
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(INACTIVE_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
         }
     }
 }
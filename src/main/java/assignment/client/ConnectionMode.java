@@ -0,0 +1,21 @@
+package assignment.client;
+
+import java.util.Arrays;
+
+public enum ConnectionMode {
+    POOLED("pooled"),
+    PER_REQUEST("perRequest");
+
+    private final String propertyValue;
+
+    ConnectionMode(String propertyValue) {
+        this.propertyValue = propertyValue;
+    }
+
+    public static ConnectionMode fromPropertyValue(String propertyValue) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.propertyValue.equalsIgnoreCase(propertyValue.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown connection mode: " + propertyValue));
+    }
+}
@@ -0,0 +1,22 @@
+package assignment.client;
+
+import java.util.Arrays;
+
+public enum ExecutionEngine {
+    THREADS("threads"),
+    ASYNC("async"),
+    VIRTUAL("virtual");
+
+    private final String propertyValue;
+
+    ExecutionEngine(String propertyValue) {
+        this.propertyValue = propertyValue;
+    }
+
+    public static ExecutionEngine fromPropertyValue(String propertyValue) {
+        return Arrays.stream(values())
+                .filter(engine -> engine.propertyValue.equalsIgnoreCase(propertyValue.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown execution engine: " + propertyValue));
+    }
+}
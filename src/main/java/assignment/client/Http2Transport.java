@@ -0,0 +1,264 @@
+package assignment.client;
+
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Headers;
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.ResponseBody;
+import okio.Buffer;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends calls through the JDK's java.net.http client, which multiplexes concurrent requests as
+ * HTTP/2 streams over one connection per server. OkHttp 2.7.5 can only negotiate HTTP/2 through the
+ * Jetty ALPN boot jar on Java 8, so this transport needs a Java 11 or newer runtime and, like the
+ * virtual thread support, reaches the JDK client through reflection. HTTPS servers are offered h2
+ * through ALPN; plain HTTP servers are asked to upgrade with h2c and otherwise stay on HTTP/1.1.
+ * The JDK client opens its own sockets, so the TunedSocketFactory options do not reach them, and it
+ * only identifies the connection behind each response from Java 21 on.
+ */
+public class Http2Transport implements ReportingTransport {
+    private static final Logger logger = LogManager.getLogger(Http2Transport.class);
+    private static final Set<String> RESTRICTED_HEADERS =
+            new HashSet<>(Arrays.asList("connection", "content-length", "expect", "host", "upgrade"));
+    private static final String HTTP_2_VERSION = "HTTP_2";
+    private static final String CONTENT_TYPE_HEADER = "Content-Type";
+
+    private final OkHttpClient okHttpClient;
+    private final Map<String, LongAdder> responsesByVersion = new ConcurrentHashMap<>();
+    private final Set<String> connectionLabels = ConcurrentHashMap.newKeySet();
+
+    private Object jdkClient;
+    private Method send;
+    private Method sendAsync;
+    private Object byteArrayBodyHandler;
+    private Method newRequestBuilder;
+    private Method builderMethod;
+    private Method builderHeader;
+    private Method builderTimeout;
+    private Method builderBuild;
+    private Method publisherOfByteArray;
+    private Object noBodyPublisher;
+    private Method responseStatusCode;
+    private Method responseHeaders;
+    private Method responseBody;
+    private Method responseVersion;
+    private Method responseConnectionLabel;
+    private Method headersMap;
+
+    public Http2Transport(OkHttpClient okHttpClient) {
+        this.okHttpClient = okHttpClient;
+        try {
+            Class<?> clientClass = Class.forName("java.net.http.HttpClient");
+            Class<?> clientBuilderClass = Class.forName("java.net.http.HttpClient$Builder");
+            Class<?> versionClass = Class.forName("java.net.http.HttpClient$Version");
+            Class<?> requestClass = Class.forName("java.net.http.HttpRequest");
+            Class<?> requestBuilderClass = Class.forName("java.net.http.HttpRequest$Builder");
+            Class<?> publishersClass = Class.forName("java.net.http.HttpRequest$BodyPublishers");
+            Class<?> publisherClass = Class.forName("java.net.http.HttpRequest$BodyPublisher");
+            Class<?> responseClass = Class.forName("java.net.http.HttpResponse");
+            Class<?> bodyHandlersClass = Class.forName("java.net.http.HttpResponse$BodyHandlers");
+            Class<?> bodyHandlerClass = Class.forName("java.net.http.HttpResponse$BodyHandler");
+            Class<?> headersClass = Class.forName("java.net.http.HttpHeaders");
+
+            Object clientBuilder = clientClass.getMethod("newBuilder").invoke(null);
+            clientBuilderClass.getMethod("version", versionClass)
+                    .invoke(clientBuilder, versionNamed(versionClass, HTTP_2_VERSION));
+            clientBuilderClass.getMethod("connectTimeout", Duration.class)
+                    .invoke(clientBuilder, Duration.ofMillis(okHttpClient.getConnectTimeout()));
+            jdkClient = clientBuilderClass.getMethod("build").invoke(clientBuilder);
+
+            send = clientClass.getMethod("send", requestClass, bodyHandlerClass);
+            sendAsync = clientClass.getMethod("sendAsync", requestClass, bodyHandlerClass);
+            byteArrayBodyHandler = bodyHandlersClass.getMethod("ofByteArray").invoke(null);
+            newRequestBuilder = requestClass.getMethod("newBuilder", URI.class);
+            builderMethod = requestBuilderClass.getMethod("method", String.class, publisherClass);
+            builderHeader = requestBuilderClass.getMethod("header", String.class, String.class);
+            builderTimeout = requestBuilderClass.getMethod("timeout", Duration.class);
+            builderBuild = requestBuilderClass.getMethod("build");
+            publisherOfByteArray = publishersClass.getMethod("ofByteArray", byte[].class);
+            noBodyPublisher = publishersClass.getMethod("noBody").invoke(null);
+            responseStatusCode = responseClass.getMethod("statusCode");
+            responseHeaders = responseClass.getMethod("headers");
+            responseBody = responseClass.getMethod("body");
+            responseVersion = responseClass.getMethod("version");
+            headersMap = headersClass.getMethod("map");
+            responseConnectionLabel = connectionLabelMethod(responseClass);
+        } catch (ClassNotFoundException | NoSuchMethodException
+                | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("The http2 transport requires a Java 11 or newer runtime.", e);
+        }
+        logger.log(Level.WARN, "The http2 transport connects through java.net.http, so httpTcpNoDelay, "
+                + "httpSendBufferSize and httpReceiveBufferSize do not apply to its connections");
+    }
+
+    @Override
+    public Call newCall(Request request) {
+        return new Http2Call(request);
+    }
+
+    @Override
+    public void printStats() {
+        System.out.println("Transport: java.net.http, multiplexing HTTP/2 streams where the server negotiates h2");
+        if (responseConnectionLabel != null) {
+            System.out.println("TCP connections opened: " + connectionLabels.size());
+        } else {
+            System.out.println("TCP connections opened: not reported by java.net.http before Java 21");
+        }
+        responsesByVersion.forEach((version, count) ->
+                System.out.println("Responses over " + version + ": " + count.sum()));
+    }
+
+    @Override
+    public void resetStats() {
+        responsesByVersion.clear();
+        connectionLabels.clear();
+    }
+
+    // HttpResponse.connectionLabel, added in Java 21, names the connection that carried the response.
+    private static Method connectionLabelMethod(Class<?> responseClass) {
+        try {
+            return responseClass.getMethod("connectionLabel");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object versionNamed(Class<?> versionClass, String name) {
+        return Enum.valueOf((Class) versionClass, name);
+    }
+
+    private Object toJdkRequest(Request request) throws IOException {
+        try {
+            Object builder = newRequestBuilder.invoke(null, request.uri());
+            Headers headers = request.headers();
+            for (int i = 0; i < headers.size(); i++) {
+                if (!RESTRICTED_HEADERS.contains(headers.name(i).toLowerCase())) {
+                    builderHeader.invoke(builder, headers.name(i), headers.value(i));
+                }
+            }
+
+            Object publisher = noBodyPublisher;
+            if (request.body() != null) {
+                Buffer buffer = new Buffer();
+                request.body().writeTo(buffer);
+                publisher = publisherOfByteArray.invoke(null, (Object) buffer.readByteArray());
+                if (request.body().contentType() != null && request.header(CONTENT_TYPE_HEADER) == null) {
+                    builderHeader.invoke(builder, CONTENT_TYPE_HEADER, request.body().contentType().toString());
+                }
+            }
+            builderMethod.invoke(builder, request.method(), publisher);
+            builderTimeout.invoke(builder, Duration.ofMillis(okHttpClient.getReadTimeout()));
+            return builderBuild.invoke(builder);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IOException("Unable to build an HTTP/2 request for " + request.urlString(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Response toOkHttpResponse(Request request, Object jdkResponse) throws IOException {
+        try {
+            String version = String.valueOf(responseVersion.invoke(jdkResponse));
+            responsesByVersion.computeIfAbsent(version, key -> new LongAdder()).increment();
+            if (responseConnectionLabel != null) {
+                ((Optional<?>) responseConnectionLabel.invoke(jdkResponse))
+                        .ifPresent(label -> connectionLabels.add(String.valueOf(label)));
+            }
+
+            Headers.Builder headers = new Headers.Builder();
+            Map<String, List<String>> headerMap =
+                    (Map<String, List<String>>) headersMap.invoke(responseHeaders.invoke(jdkResponse));
+            headerMap.forEach((name, values) -> values.forEach(value -> headers.add(name, value)));
+            Headers responseHeaderValues = headers.build();
+            String contentType = responseHeaderValues.get(CONTENT_TYPE_HEADER);
+
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(HTTP_2_VERSION.equals(version) ? Protocol.HTTP_2 : Protocol.HTTP_1_1)
+                    .code((Integer) responseStatusCode.invoke(jdkResponse))
+                    .message("")
+                    .headers(responseHeaderValues)
+                    .body(ResponseBody.create(contentType != null ? MediaType.parse(contentType) : null,
+                            (byte[]) responseBody.invoke(jdkResponse)))
+                    .build();
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IOException("Unable to read the HTTP/2 response for " + request.urlString(), e);
+        }
+    }
+
+    private Response sendOverJdkClient(Request request) throws IOException {
+        try {
+            return toOkHttpResponse(request, send.invoke(jdkClient, toJdkRequest(request), byteArrayBodyHandler));
+        } catch (IllegalAccessException e) {
+            throw new IOException(e);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + request.urlString());
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private class Http2Call extends InterceptedCall {
+        Http2Call(Request request) {
+            super(okHttpClient, request);
+        }
+
+        @Override
+        protected Response send(Request request) throws IOException {
+            return sendOverJdkClient(request);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void sendAsync(Request request, Callback callback) {
+            try {
+                ((CompletableFuture<Object>) sendAsync.invoke(jdkClient, toJdkRequest(request), byteArrayBodyHandler))
+                        .whenComplete((jdkResponse, failure) -> {
+                            try {
+                                if (failure != null) {
+                                    Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+                                    callback.onFailure(request, cause instanceof IOException
+                                            ? (IOException) cause : new IOException(cause));
+                                } else {
+                                    callback.onResponse(toOkHttpResponse(request, jdkResponse));
+                                }
+                            } catch (IOException e) {
+                                callback.onFailure(request, e);
+                            }
+                        });
+            } catch (IOException e) {
+                callback.onFailure(request, e);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                callback.onFailure(request, new IOException(e));
+            }
+        }
+    }
+}
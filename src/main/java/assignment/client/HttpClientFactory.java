@@ -0,0 +1,73 @@
+package assignment.client;
+
+import assignment.Parameters;
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.Dispatcher;
+import com.squareup.okhttp.OkHttpClient;
+import io.swagger.client.ApiClient;
+
+/**
+ * Builds the single ApiClient shared by every worker, so all requests go through one OkHttp
+ * connection pool, dispatcher and Gson instance. With the http2 or pipelined transport the calls are
+ * sent by that transport instead, and the OkHttpClient only supplies the timeouts and interceptors.
+ */
+public final class HttpClientFactory {
+    private static final int CLIENT_TIMEOUT_MILLIS = 120000;
+    private static final String CONNECTION_HEADER = "Connection";
+    private static final String CLOSE_CONNECTION = "close";
+
+    private HttpClientFactory() {
+    }
+
+    public static ApiClient createApiClient(Parameters parameters, TunedSocketFactory socketFactory) {
+        ApiClient apiClient = new ApiClient();
+        apiClient.setReadTimeout(CLIENT_TIMEOUT_MILLIS);
+        apiClient.setWriteTimeout(CLIENT_TIMEOUT_MILLIS);
+        apiClient.setConnectTimeout(CLIENT_TIMEOUT_MILLIS);
+        apiClient.setBasePath(parameters.getHostServerAddress());
+
+        OkHttpClient httpClient = apiClient.getHttpClient();
+        httpClient.setSocketFactory(socketFactory);
+        // OkHttp checks a pooled connection's health before reusing it either way. This only decides whether a
+        // call that fails on its connection is sent again on another one, unseen by the retry interceptor.
+        httpClient.setRetryOnConnectionFailure(parameters.isHttpRetryOnConnectionFailure());
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(parameters.getHttpMaxRequests());
+        dispatcher.setMaxRequestsPerHost(parameters.getHttpMaxRequestsPerHost());
+        httpClient.setDispatcher(dispatcher);
+
+        if (parameters.getHttpConnectionMode() == ConnectionMode.PER_REQUEST) {
+            httpClient.setConnectionPool(new ConnectionPool(0, 1));
+            apiClient.addDefaultHeader(CONNECTION_HEADER, CLOSE_CONNECTION);
+        } else {
+            httpClient.setConnectionPool(new ConnectionPool(
+                    parameters.getHttpMaxIdleConnections(), parameters.getHttpKeepAliveMillis()));
+        }
+
+        if (parameters.getHttpTransport() == TransportType.HTTP2) {
+            apiClient.setTransport(new Http2Transport(httpClient));
+        } else if (parameters.getHttpTransport() == TransportType.PIPELINED) {
+            apiClient.setTransport(new PipeliningTransport(httpClient, parameters));
+        }
+        return apiClient;
+    }
+
+    public static void resetConnectionStats(ApiClient apiClient, TunedSocketFactory socketFactory) {
+        if (apiClient.getTransport() instanceof ReportingTransport) {
+            ((ReportingTransport) apiClient.getTransport()).resetStats();
+        }
+        socketFactory.resetSocketsCreated();
+    }
+
+    public static void printConnectionStats(ApiClient apiClient, TunedSocketFactory socketFactory) {
+        if (apiClient.getTransport() instanceof ReportingTransport) {
+            ((ReportingTransport) apiClient.getTransport()).printStats();
+            return;
+        }
+        ConnectionPool connectionPool = apiClient.getHttpClient().getConnectionPool();
+        System.out.println("TCP connections opened: " + socketFactory.getSocketsCreated());
+        System.out.println("Pooled connections at end of run: " + connectionPool.getConnectionCount()
+                + " (" + connectionPool.getIdleConnectionCount() + " idle)");
+    }
+}
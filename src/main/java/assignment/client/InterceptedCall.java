@@ -0,0 +1,119 @@
+package assignment.client;
+
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Connection;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A call for transports that bypass OkHttp's connections. The application interceptors on the shared
+ * OkHttpClient still run, in order, in front of the transport's own send. Interceptors may block, so
+ * an enqueued call only stays asynchronous end to end when there are none; otherwise the chain runs
+ * on a thread of its own.
+ */
+abstract class InterceptedCall extends Call {
+    private static final ExecutorService INTERCEPTOR_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "intercepted-call");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final OkHttpClient okHttpClient;
+    private final Request request;
+    private volatile boolean executed;
+    private volatile boolean canceled;
+
+    InterceptedCall(OkHttpClient okHttpClient, Request request) {
+        super(okHttpClient, request);
+        this.okHttpClient = okHttpClient;
+        this.request = request;
+    }
+
+    protected abstract Response send(Request request) throws IOException;
+
+    protected abstract void sendAsync(Request request, Callback callback);
+
+    @Override
+    public Response execute() throws IOException {
+        executed = true;
+        return new InterceptorChain(okHttpClient.interceptors(), 0, request).proceed(request);
+    }
+
+    @Override
+    public void enqueue(Callback callback) {
+        executed = true;
+        if (okHttpClient.interceptors().isEmpty()) {
+            sendAsync(request, callback);
+        } else {
+            INTERCEPTOR_EXECUTOR.execute(() -> deliver(callback));
+        }
+    }
+
+    @Override
+    public void cancel() {
+        canceled = true;
+    }
+
+    @Override
+    public boolean isExecuted() {
+        return executed;
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    private void deliver(Callback callback) {
+        Response response;
+        try {
+            response = execute();
+        } catch (IOException e) {
+            callback.onFailure(request, e);
+            return;
+        }
+        try {
+            callback.onResponse(response);
+        } catch (IOException e) {
+            callback.onFailure(request, e);
+        }
+    }
+
+    private class InterceptorChain implements Interceptor.Chain {
+        private final List<Interceptor> interceptors;
+        private final int index;
+        private final Request request;
+
+        InterceptorChain(List<Interceptor> interceptors, int index, Request request) {
+            this.interceptors = interceptors;
+            this.index = index;
+            this.request = request;
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Response proceed(Request request) throws IOException {
+            if (index < interceptors.size()) {
+                return interceptors.get(index).intercept(new InterceptorChain(interceptors, index + 1, request));
+            }
+            return send(request);
+        }
+
+        @Override
+        public Connection connection() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package assignment.client;
+
+import assignment.statistics.SampleRecorder;
+import assignment.statistics.RequestStatistics;
+import io.swagger.client.ApiCallback;
+import io.swagger.client.ApiException;
+import io.swagger.client.ApiResponse;
+import io.swagger.client.api.SkiersApi;
+import io.swagger.client.model.LiftRide;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects one worker's lift rides into batches for the batch endpoint. A batch is sent once it is
+ * full, by the thread that filled it and synchronously unless the batcher is async, or once its
+ * first ride has waited for the linger time, in which case it goes out asynchronously from the
+ * linger timer. Each ride gets its own POST statistic and each batch a batch statistic. When a ride
+ * latch is given, it is counted down once for every ride whose batch has completed or failed.
+ */
+public class LiftRideBatcher {
+    private static final int POST_SUCCESS_CODE = 201;
+
+    private static final Logger logger = LogManager.getLogger(LiftRideBatcher.class);
+
+    private static final ScheduledExecutorService LINGER_TIMER =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "lift-ride-linger");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final SkiersApi skiersApi;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final boolean async;
+    private final AtomicInteger successCount;
+    private final AtomicInteger failureCount;
+    private final RequestStatistics requestStatistics;
+    private final SampleRecorder sampleRecorder;
+    private final CountDownLatch rideLatch;
+
+    // The owner is registered as one party; every batch in flight registers another.
+    private final Phaser inFlightBatches = new Phaser(1);
+    private List<LiftRide> rides = new ArrayList<>();
+    private List<Long> rideStartTimes = new ArrayList<>();
+    private long batchGeneration;
+
+    public LiftRideBatcher(
+            SkiersApi skiersApi,
+            int batchSize,
+            long lingerMillis,
+            boolean async,
+            AtomicInteger successCount,
+            AtomicInteger failureCount,
+            RequestStatistics requestStatistics,
+            CountDownLatch rideLatch) {
+        this.skiersApi = skiersApi;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.async = async;
+        this.successCount = successCount;
+        this.failureCount = failureCount;
+        this.requestStatistics = requestStatistics;
+        this.sampleRecorder = requestStatistics.newRecorder();
+        this.rideLatch = rideLatch;
+    }
+
+    public void add(LiftRide liftRide, long requestStartTime) {
+        Batch fullBatch = null;
+        synchronized (this) {
+            if (rides.isEmpty()) {
+                long generation = batchGeneration;
+                LINGER_TIMER.schedule(() -> flushLingering(generation), lingerMillis, TimeUnit.MILLISECONDS);
+            }
+            rides.add(liftRide);
+            rideStartTimes.add(requestStartTime);
+            if (rides.size() >= batchSize) {
+                fullBatch = takeBatch(async);
+            }
+        }
+        if (fullBatch != null) {
+            send(fullBatch);
+        }
+    }
+
+    /**
+     * Sends whatever is still queued and waits for every batch in flight, so all ride statistics and
+     * latencies have been handed to RequestStatistics when this returns.
+     */
+    public void close() {
+        Batch lastBatch = null;
+        synchronized (this) {
+            if (!rides.isEmpty()) {
+                lastBatch = takeBatch(false);
+            }
+        }
+        if (lastBatch != null) {
+            send(lastBatch);
+        }
+        inFlightBatches.arriveAndAwaitAdvance();
+        synchronized (sampleRecorder) {
+            sampleRecorder.close();
+        }
+    }
+
+    private void flushLingering(long generation) {
+        Batch lingeringBatch = null;
+        synchronized (this) {
+            if (generation == batchGeneration && !rides.isEmpty()) {
+                lingeringBatch = takeBatch(true);
+            }
+        }
+        if (lingeringBatch != null) {
+            send(lingeringBatch);
+        }
+    }
+
+    // Async batches are registered while the lock is held, so close cannot miss one taken just before it.
+    private Batch takeBatch(boolean sendAsync) {
+        if (sendAsync) {
+            inFlightBatches.register();
+        }
+        Batch batch = new Batch(rides, rideStartTimes, sendAsync);
+        rides = new ArrayList<>(batchSize);
+        rideStartTimes = new ArrayList<>(batchSize);
+        batchGeneration++;
+        return batch;
+    }
+
+    private void send(Batch batch) {
+        long batchStartTime = System.currentTimeMillis();
+        if (!batch.sendAsync) {
+            try {
+                ApiResponse<Void> res = skiersApi.writeNewLiftRideBatchWithHttpInfo(batch.rides);
+                complete(batch, batchStartTime, res.getStatusCode());
+            } catch (ApiException e) {
+                fail(batch, e);
+            }
+            return;
+        }
+
+        // Built without listeners for the same reason as in RequestSender.sendAsync.
+        try {
+            skiersApi.getApiClient().executeAsync(
+                    skiersApi.writeNewLiftRideBatchCall(batch.rides, null, null),
+                    new ApiCallback<Void>() {
+                        @Override
+                        public void onFailure(ApiException e, int statusCode, Map<String, List<String>> responseHeaders) {
+                            fail(batch, e);
+                            inFlightBatches.arriveAndDeregister();
+                        }
+
+                        @Override
+                        public void onSuccess(Void result, int statusCode, Map<String, List<String>> responseHeaders) {
+                            complete(batch, batchStartTime, statusCode);
+                            inFlightBatches.arriveAndDeregister();
+                        }
+
+                        @Override
+                        public void onUploadProgress(long bytesWritten, long contentLength, boolean done) {
+                        }
+
+                        @Override
+                        public void onDownloadProgress(long bytesRead, long contentLength, boolean done) {
+                        }
+                    });
+        } catch (ApiException e) {
+            fail(batch, e);
+            inFlightBatches.arriveAndDeregister();
+        }
+    }
+
+    private void complete(Batch batch, long batchStartTime, int responseCode) {
+        long endTime = System.currentTimeMillis();
+        int rideCount = batch.rides.size();
+        if (responseCode == POST_SUCCESS_CODE) {
+            successCount.addAndGet(rideCount);
+        } else {
+            failureCount.addAndGet(rideCount);
+        }
+        requestStatistics.getLiftRideBatchStatistics().recordBatch(rideCount, endTime - batchStartTime);
+
+        // Async batches complete on OkHttp's dispatcher threads.
+        synchronized (sampleRecorder) {
+            for (long rideStartTime : batch.rideStartTimes) {
+                sampleRecorder.record(rideStartTime, (int) (endTime - rideStartTime), (short) responseCode,
+                        RequestStatistics.POST_TYPE_INDEX);
+            }
+        }
+        countDownRides(rideCount);
+    }
+
+    private void fail(Batch batch, ApiException e) {
+        failureCount.addAndGet(batch.rides.size());
+        logger.log(Level.ERROR, e.getMessage());
+        countDownRides(batch.rides.size());
+    }
+
+    private void countDownRides(int rideCount) {
+        if (rideLatch == null) {
+            return;
+        }
+        for (int i = 0; i < rideCount; i++) {
+            rideLatch.countDown();
+        }
+    }
+
+    private static class Batch {
+        private final List<LiftRide> rides;
+        private final List<Long> rideStartTimes;
+        private final boolean sendAsync;
+
+        Batch(List<LiftRide> rides, List<Long> rideStartTimes, boolean sendAsync) {
+            this.rides = rides;
+            this.rideStartTimes = rideStartTimes;
+            this.sendAsync = sendAsync;
+        }
+    }
+}
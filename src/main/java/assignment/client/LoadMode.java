@@ -0,0 +1,21 @@
+package assignment.client;
+
+import java.util.Arrays;
+
+public enum LoadMode {
+    CLOSED("closed"),
+    OPEN("open");
+
+    private final String propertyValue;
+
+    LoadMode(String propertyValue) {
+        this.propertyValue = propertyValue;
+    }
+
+    public static LoadMode fromPropertyValue(String propertyValue) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.propertyValue.equalsIgnoreCase(propertyValue.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown load mode: " + propertyValue));
+    }
+}
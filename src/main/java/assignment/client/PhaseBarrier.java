@@ -0,0 +1,13 @@
+package assignment.client;
+
+import java.io.IOException;
+
+/**
+ * Holds a phase back until every process taking part in the run is ready to start it. A standalone
+ * client has nothing to wait for.
+ */
+public interface PhaseBarrier {
+    PhaseBarrier NONE = phaseIndex -> { };
+
+    void awaitPhaseStart(int phaseIndex) throws IOException, InterruptedException;
+}
@@ -0,0 +1,136 @@
+package assignment.client;
+
+import assignment.corpus.CorpusCursor;
+import assignment.phase.PhaseDefinition;
+import assignment.statistics.RequestStatistics;
+import assignment.statistics.SampleRecorders;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues one phase worth of requests through a {@link RequestIssuer}. When paced, requests are sent
+ * at the phase's arrival rate scaled by its ramp shape, regardless of how long the server takes to
+ * answer, and each request is timed from the moment it was scheduled to be sent. Unpaced, a request
+ * is sent as soon as the issuer has capacity for it. With a corpus cursor the requests are replayed
+ * from the corpus instead of being drawn from the phase's request mix.
+ */
+@Builder
+@AllArgsConstructor
+public class PhaseScheduler implements Runnable {
+    private static final double NANOS_IN_SECOND = 1_000_000_000.0;
+    private static final double MILLISECONDS_IN_SECOND = 1000.0;
+    private static final double MINIMUM_ARRIVAL_RATE = 1.0;
+
+    private PhaseDefinition phase;
+    private boolean paced;
+
+    private RequestIssuer requestIssuer;
+    private CorpusCursor corpusCursor;
+    private LiftRideBatcher liftRideBatcher;
+
+    private CountDownLatch phaseLatch;
+    private CountDownLatch endLatch;
+
+    // The recorders the phase's request sender records into, closed once every request has completed.
+    private SampleRecorders sampleRecorders;
+
+    @Override
+    public void run() {
+        int threadCount = phase.getThreadCount();
+        RequestMix requestMix = phase.isDurationBased()
+                ? RequestMix.weighted(
+                        phase.getPostRequestCount(), phase.getGet1RequestCount(), phase.getGet2RequestCount())
+                : RequestMix.bounded(
+                        threadCount * phase.getPostRequestCount(),
+                        threadCount * phase.getGet1RequestCount(),
+                        threadCount * phase.getGet2RequestCount());
+
+        // Starts at one on behalf of this thread, so the phase cannot complete while requests are still issued.
+        AtomicInteger outstandingRequests = new AtomicInteger(1);
+        CountDownLatch requestsComplete = new CountDownLatch(1);
+
+        long phaseStartMillis = System.currentTimeMillis();
+        long phaseStartNanos = System.nanoTime();
+        double intendedElapsedSeconds = 0;
+
+        while ((corpusCursor != null ? corpusCursor.hasNext() : requestMix.hasNext()) && !isPastDuration(paced
+                ? intendedElapsedSeconds : (System.nanoTime() - phaseStartNanos) / NANOS_IN_SECOND)) {
+            long requestStartTime;
+            if (paced) {
+                waitUntil(phaseStartNanos + (long) (intendedElapsedSeconds * NANOS_IN_SECOND));
+                requestStartTime = phaseStartMillis + (long) (intendedElapsedSeconds * MILLISECONDS_IN_SECOND);
+                double arrivalRate = phase.getArrivalRate() * phase.intensityAt(intendedElapsedSeconds);
+                intendedElapsedSeconds += 1.0 / Math.max(arrivalRate, MINIMUM_ARRIVAL_RATE);
+                requestIssuer.awaitCapacity();
+            } else {
+                requestIssuer.awaitCapacity();
+                // Like closed-loop requests, unpaced ones are timed from when they are actually sent.
+                requestStartTime = RequestSender.START_WHEN_SENT;
+            }
+
+            String requestType = corpusCursor != null ? null : requestMix.nextRequestType();
+            // A batched ride only counts towards the phase once its batch completes, which the batcher reports.
+            boolean batchedRide =
+                    liftRideBatcher != null && RequestStatistics.POST_METHOD_NAME_ONE.equals(requestType);
+            outstandingRequests.incrementAndGet();
+            Runnable onComplete = () -> {
+                if (!batchedRide) {
+                    phaseLatch.countDown();
+                }
+                completeRequest(outstandingRequests, requestsComplete);
+            };
+            if (corpusCursor != null) {
+                requestIssuer.issueRecord(corpusCursor.nextRecord(), requestStartTime, onComplete);
+            } else {
+                requestIssuer.issue(requestType, requestStartTime, onComplete);
+            }
+        }
+        completeRequest(outstandingRequests, requestsComplete);
+
+        // Pooled requests hand their rides to the batcher from the pool, so it is closed only once every
+        // request has completed. Waiting here keeps the blocking close off the completion threads.
+        awaitUninterruptibly(requestsComplete);
+        if (liftRideBatcher != null) {
+            liftRideBatcher.close();
+        }
+        sampleRecorders.close();
+        endLatch.countDown();
+    }
+
+    private boolean isPastDuration(double elapsedSeconds) {
+        return phase.isDurationBased() && elapsedSeconds >= phase.getDurationSeconds();
+    }
+
+    private static void completeRequest(AtomicInteger outstandingRequests, CountDownLatch requestsComplete) {
+        if (outstandingRequests.decrementAndGet() == 0) {
+            requestsComplete.countDown();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(long targetNanos) {
+        long remainingNanos = targetNanos - System.nanoTime();
+        while (remainingNanos > 0) {
+            LockSupport.parkNanos(remainingNanos);
+            remainingNanos = targetNanos - System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,785 @@
+package assignment.client;
+
+import assignment.Parameters;
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Headers;
+import com.squareup.okhttp.HttpUrl;
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.ResponseBody;
+import okio.Buffer;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends calls over a small fixed set of keep-alive connections driven by one selector thread, writing
+ * up to httpPipelineDepth requests on each connection before their responses come back, as HTTP/1.1
+ * pipelining allows. Requests are encoded straight into one reusable direct buffer per connection and
+ * responses parsed out of another, so the per-request garbage is the request body and the Response
+ * handed back to ApiClient. Only plain http servers are supported.
+ *
+ * <p>Responses arrive in request order, so each connection completes its oldest request. When a
+ * server announces Connection: close, the requests behind that response were never processed and are
+ * sent again on another connection. When a connection fails, only the requests that had not reached
+ * the socket are sent again; the rest may already have been processed, so they fail with the cause,
+ * unless they are idempotent and the OkHttpClient retries on connection failure.
+ */
+public class PipeliningTransport implements ReportingTransport {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long SELECT_TIMEOUT_MILLIS = 100;
+    private static final long RECONNECT_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final String HTTPS_SCHEME = "https";
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private static final int STATUS_LINE = 0;
+    private static final int HEADERS = 1;
+    private static final int BODY = 2;
+    private static final int CHUNK_SIZE = 3;
+    private static final int CHUNK_END = 4;
+    private static final int TRAILERS = 5;
+
+    private static final int FIXED_LENGTH = 0;
+    private static final int CHUNKED = 1;
+    private static final int UNTIL_CLOSE = 2;
+
+    private static final Logger logger = LogManager.getLogger(PipeliningTransport.class);
+
+    private final OkHttpClient okHttpClient;
+    private final String host;
+    private final int port;
+    private final String hostHeader;
+    private final int pipelineDepth;
+    private final boolean tcpNoDelay;
+    private final int sendBufferSize;
+    private final int receiveBufferSize;
+    private final long readTimeoutNanos;
+    private final Selector selector;
+    private final PipelinedConnection[] connections;
+    private final ExecutorService callbackExecutor;
+
+    private final Queue<Exchange> submitted = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    // Everything below is only touched by the selector thread, apart from the stats it publishes.
+    private final ArrayDeque<Exchange> backlog = new ArrayDeque<>();
+
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong requestsWritten = new AtomicLong();
+    private final AtomicLong socketWrites = new AtomicLong();
+    private final AtomicLong requestsResent = new AtomicLong();
+    private volatile int deepestPipeline;
+
+    public PipeliningTransport(OkHttpClient okHttpClient, Parameters parameters) {
+        HttpUrl baseUrl = HttpUrl.parse(parameters.getHostServerAddress());
+        if (baseUrl == null || HTTPS_SCHEME.equals(baseUrl.scheme())) {
+            throw new IllegalArgumentException("The pipelined transport only supports http servers: "
+                    + parameters.getHostServerAddress());
+        }
+        this.okHttpClient = okHttpClient;
+        this.host = baseUrl.host();
+        this.port = baseUrl.port();
+        this.hostHeader = host + ":" + port;
+        this.pipelineDepth = parameters.getHttpPipelineDepth();
+        this.tcpNoDelay = parameters.isHttpTcpNoDelay();
+        this.sendBufferSize = parameters.getHttpSendBufferSize();
+        this.receiveBufferSize = parameters.getHttpReceiveBufferSize();
+        this.readTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(okHttpClient.getReadTimeout());
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to open a selector for the pipelined transport", e);
+        }
+        this.connections = new PipelinedConnection[parameters.getHttpPipelineConnections()];
+        for (int i = 0; i < connections.length; i++) {
+            connections[i] = new PipelinedConnection();
+        }
+        this.callbackExecutor = Executors.newFixedThreadPool(connections.length, runnable -> {
+            Thread thread = new Thread(runnable, "pipeline-callback");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Thread selectorThread = new Thread(this::runSelector, "nio-pipeline");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+    @Override
+    public Call newCall(Request request) {
+        return new PipelinedCall(request);
+    }
+
+    @Override
+    public void printStats() {
+        long writes = socketWrites.get();
+        System.out.println("Transport: NIO pipelining over " + connections.length + " connections, up to "
+                + pipelineDepth + " requests in flight on each");
+        System.out.println("TCP connections opened: " + connectionsOpened.get());
+        System.out.println("Requests written: " + requestsWritten.get() + " in " + writes + " socket writes ("
+                + String.format("%.2f", writes == 0 ? 0 : (double) requestsWritten.get() / writes) + " per write)");
+        System.out.println("Deepest pipeline: " + deepestPipeline);
+        System.out.println("Requests resent after a connection closed: " + requestsResent.get());
+    }
+
+    @Override
+    public void resetStats() {
+        connectionsOpened.set(0);
+        requestsWritten.set(0);
+        socketWrites.set(0);
+        requestsResent.set(0);
+        deepestPipeline = 0;
+    }
+
+    private CompletableFuture<Response> submit(Request request) {
+        CompletableFuture<Response> response = new CompletableFuture<>();
+        HttpUrl url = request.httpUrl();
+        if (!host.equals(url.host()) || port != url.port()) {
+            response.completeExceptionally(
+                    new IOException("The pipelined transport only connects to " + hostHeader + ", not " + url));
+            return response;
+        }
+
+        byte[] body = null;
+        String contentType = null;
+        RequestBody requestBody = request.body();
+        if (requestBody != null) {
+            try {
+                Buffer buffer = new Buffer();
+                requestBody.writeTo(buffer);
+                body = buffer.readByteArray();
+            } catch (IOException e) {
+                response.completeExceptionally(e);
+                return response;
+            }
+            contentType = requestBody.contentType() != null ? requestBody.contentType().toString() : null;
+        }
+
+        submitted.add(new Exchange(request, body, contentType, response));
+        if (wakeupPending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+        return response;
+    }
+
+    private void runSelector() {
+        for (PipelinedConnection connection : connections) {
+            connection.connect();
+        }
+        while (true) {
+            try {
+                selector.select(SELECT_TIMEOUT_MILLIS);
+            } catch (IOException e) {
+                logger.log(Level.ERROR, "Pipelined transport select failed: " + e.getMessage());
+            }
+            wakeupPending.set(false);
+
+            Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+            while (selectedKeys.hasNext()) {
+                SelectionKey key = selectedKeys.next();
+                selectedKeys.remove();
+                ((PipelinedConnection) key.attachment()).handle(key);
+            }
+
+            Exchange exchange;
+            while ((exchange = submitted.poll()) != null) {
+                backlog.add(exchange);
+            }
+            dispatchBacklog();
+            expireStalledConnections();
+        }
+    }
+
+    // Hands out the backlog one request per connection per round, so the load spreads over every
+    // connection before any pipeline gets deep, then flushes each connection with a single write.
+    private void dispatchBacklog() {
+        if (backlog.isEmpty()) {
+            return;
+        }
+        for (PipelinedConnection connection : connections) {
+            connection.reconnectIfDue();
+        }
+        boolean progress = true;
+        while (progress && !backlog.isEmpty()) {
+            progress = false;
+            for (PipelinedConnection connection : connections) {
+                if (backlog.isEmpty()) {
+                    break;
+                }
+                if (connection.canAccept() && connection.encode(backlog.peekFirst())) {
+                    backlog.pollFirst();
+                    progress = true;
+                }
+            }
+        }
+        for (PipelinedConnection connection : connections) {
+            connection.flush();
+        }
+    }
+
+    private void expireStalledConnections() {
+        if (readTimeoutNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (PipelinedConnection connection : connections) {
+            connection.expireIfStalled(now);
+        }
+    }
+
+    private boolean anyConnectionUsable() {
+        for (PipelinedConnection connection : connections) {
+            if (connection.channel != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void failBacklog(IOException cause) {
+        Exchange exchange;
+        while ((exchange = backlog.poll()) != null) {
+            exchange.response.completeExceptionally(cause);
+        }
+    }
+
+    private static void putAscii(ByteBuffer buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+
+    private static void putDecimal(ByteBuffer buffer, int value) {
+        int divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + value / divisor % 10));
+        }
+    }
+
+    private static void putCrlf(ByteBuffer buffer) {
+        buffer.put((byte) '\r');
+        buffer.put((byte) '\n');
+    }
+
+    private static boolean isTransportHeader(String name) {
+        return name.equalsIgnoreCase("Host") || name.equalsIgnoreCase("Content-Length")
+                || name.equalsIgnoreCase("Connection") || name.equalsIgnoreCase("Transfer-Encoding");
+    }
+
+    private static boolean isIdempotent(String method) {
+        return method.equals("GET") || method.equals("HEAD") || method.equals("PUT") || method.equals("DELETE")
+                || method.equals("OPTIONS");
+    }
+
+    private static IOException asIOException(Throwable failure) {
+        Throwable cause = failure instanceof ExecutionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        return cause instanceof IOException ? (IOException) cause : new IOException(cause);
+    }
+
+    private static class Exchange {
+        private final Request request;
+        private final byte[] body;
+        private final String contentType;
+        private final CompletableFuture<Response> response;
+        // Where the request starts in the bytes encoded for its current connection.
+        private long connectionOffset;
+
+        Exchange(Request request, byte[] body, String contentType, CompletableFuture<Response> response) {
+            this.request = request;
+            this.body = body;
+            this.contentType = contentType;
+            this.response = response;
+        }
+    }
+
+    private class PipelinedConnection {
+        private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final byte[] copyBuffer = new byte[BUFFER_SIZE];
+        private final ArrayDeque<Exchange> inFlight = new ArrayDeque<>();
+        private SocketChannel channel;
+        private SelectionKey key;
+        private boolean connected;
+        private long reconnectAfterNanos;
+        private long lastProgressNanos;
+        private long bytesWritten;
+
+        private final StringBuilder line = new StringBuilder();
+        private int parseState = STATUS_LINE;
+        private int statusCode;
+        private String statusMessage;
+        private Headers.Builder headers;
+        private long contentLength;
+        private boolean chunked;
+        private boolean closeAfterResponse;
+        private int bodyMode;
+        private byte[] fixedBody;
+        private int fixedBodyFilled;
+        private Buffer streamedBody;
+        private long chunkRemaining;
+
+        void connect() {
+            try {
+                channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, tcpNoDelay);
+                if (sendBufferSize > 0) {
+                    channel.setOption(StandardSocketOptions.SO_SNDBUF, sendBufferSize);
+                }
+                if (receiveBufferSize > 0) {
+                    channel.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferSize);
+                }
+                key = channel.register(selector, SelectionKey.OP_CONNECT, this);
+                connectionsOpened.incrementAndGet();
+                if (channel.connect(new InetSocketAddress(host, port))) {
+                    onConnected();
+                }
+            } catch (IOException e) {
+                onConnectFailed(e);
+            }
+        }
+
+        void reconnectIfDue() {
+            if (channel == null && System.nanoTime() - reconnectAfterNanos >= 0) {
+                connect();
+            }
+        }
+
+        boolean canAccept() {
+            return connected && inFlight.size() < pipelineDepth;
+        }
+
+        void handle(SelectionKey selectedKey) {
+            if (!selectedKey.isValid()) {
+                return;
+            }
+            if (selectedKey.isConnectable()) {
+                try {
+                    channel.finishConnect();
+                    onConnected();
+                } catch (IOException e) {
+                    onConnectFailed(e);
+                }
+                return;
+            }
+            if (selectedKey.isReadable()) {
+                read();
+            }
+            if (channel != null && selectedKey.isValid() && selectedKey.isWritable()) {
+                flush();
+            }
+        }
+
+        // The request is encoded in place; if the buffer fills up halfway the partial request is rolled
+        // back and waits for the next flush to make room.
+        boolean encode(Exchange exchange) {
+            int start = writeBuffer.position();
+            try {
+                encodeRequest(exchange);
+            } catch (BufferOverflowException e) {
+                writeBuffer.position(start);
+                if (start > 0) {
+                    return false;
+                }
+                exchange.response.completeExceptionally(
+                        new IOException("Request does not fit the " + BUFFER_SIZE + " byte pipeline buffer"));
+                return true;
+            }
+            if (inFlight.isEmpty()) {
+                lastProgressNanos = System.nanoTime();
+            }
+            exchange.connectionOffset = bytesWritten + start;
+            inFlight.add(exchange);
+            requestsWritten.incrementAndGet();
+            if (inFlight.size() > deepestPipeline) {
+                deepestPipeline = inFlight.size();
+            }
+            return true;
+        }
+
+        void flush() {
+            if (channel == null || !connected) {
+                return;
+            }
+            try {
+                if (writeBuffer.position() > 0) {
+                    writeBuffer.flip();
+                    bytesWritten += channel.write(writeBuffer);
+                    socketWrites.incrementAndGet();
+                    writeBuffer.compact();
+                }
+                key.interestOps(writeBuffer.position() > 0
+                        ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+            } catch (IOException e) {
+                close(e, false);
+            }
+        }
+
+        void expireIfStalled(long now) {
+            if (!inFlight.isEmpty() && now - lastProgressNanos > readTimeoutNanos) {
+                close(new SocketTimeoutException("No response from " + hostHeader + " within "
+                        + TimeUnit.NANOSECONDS.toMillis(readTimeoutNanos) + " ms"), false);
+            }
+        }
+
+        private void onConnected() {
+            connected = true;
+            key.interestOps(SelectionKey.OP_READ);
+        }
+
+        private void onConnectFailed(IOException e) {
+            logger.log(Level.ERROR, "Unable to connect to " + hostHeader + ": " + e.getMessage());
+            close(e, true);
+            reconnectAfterNanos = System.nanoTime() + RECONNECT_DELAY_NANOS;
+            if (!anyConnectionUsable()) {
+                failBacklog(e);
+            }
+        }
+
+        private void encodeRequest(Exchange exchange) {
+            Request request = exchange.request;
+            HttpUrl url = request.httpUrl();
+            putAscii(writeBuffer, request.method());
+            writeBuffer.put((byte) ' ');
+            putAscii(writeBuffer, url.encodedPath());
+            if (url.encodedQuery() != null) {
+                writeBuffer.put((byte) '?');
+                putAscii(writeBuffer, url.encodedQuery());
+            }
+            putAscii(writeBuffer, " HTTP/1.1\r\nHost: ");
+            putAscii(writeBuffer, hostHeader);
+            putCrlf(writeBuffer);
+
+            Headers requestHeaders = request.headers();
+            for (int i = 0; i < requestHeaders.size(); i++) {
+                if (!isTransportHeader(requestHeaders.name(i))) {
+                    putAscii(writeBuffer, requestHeaders.name(i));
+                    putAscii(writeBuffer, ": ");
+                    putAscii(writeBuffer, requestHeaders.value(i));
+                    putCrlf(writeBuffer);
+                }
+            }
+            if (exchange.contentType != null && request.header("Content-Type") == null) {
+                putAscii(writeBuffer, "Content-Type: ");
+                putAscii(writeBuffer, exchange.contentType);
+                putCrlf(writeBuffer);
+            }
+            if (exchange.body != null) {
+                putAscii(writeBuffer, "Content-Length: ");
+                putDecimal(writeBuffer, exchange.body.length);
+                putCrlf(writeBuffer);
+            }
+            putCrlf(writeBuffer);
+            if (exchange.body != null) {
+                writeBuffer.put(exchange.body);
+            }
+        }
+
+        private void read() {
+            int bytesRead;
+            try {
+                bytesRead = channel.read(readBuffer);
+            } catch (IOException e) {
+                close(e, false);
+                return;
+            }
+            if (bytesRead < 0) {
+                onEndOfStream();
+                return;
+            }
+            lastProgressNanos = System.nanoTime();
+            readBuffer.flip();
+            try {
+                while (readBuffer.hasRemaining() && channel != null) {
+                    if (parseState == BODY) {
+                        readBody();
+                    } else if (readLine()) {
+                        onLine(line.toString());
+                        line.setLength(0);
+                    }
+                }
+            } catch (IOException e) {
+                close(e, false);
+            }
+            readBuffer.clear();
+        }
+
+        private boolean readLine() {
+            while (readBuffer.hasRemaining()) {
+                char c = (char) (readBuffer.get() & 0xff);
+                if (c == '\n') {
+                    if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+                        line.setLength(line.length() - 1);
+                    }
+                    return true;
+                }
+                line.append(c);
+            }
+            return false;
+        }
+
+        private void onLine(String text) throws IOException {
+            switch (parseState) {
+                case STATUS_LINE:
+                    if (!text.isEmpty()) {
+                        onStatusLine(text);
+                    }
+                    break;
+                case HEADERS:
+                    if (text.isEmpty()) {
+                        onHeadersComplete();
+                    } else {
+                        onHeader(text);
+                    }
+                    break;
+                case CHUNK_SIZE:
+                    int extension = text.indexOf(';');
+                    try {
+                        chunkRemaining = Long.parseLong((extension < 0 ? text : text.substring(0, extension)).trim(), 16);
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Malformed chunk size from " + hostHeader + ": " + text);
+                    }
+                    parseState = chunkRemaining == 0 ? TRAILERS : BODY;
+                    break;
+                case CHUNK_END:
+                    parseState = CHUNK_SIZE;
+                    break;
+                case TRAILERS:
+                    if (text.isEmpty()) {
+                        completeResponse(streamedBody.readByteArray());
+                    }
+                    break;
+                default:
+                    throw new IOException("Unexpected parser state " + parseState);
+            }
+        }
+
+        private void onStatusLine(String text) throws IOException {
+            if (!text.startsWith("HTTP/1.") || text.length() < 12) {
+                throw new IOException("Malformed status line from " + hostHeader + ": " + text);
+            }
+            try {
+                statusCode = Integer.parseInt(text.substring(9, 12));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed status line from " + hostHeader + ": " + text);
+            }
+            statusMessage = text.length() > 13 ? text.substring(13) : "";
+            headers = new Headers.Builder();
+            contentLength = -1;
+            chunked = false;
+            closeAfterResponse = text.startsWith("HTTP/1.0");
+            parseState = HEADERS;
+        }
+
+        private void onHeader(String text) throws IOException {
+            int colon = text.indexOf(':');
+            if (colon <= 0) {
+                throw new IOException("Malformed header from " + hostHeader + ": " + text);
+            }
+            String name = text.substring(0, colon).trim();
+            String value = text.substring(colon + 1).trim();
+            headers.add(name, value);
+            if (name.equalsIgnoreCase("Content-Length")) {
+                try {
+                    contentLength = Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed Content-Length from " + hostHeader + ": " + value);
+                }
+            } else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+                chunked = value.toLowerCase().contains("chunked");
+            } else if (name.equalsIgnoreCase("Connection")) {
+                if (value.equalsIgnoreCase("close")) {
+                    closeAfterResponse = true;
+                } else if (value.equalsIgnoreCase("keep-alive")) {
+                    closeAfterResponse = false;
+                }
+            }
+        }
+
+        private void onHeadersComplete() throws IOException {
+            if (statusCode / 100 == 1) {
+                parseState = STATUS_LINE;
+                return;
+            }
+            Exchange exchange = inFlight.peekFirst();
+            if (exchange == null) {
+                throw new IOException("Unsolicited response from " + hostHeader);
+            }
+            boolean hasBody = !"HEAD".equals(exchange.request.method()) && statusCode != 204 && statusCode != 304;
+            if (!hasBody) {
+                completeResponse(EMPTY_BODY);
+            } else if (chunked) {
+                bodyMode = CHUNKED;
+                streamedBody = new Buffer();
+                parseState = CHUNK_SIZE;
+            } else if (contentLength > 0) {
+                bodyMode = FIXED_LENGTH;
+                fixedBody = new byte[(int) contentLength];
+                fixedBodyFilled = 0;
+                parseState = BODY;
+            } else if (contentLength < 0 && closeAfterResponse) {
+                bodyMode = UNTIL_CLOSE;
+                streamedBody = new Buffer();
+                parseState = BODY;
+            } else {
+                completeResponse(EMPTY_BODY);
+            }
+        }
+
+        private void readBody() throws IOException {
+            if (bodyMode == FIXED_LENGTH) {
+                int count = Math.min(readBuffer.remaining(), fixedBody.length - fixedBodyFilled);
+                readBuffer.get(fixedBody, fixedBodyFilled, count);
+                fixedBodyFilled += count;
+                if (fixedBodyFilled == fixedBody.length) {
+                    completeResponse(fixedBody);
+                }
+                return;
+            }
+            int count = bodyMode == CHUNKED
+                    ? (int) Math.min(readBuffer.remaining(), chunkRemaining) : readBuffer.remaining();
+            readBuffer.get(copyBuffer, 0, count);
+            streamedBody.write(copyBuffer, 0, count);
+            if (bodyMode == CHUNKED) {
+                chunkRemaining -= count;
+                if (chunkRemaining == 0) {
+                    parseState = CHUNK_END;
+                }
+            }
+        }
+
+        private void completeResponse(byte[] body) {
+            Exchange exchange = inFlight.pollFirst();
+            Headers responseHeaders = headers.build();
+            String contentType = responseHeaders.get("Content-Type");
+            Response response = new Response.Builder()
+                    .request(exchange.request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(statusCode)
+                    .message(statusMessage)
+                    .headers(responseHeaders)
+                    .body(ResponseBody.create(contentType != null ? MediaType.parse(contentType) : null, body))
+                    .build();
+            fixedBody = null;
+            streamedBody = null;
+            parseState = STATUS_LINE;
+            lastProgressNanos = System.nanoTime();
+            exchange.response.complete(response);
+
+            if (closeAfterResponse) {
+                // The server will not read anything written after this request, so all of it is resent.
+                close(null, true);
+            }
+        }
+
+        private void onEndOfStream() {
+            if (parseState == BODY && bodyMode == UNTIL_CLOSE) {
+                completeResponse(streamedBody.readByteArray());
+            }
+            close(new IOException("Server closed the connection with " + inFlight.size()
+                    + " pipelined requests unanswered"), false);
+        }
+
+        // Unless the server is known to have processed none of the requests in flight, only those that never
+        // reached the socket are sent again, so a POST the server may have handled is not repeated.
+        private void close(IOException cause, boolean noneProcessed) {
+            if (key != null) {
+                key.cancel();
+            }
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    logger.log(Level.WARN, "Unable to close a pipelined connection: " + e.getMessage());
+                }
+            }
+            channel = null;
+            key = null;
+            connected = false;
+            long written = bytesWritten;
+            bytesWritten = 0;
+            writeBuffer.clear();
+            readBuffer.clear();
+            line.setLength(0);
+            parseState = STATUS_LINE;
+            fixedBody = null;
+            streamedBody = null;
+
+            boolean retryIdempotent = okHttpClient.getRetryOnConnectionFailure();
+            for (Exchange exchange = inFlight.pollLast(); exchange != null; exchange = inFlight.pollLast()) {
+                // Walked from the newest, so the resent requests keep their order at the front of the backlog.
+                if (noneProcessed || exchange.connectionOffset >= written
+                        || (retryIdempotent && isIdempotent(exchange.request.method()))) {
+                    requestsResent.incrementAndGet();
+                    backlog.addFirst(exchange);
+                } else {
+                    exchange.response.completeExceptionally(cause);
+                }
+            }
+        }
+    }
+
+    private class PipelinedCall extends InterceptedCall {
+        PipelinedCall(Request request) {
+            super(okHttpClient, request);
+        }
+
+        @Override
+        protected Response send(Request request) throws IOException {
+            try {
+                return submit(request).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + request.urlString());
+            } catch (ExecutionException e) {
+                throw asIOException(e);
+            }
+        }
+
+        // Callbacks run off the selector thread, so a slow callback cannot stall every connection.
+        @Override
+        protected void sendAsync(Request request, Callback callback) {
+            submit(request).whenCompleteAsync((response, failure) -> {
+                if (failure != null) {
+                    callback.onFailure(request, asIOException(failure));
+                    return;
+                }
+                try {
+                    callback.onResponse(response);
+                } catch (IOException e) {
+                    callback.onFailure(request, e);
+                }
+            }, callbackExecutor);
+        }
+    }
+}
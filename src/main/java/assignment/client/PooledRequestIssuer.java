@@ -0,0 +1,37 @@
+package assignment.client;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Sends each request synchronously on a worker pool. The pool queue is unbounded, so a saturated
+ * server shows up as queueing delay rather than as a slower send rate.
+ */
+public class PooledRequestIssuer implements RequestIssuer {
+    private final RequestSender requestSender;
+    private final ExecutorService executorService;
+
+    public PooledRequestIssuer(RequestSender requestSender, ExecutorService executorService) {
+        this.requestSender = requestSender;
+        this.executorService = executorService;
+    }
+
+    @Override
+    public void awaitCapacity() {
+    }
+
+    @Override
+    public void issue(String requestType, long requestStartTime, Runnable onComplete) {
+        executorService.execute(() -> {
+            requestSender.send(requestType, requestStartTime);
+            onComplete.run();
+        });
+    }
+
+    @Override
+    public void issueRecord(int recordIndex, long requestStartTime, Runnable onComplete) {
+        executorService.execute(() -> {
+            requestSender.sendRecord(recordIndex, requestStartTime);
+            onComplete.run();
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package assignment.client;
+
+import io.swagger.client.HttpTransport;
+
+/**
+ * A transport that keeps its own connections and so reports on them in place of the OkHttp pool.
+ */
+interface ReportingTransport extends HttpTransport {
+    void printStats();
+
+    // Called once the warm-up is over, so the report only covers the measured run.
+    void resetStats();
+}
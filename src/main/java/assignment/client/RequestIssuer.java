@@ -0,0 +1,9 @@
+package assignment.client;
+
+public interface RequestIssuer {
+    void awaitCapacity();
+
+    void issue(String requestType, long requestStartTime, Runnable onComplete);
+
+    void issueRecord(int recordIndex, long requestStartTime, Runnable onComplete);
+}
@@ -0,0 +1,53 @@
+package assignment.client;
+
+import assignment.statistics.RequestStatistics;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws request types in proportion to the configured counts. A bounded mix draws without
+ * replacement and runs out after exactly the configured number of each request; an unbounded mix
+ * treats the counts as weights and never runs out.
+ */
+public class RequestMix {
+    private final boolean bounded;
+    private int remainingPosts;
+    private int remainingGets;
+    private int remainingGetsPhaseThree;
+
+    private RequestMix(boolean bounded, int postRequestCount, int getRequestCount, int getRequestCountPhaseThree) {
+        this.bounded = bounded;
+        this.remainingPosts = postRequestCount;
+        this.remainingGets = getRequestCount;
+        this.remainingGetsPhaseThree = getRequestCountPhaseThree;
+    }
+
+    public static RequestMix bounded(int postRequestCount, int getRequestCount, int getRequestCountPhaseThree) {
+        return new RequestMix(true, postRequestCount, getRequestCount, getRequestCountPhaseThree);
+    }
+
+    public static RequestMix weighted(int postWeight, int getWeight, int getPhaseThreeWeight) {
+        return new RequestMix(false, postWeight, getWeight, getPhaseThreeWeight);
+    }
+
+    public boolean hasNext() {
+        return getRemainingRequests() > 0;
+    }
+
+    private int getRemainingRequests() {
+        return remainingPosts + remainingGets + remainingGetsPhaseThree;
+    }
+
+    public String nextRequestType() {
+        int draw = ThreadLocalRandom.current().nextInt(getRemainingRequests());
+        if (draw < remainingPosts) {
+            if (bounded) remainingPosts--;
+            return RequestStatistics.POST_METHOD_NAME_ONE;
+        } else if (draw < remainingPosts + remainingGets) {
+            if (bounded) remainingGets--;
+            return RequestStatistics.GET_METHOD_NAME_ONE;
+        }
+        if (bounded) remainingGetsPhaseThree--;
+        return RequestStatistics.GET_METHOD_NAME_TWO;
+    }
+}
@@ -0,0 +1,316 @@
+package assignment.client;
+
+import assignment.corpus.CorpusPhase;
+import assignment.statistics.RequestStatistics;
+import assignment.statistics.SampleRecorders;
+import assignment.workload.LiftRideEvent;
+import assignment.workload.WorkloadModel;
+import io.swagger.client.ApiCallback;
+import io.swagger.client.ApiClient;
+import io.swagger.client.ApiException;
+import io.swagger.client.ApiResponse;
+import io.swagger.client.Pair;
+import io.swagger.client.api.SkiersApi;
+import io.swagger.client.model.LiftRide;
+import io.swagger.client.model.SkierVertical;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends single requests and records their responses into the recorder of the thread they complete on,
+ * or hands lift rides to the batcher, which records them itself. A request is timed from the given
+ * start time, or with {@link #START_WHEN_SENT} from the moment it goes out, after its lift ride has been
+ * drawn, so time spent waiting on the workload model does not count as latency.
+ */
+@Builder
+@AllArgsConstructor
+public class RequestSender {
+    public static final long START_WHEN_SENT = -1;
+
+    private static final int POST_SUCCESS_CODE = 201;
+    private static final int GET_SUCCESS_CODE = 200;
+    private static final int GET_SUCCESS_CODE_NO_DATA = 204;
+    private static final String LIFT_RIDE_PATH = "/skiers/liftrides";
+    private static final String JSON_CONTENT_TYPE = "application/json";
+
+    private static final Logger logger =
+            LogManager.getLogger(RequestSender.class);
+
+    private int day;
+    private String resortName;
+
+    private SkiersApi skiersApi;
+    private WorkloadModel workloadModel;
+    private LiftRideBatcher liftRideBatcher;
+    private CorpusPhase corpusPhase;
+
+    private AtomicInteger successCount;
+    private AtomicInteger failureCount;
+    private SampleRecorders sampleRecorders;
+
+    public void send(String requestType, long requestStartTime) {
+        switch (requestType) {
+            case RequestStatistics.POST_METHOD_NAME_ONE:
+                sendLiftRide(requestStartTime);
+                break;
+            case RequestStatistics.GET_METHOD_NAME_ONE:
+                sendDayVertical(requestStartTime);
+                break;
+            default:
+                sendResortTotals(requestStartTime);
+        }
+    }
+
+    public void sendAsync(String requestType, long requestStartTime, Runnable onComplete) {
+        // The generated *Async wrappers register a progress interceptor on the shared OkHttpClient for every
+        // call, so calls are built without listeners and handed to executeAsync directly.
+        ApiClient apiClient = skiersApi.getApiClient();
+        LiftRide liftRide = requestType.equals(RequestStatistics.POST_METHOD_NAME_ONE)
+                ? createLiftRide(workloadModel.nextLiftRide()) : null;
+        long startTime = resolveStartTime(requestStartTime);
+        if (liftRideBatcher != null && liftRide != null) {
+            // The ride is recorded by the batcher when its batch completes.
+            liftRideBatcher.add(liftRide, startTime);
+            onComplete.run();
+            return;
+        }
+        try {
+            switch (requestType) {
+                case RequestStatistics.POST_METHOD_NAME_ONE:
+                    apiClient.executeAsync(
+                            skiersApi.writeNewLiftRideCall(liftRide, null, null),
+                            new RecordingCallback<Void>(
+                                    startTime, RequestStatistics.POST_TYPE_INDEX, POST_SUCCESS_CODE, onComplete));
+                    break;
+                case RequestStatistics.GET_METHOD_NAME_ONE:
+                    apiClient.executeAsync(
+                            skiersApi.getSkierDayVerticalCall(
+                                    resortName, String.valueOf(day), nextSkierId(), null, null),
+                            SkierVertical.class,
+                            new RecordingCallback<SkierVertical>(
+                                    startTime, RequestStatistics.GET1_TYPE_INDEX, GET_SUCCESS_CODE, onComplete));
+                    break;
+                default:
+                    apiClient.executeAsync(
+                            skiersApi.getSkierResortTotalsCall(
+                                    nextSkierId(), Collections.singletonList(resortName), null, null),
+                            SkierVertical.class,
+                            new RecordingCallback<SkierVertical>(
+                                    startTime, RequestStatistics.GET2_TYPE_INDEX, GET_SUCCESS_CODE, onComplete));
+            }
+        } catch (ApiException e) {
+            failureCount.incrementAndGet();
+            logger.log(Level.ERROR, e.getMessage());
+            onComplete.run();
+        }
+    }
+
+    public void sendRecord(int recordIndex, long requestStartTime) {
+        String requestType = corpusPhase.getRequestType(recordIndex);
+        String skierId = String.valueOf(corpusPhase.getSkierId(recordIndex));
+        long startTime = resolveStartTime(requestStartTime);
+        try {
+            ApiResponse<?> res;
+            int successCode;
+            switch (requestType) {
+                case RequestStatistics.POST_METHOD_NAME_ONE:
+                    res = skiersApi.getApiClient().execute(createRecordedLiftRideCall(recordIndex));
+                    successCode = POST_SUCCESS_CODE;
+                    break;
+                case RequestStatistics.GET_METHOD_NAME_ONE:
+                    res = skiersApi.getSkierDayVerticalWithHttpInfo(resortName, String.valueOf(day), skierId);
+                    successCode = GET_SUCCESS_CODE;
+                    break;
+                default:
+                    res = skiersApi.getSkierResortTotalsWithHttpInfo(skierId, Collections.singletonList(resortName));
+                    successCode = GET_SUCCESS_CODE;
+            }
+            incrementCounts(res.getStatusCode() == successCode
+                    || (successCode == GET_SUCCESS_CODE && res.getStatusCode() == GET_SUCCESS_CODE_NO_DATA));
+            record(startTime, res.getStatusCode(), RequestStatistics.requestTypeIndex(requestType));
+        } catch (ApiException e) {
+            failureCount.incrementAndGet();
+            logger.log(Level.ERROR, e.getMessage());
+        }
+    }
+
+    public void sendRecordAsync(int recordIndex, long requestStartTime, Runnable onComplete) {
+        String requestType = corpusPhase.getRequestType(recordIndex);
+        String skierId = String.valueOf(corpusPhase.getSkierId(recordIndex));
+        long startTime = resolveStartTime(requestStartTime);
+        ApiClient apiClient = skiersApi.getApiClient();
+        try {
+            switch (requestType) {
+                case RequestStatistics.POST_METHOD_NAME_ONE:
+                    apiClient.executeAsync(
+                            createRecordedLiftRideCall(recordIndex),
+                            new RecordingCallback<Void>(
+                                    startTime, RequestStatistics.POST_TYPE_INDEX, POST_SUCCESS_CODE, onComplete));
+                    break;
+                case RequestStatistics.GET_METHOD_NAME_ONE:
+                    apiClient.executeAsync(
+                            skiersApi.getSkierDayVerticalCall(resortName, String.valueOf(day), skierId, null, null),
+                            SkierVertical.class,
+                            new RecordingCallback<SkierVertical>(
+                                    startTime, RequestStatistics.GET1_TYPE_INDEX, GET_SUCCESS_CODE, onComplete));
+                    break;
+                default:
+                    apiClient.executeAsync(
+                            skiersApi.getSkierResortTotalsCall(
+                                    skierId, Collections.singletonList(resortName), null, null),
+                            SkierVertical.class,
+                            new RecordingCallback<SkierVertical>(
+                                    startTime, RequestStatistics.GET2_TYPE_INDEX, GET_SUCCESS_CODE, onComplete));
+            }
+        } catch (ApiException e) {
+            failureCount.incrementAndGet();
+            logger.log(Level.ERROR, e.getMessage());
+            onComplete.run();
+        }
+    }
+
+    public void sendLiftRide(long requestStartTime) {
+        LiftRide liftRide = createLiftRide(workloadModel.nextLiftRide());
+        long startTime = resolveStartTime(requestStartTime);
+        if (liftRideBatcher != null) {
+            liftRideBatcher.add(liftRide, startTime);
+            return;
+        }
+        try {
+            ApiResponse<Void> res = skiersApi.writeNewLiftRideWithHttpInfo(liftRide);
+            incrementCounts(res.getStatusCode() == POST_SUCCESS_CODE);
+
+            record(startTime, res.getStatusCode(), RequestStatistics.POST_TYPE_INDEX);
+        } catch (ApiException e) {
+            failureCount.incrementAndGet();
+            logger.log(Level.ERROR, e.getMessage());
+        }
+    }
+
+    public void sendDayVertical(long requestStartTime) {
+        String randSkierId = nextSkierId();
+        long startTime = resolveStartTime(requestStartTime);
+        try {
+            ApiResponse<SkierVertical> res =
+                    skiersApi.getSkierDayVerticalWithHttpInfo(resortName, String.valueOf(day), randSkierId);
+            incrementCounts(res.getStatusCode() == GET_SUCCESS_CODE
+                    || res.getStatusCode() == GET_SUCCESS_CODE_NO_DATA);
+
+            record(startTime, res.getStatusCode(), RequestStatistics.GET1_TYPE_INDEX);
+        } catch (ApiException e) {
+            failureCount.incrementAndGet();
+            logger.log(Level.ERROR, e.getMessage());
+        }
+    }
+
+    public void sendResortTotals(long requestStartTime) {
+        String randSkierId = nextSkierId();
+        long startTime = resolveStartTime(requestStartTime);
+        try {
+            ApiResponse<SkierVertical> res =
+                    skiersApi.getSkierResortTotalsWithHttpInfo(
+                            randSkierId, Collections.singletonList(resortName));
+            incrementCounts(res.getStatusCode() == GET_SUCCESS_CODE
+                    || res.getStatusCode() == GET_SUCCESS_CODE_NO_DATA);
+
+            record(startTime, res.getStatusCode(), RequestStatistics.GET2_TYPE_INDEX);
+        } catch (ApiException e) {
+            failureCount.incrementAndGet();
+            logger.log(Level.ERROR, e.getMessage());
+        }
+    }
+
+    private static long resolveStartTime(long requestStartTime) {
+        return requestStartTime == START_WHEN_SENT ? System.currentTimeMillis() : requestStartTime;
+    }
+
+    private String nextSkierId() {
+        return String.valueOf(workloadModel.nextSkierId());
+    }
+
+    private LiftRide createLiftRide(LiftRideEvent liftRideEvent) {
+        return new LiftRide()
+                .dayID(String.valueOf(day))
+                .time(String.valueOf(liftRideEvent.getTime()))
+                .skierID(String.valueOf(liftRideEvent.getSkierId()))
+                .liftID(String.valueOf(liftRideEvent.getLiftId()))
+                .resortID(resortName);
+    }
+
+    // The corpus already holds the serialized LiftRide, so the body goes out as raw bytes instead of
+    // through Gson. The headers match the ones writeNewLiftRideCall sets.
+    private com.squareup.okhttp.Call createRecordedLiftRideCall(int recordIndex) throws ApiException {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Accept", JSON_CONTENT_TYPE);
+        headers.put("Content-Type", JSON_CONTENT_TYPE);
+        return skiersApi.getApiClient().buildCall(
+                LIFT_RIDE_PATH,
+                "POST",
+                Collections.<Pair>emptyList(),
+                Collections.<Pair>emptyList(),
+                corpusPhase.getPayload(recordIndex),
+                headers,
+                Collections.<String, Object>emptyMap(),
+                new String[0],
+                null);
+    }
+
+    private void record(long requestStartTime, int responseCode, byte requestTypeIndex) {
+        sampleRecorders.forCurrentThread().record(requestStartTime,
+                (int) (System.currentTimeMillis() - requestStartTime), (short) responseCode, requestTypeIndex);
+    }
+
+    private void incrementCounts(boolean isCorrectResponse) {
+        if (isCorrectResponse) {
+            successCount.incrementAndGet();
+        } else {
+            failureCount.incrementAndGet();
+        }
+    }
+
+    private class RecordingCallback<T> implements ApiCallback<T> {
+        private final long requestStartTime;
+        private final byte requestTypeIndex;
+        private final int successCode;
+        private final Runnable onComplete;
+
+        RecordingCallback(long requestStartTime, byte requestTypeIndex, int successCode, Runnable onComplete) {
+            this.requestStartTime = requestStartTime;
+            this.requestTypeIndex = requestTypeIndex;
+            this.successCode = successCode;
+            this.onComplete = onComplete;
+        }
+
+        @Override
+        public void onFailure(ApiException e, int statusCode, Map<String, List<String>> responseHeaders) {
+            failureCount.incrementAndGet();
+            logger.log(Level.ERROR, e.getMessage());
+            onComplete.run();
+        }
+
+        @Override
+        public void onSuccess(T result, int statusCode, Map<String, List<String>> responseHeaders) {
+            incrementCounts(statusCode == successCode
+                    || (successCode == GET_SUCCESS_CODE && statusCode == GET_SUCCESS_CODE_NO_DATA));
+            record(requestStartTime, statusCode, requestTypeIndex);
+            onComplete.run();
+        }
+
+        @Override
+        public void onUploadProgress(long bytesWritten, long contentLength, boolean done) {
+        }
+
+        @Override
+        public void onDownloadProgress(long bytesRead, long contentLength, boolean done) {
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package assignment.client;
+
+import java.util.Arrays;
+
+public enum RequestSource {
+    RANDOM("random"),
+    CORPUS("corpus");
+
+    private final String propertyValue;
+
+    RequestSource(String propertyValue) {
+        this.propertyValue = propertyValue;
+    }
+
+    public static RequestSource fromPropertyValue(String propertyValue) {
+        return Arrays.stream(values())
+                .filter(source -> source.propertyValue.equalsIgnoreCase(propertyValue.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown request source: " + propertyValue));
+    }
+}
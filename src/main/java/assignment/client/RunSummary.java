@@ -0,0 +1,67 @@
+package assignment.client;
+
+import assignment.statistics.LatencyHistogram;
+import assignment.statistics.LiftRideBatchStatistics;
+import assignment.statistics.RequestStatistics;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totals for one client run. Summaries from several worker processes merge into one that covers the
+ * whole distributed run: the wall clock spans the earliest start to the latest end, and everything
+ * else is added up. The warm-up, when there is one, ends when the last worker's warm-up ends.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class RunSummary {
+    private long startTime;
+    private long endTime;
+    private long cpuTimeNanos;
+    private long peakThreadCount;
+    private int successCount;
+    private int failureCount;
+    private Map<String, LatencyHistogram> latencyHistograms;
+    private Map<String, LatencyHistogram> correctedLatencyHistograms;
+    private LiftRideBatchStatistics liftRideBatchStatistics;
+    private long warmupStartTime;
+    private long warmupEndTime;
+    private int warmupRequestCount;
+
+    public boolean hasWarmup() {
+        return warmupEndTime > 0;
+    }
+
+    public static RunSummary merge(List<RunSummary> summaries) {
+        Map<String, LatencyHistogram> mergedHistograms = RequestStatistics.createLatencyHistograms();
+        Map<String, LatencyHistogram> mergedCorrectedHistograms = RequestStatistics.createLatencyHistograms();
+        LiftRideBatchStatistics mergedBatchStatistics = new LiftRideBatchStatistics();
+        summaries.forEach(summary -> {
+            summary.getLatencyHistograms()
+                    .forEach((requestType, histogram) -> mergedHistograms.get(requestType).merge(histogram));
+            summary.getCorrectedLatencyHistograms()
+                    .forEach((requestType, histogram) -> mergedCorrectedHistograms.get(requestType).merge(histogram));
+            mergedBatchStatistics.merge(summary.getLiftRideBatchStatistics());
+        });
+
+        return RunSummary.builder()
+                .startTime(summaries.stream().mapToLong(RunSummary::getStartTime).min().orElse(0))
+                .endTime(summaries.stream().mapToLong(RunSummary::getEndTime).max().orElse(0))
+                .cpuTimeNanos(summaries.stream().mapToLong(RunSummary::getCpuTimeNanos).sum())
+                .peakThreadCount(summaries.stream().mapToLong(RunSummary::getPeakThreadCount).sum())
+                .successCount(summaries.stream().mapToInt(RunSummary::getSuccessCount).sum())
+                .failureCount(summaries.stream().mapToInt(RunSummary::getFailureCount).sum())
+                .latencyHistograms(mergedHistograms)
+                .correctedLatencyHistograms(mergedCorrectedHistograms)
+                .liftRideBatchStatistics(mergedBatchStatistics)
+                .warmupStartTime(summaries.stream().filter(RunSummary::hasWarmup)
+                        .mapToLong(RunSummary::getWarmupStartTime).min().orElse(0))
+                .warmupEndTime(summaries.stream().mapToLong(RunSummary::getWarmupEndTime).max().orElse(0))
+                .warmupRequestCount(summaries.stream().mapToInt(RunSummary::getWarmupRequestCount).sum())
+                .build();
+    }
+}
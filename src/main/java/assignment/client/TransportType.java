@@ -0,0 +1,22 @@
+package assignment.client;
+
+import java.util.Arrays;
+
+public enum TransportType {
+    OKHTTP("okhttp"),
+    HTTP2("http2"),
+    PIPELINED("pipelined");
+
+    private final String propertyValue;
+
+    TransportType(String propertyValue) {
+        this.propertyValue = propertyValue;
+    }
+
+    public static TransportType fromPropertyValue(String propertyValue) {
+        return Arrays.stream(values())
+                .filter(type -> type.propertyValue.equalsIgnoreCase(propertyValue.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown HTTP transport: " + propertyValue));
+    }
+}
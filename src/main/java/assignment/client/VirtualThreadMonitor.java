@@ -0,0 +1,160 @@
+package assignment.client;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Reports how the virtual-thread carrier pool was used during a run and where virtual threads were
+ * pinned to their carrier. Pinning is captured from the jdk.VirtualThreadPinned JFR event, grouped by
+ * the innermost frame outside the JDK, which is usually a synchronized block in OkHttp or okio.
+ */
+public class VirtualThreadMonitor {
+    private static final String PINNED_EVENT_NAME = "jdk.VirtualThreadPinned";
+    private static final String CARRIER_THREAD_NAME_PREFIX = "ForkJoinPool-";
+    private static final String CARRIER_THREAD_NAME_MARKER = "-worker-";
+    private static final Duration PINNED_EVENT_THRESHOLD = Duration.ofMillis(1);
+    private static final int PINNING_SITES_TO_REPORT = 10;
+    private static final double NANOS_IN_SECOND = 1_000_000_000.0;
+
+    private static final Logger logger = LogManager.getLogger(VirtualThreadMonitor.class);
+
+    private final Map<String, LongAdder> pinnedCountBySite = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> pinnedNanosBySite = new ConcurrentHashMap<>();
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private AutoCloseable recordingStream;
+    private long startNanos;
+    private long endNanos;
+
+    private Method getStackTrace;
+    private Method getFrames;
+    private Method getDuration;
+    private Method getFrameMethod;
+    private Method getLineNumber;
+    private Method getMethodType;
+    private Method getMethodName;
+    private Method getTypeName;
+
+    public void start() {
+        startNanos = System.nanoTime();
+        try {
+            Class<?> streamClass = Class.forName("jdk.jfr.consumer.RecordingStream");
+            Class<?> recordedEvent = Class.forName("jdk.jfr.consumer.RecordedEvent");
+            Class<?> recordedStackTrace = Class.forName("jdk.jfr.consumer.RecordedStackTrace");
+            Class<?> recordedFrame = Class.forName("jdk.jfr.consumer.RecordedFrame");
+            Class<?> recordedMethod = Class.forName("jdk.jfr.consumer.RecordedMethod");
+            Class<?> recordedClass = Class.forName("jdk.jfr.consumer.RecordedClass");
+            Class<?> eventSettings = Class.forName("jdk.jfr.EventSettings");
+
+            getStackTrace = recordedEvent.getMethod("getStackTrace");
+            getDuration = recordedEvent.getMethod("getDuration");
+            getFrames = recordedStackTrace.getMethod("getFrames");
+            getFrameMethod = recordedFrame.getMethod("getMethod");
+            getLineNumber = recordedFrame.getMethod("getLineNumber");
+            getMethodType = recordedMethod.getMethod("getType");
+            getMethodName = recordedMethod.getMethod("getName");
+            getTypeName = recordedClass.getMethod("getName");
+
+            Object stream = streamClass.getConstructor().newInstance();
+            Object settings = streamClass.getMethod("enable", String.class).invoke(stream, PINNED_EVENT_NAME);
+            eventSettings.getMethod("withStackTrace").invoke(settings);
+            eventSettings.getMethod("withThreshold", Duration.class).invoke(settings, PINNED_EVENT_THRESHOLD);
+
+            Consumer<Object> pinnedEventHandler = this::recordPinnedEvent;
+            streamClass.getMethod("onEvent", String.class, Consumer.class)
+                    .invoke(stream, PINNED_EVENT_NAME, pinnedEventHandler);
+            streamClass.getMethod("startAsync").invoke(stream);
+            recordingStream = (AutoCloseable) stream;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.log(Level.WARN, "Unable to record virtual thread pinning events: " + e.getMessage());
+        }
+    }
+
+    public void stop() {
+        endNanos = System.nanoTime();
+        if (recordingStream != null) {
+            try {
+                // stop() drains events that are still buffered; it only exists from Java 20 onwards.
+                recordingStream.getClass().getMethod("stop").invoke(recordingStream);
+            } catch (ReflectiveOperationException e) {
+                logger.log(Level.DEBUG, "Pinning events from the last flush interval may be missing");
+            }
+            try {
+                recordingStream.close();
+            } catch (Exception e) {
+                logger.log(Level.WARN, e.getMessage());
+            }
+        }
+    }
+
+    public void printReport() {
+        double wallSeconds = (endNanos - startNanos) / NANOS_IN_SECOND;
+        long carrierCount = 0;
+        long carrierCpuNanos = 0;
+
+        for (ThreadInfo threadInfo : threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds())) {
+            if (threadInfo != null && isCarrierThread(threadInfo.getThreadName())) {
+                carrierCount++;
+                carrierCpuNanos += Math.max(threadMXBean.getThreadCpuTime(threadInfo.getThreadId()), 0);
+            }
+        }
+
+        double carrierUtilization = carrierCount == 0
+                ? 0 : carrierCpuNanos / NANOS_IN_SECOND / (wallSeconds * carrierCount);
+
+        System.out.println("Virtual thread carriers: " + carrierCount);
+        System.out.println("Carrier CPU time(s): " + carrierCpuNanos / NANOS_IN_SECOND);
+        System.out.println("Carrier utilization: " + String.format("%.1f%%", carrierUtilization * 100));
+        System.out.println("Pinned virtual thread events: "
+                + pinnedCountBySite.values().stream().mapToLong(LongAdder::sum).sum());
+
+        pinnedNanosBySite.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> entry) -> entry.getValue().sum())
+                        .reversed())
+                .limit(PINNING_SITES_TO_REPORT)
+                .forEach(entry -> System.out.println("  pinned at " + entry.getKey()
+                        + ": " + pinnedCountBySite.get(entry.getKey()).sum() + " times, "
+                        + entry.getValue().sum() / 1_000_000 + " ms total"));
+    }
+
+    private static boolean isCarrierThread(String threadName) {
+        return threadName.startsWith(CARRIER_THREAD_NAME_PREFIX) && threadName.contains(CARRIER_THREAD_NAME_MARKER);
+    }
+
+    private void recordPinnedEvent(Object event) {
+        try {
+            String pinningSite = "<unknown>";
+            Object stackTrace = getStackTrace.invoke(event);
+            if (stackTrace != null) {
+                for (Object frame : (List<?>) getFrames.invoke(stackTrace)) {
+                    Object method = getFrameMethod.invoke(frame);
+                    String className = (String) getTypeName.invoke(getMethodType.invoke(method));
+                    if (!className.startsWith("java.") && !className.startsWith("jdk.")
+                            && !className.startsWith("sun.")) {
+                        pinningSite = className + "." + getMethodName.invoke(method)
+                                + ":" + getLineNumber.invoke(frame);
+                        break;
+                    }
+                }
+            }
+            Duration duration = (Duration) getDuration.invoke(event);
+            pinnedCountBySite.computeIfAbsent(pinningSite, site -> new LongAdder()).increment();
+            pinnedNanosBySite.computeIfAbsent(pinningSite, site -> new LongAdder()).add(duration.toNanos());
+        } catch (ReflectiveOperationException e) {
+            logger.log(Level.WARN, e.getMessage());
+        }
+    }
+}
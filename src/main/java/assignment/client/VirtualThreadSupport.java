@@ -0,0 +1,39 @@
+package assignment.client;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The client is built for Java 8, so virtual threads are reached through reflection and are only
+ * available when the client runs on a Java 21 or newer JVM.
+ */
+public final class VirtualThreadSupport {
+    private static final String VIRTUAL_THREAD_NAME_PREFIX = "skier-";
+
+    private VirtualThreadSupport() {
+    }
+
+    public static boolean isSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    public static ThreadFactory newVirtualThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(builder, VIRTUAL_THREAD_NAME_PREFIX, 0L);
+            Method factoryMethod = builderClass.getMethod("factory");
+            return (ThreadFactory) factoryMethod.invoke(builder);
+        } catch (ClassNotFoundException | NoSuchMethodException
+                | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Virtual threads require a Java 21 or newer runtime.", e);
+        }
+    }
+}
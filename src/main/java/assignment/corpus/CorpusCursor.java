@@ -0,0 +1,38 @@
+package assignment.corpus;
+
+/**
+ * Walks the records of a run of consecutive corpus threads. With more than one thread the records are
+ * taken round robin, one from each thread in turn, so a single scheduler replays roughly the mix the
+ * threads would have produced side by side. A cycling cursor starts over once it runs out, for
+ * phases that last a fixed time rather than a fixed number of requests.
+ */
+public class CorpusCursor {
+    private final CorpusPhase corpusPhase;
+    private final int firstThread;
+    private final int threadCount;
+    private final boolean cycling;
+    private final int recordCount;
+    private int position;
+
+    public CorpusCursor(CorpusPhase corpusPhase, int firstThread, int threadCount, boolean cycling) {
+        this.corpusPhase = corpusPhase;
+        this.firstThread = firstThread;
+        this.threadCount = threadCount;
+        this.cycling = cycling;
+        this.recordCount = threadCount * corpusPhase.getRecordsPerThread();
+    }
+
+    public boolean hasNext() {
+        return recordCount > 0 && (cycling || position < recordCount);
+    }
+
+    public int nextRecord() {
+        if (position == recordCount) {
+            position = 0;
+        }
+        int threadOffset = position % threadCount;
+        int threadPosition = position / threadCount;
+        position++;
+        return corpusPhase.recordIndex(firstThread + threadOffset, threadPosition);
+    }
+}
@@ -0,0 +1,130 @@
+package assignment.corpus;
+
+import assignment.Parameters;
+import assignment.phase.PhaseDefinition;
+import io.swagger.client.JSON;
+import io.swagger.client.model.LiftRide;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Writes the whole workload described by client_config.properties to a request corpus ahead of a run.
+ * Each phase thread gets the same skier range and request order a live worker thread would use, drawn
+ * from a seeded generator so the same configuration always produces the same file. Duration-based
+ * phases get one pass of their weighted mix per thread, which replay cycles through.
+ */
+public class CorpusGenerator {
+    private static final String CONFIG_FILE_PATH = "client_config.properties";
+    private static final int POST_TYPE = 0;
+    private static final int GET1_TYPE = 1;
+    private static final int GET2_TYPE = 2;
+
+    private static final Logger logger = LogManager.getLogger(CorpusGenerator.class);
+
+    private final Parameters parameters;
+    private final Random random;
+    private final JSON json = new JSON();
+    private final byte[] padding = new byte[RequestCorpus.MAX_PAYLOAD_SIZE];
+
+    public CorpusGenerator(Parameters parameters) {
+        this.parameters = parameters;
+        this.random = new Random(parameters.getCorpusSeed());
+    }
+
+    public static void main(String[] args) throws IOException {
+        Optional<Parameters> clientParams = Parameters.parsePropertiesFile(CONFIG_FILE_PATH);
+        if (clientParams.isPresent()) {
+            Parameters parameters = clientParams.get();
+            String corpusFile = args.length > 0 ? args[0] : parameters.getCorpusFile();
+            long recordCount = new CorpusGenerator(parameters).generate(corpusFile);
+            System.out.println("Wrote " + recordCount + " requests to " + corpusFile);
+        } else {
+            logger.log(Level.DEBUG, "Unable to load parameters config file");
+        }
+    }
+
+    public long generate(String corpusFile) throws IOException {
+        List<PhaseDefinition> phases = parameters.getPhases();
+        long recordCount = 0;
+
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(corpusFile)))) {
+            output.writeInt(RequestCorpus.MAGIC);
+            output.writeInt(RequestCorpus.VERSION);
+            output.writeInt(phases.size());
+            for (PhaseDefinition phase : phases) {
+                output.writeInt(phase.getThreadCount());
+                output.writeInt(phase.getRequestCountPerThread());
+            }
+
+            int skiersPerThread = parameters.getSkiersPerThread();
+            for (PhaseDefinition phase : phases) {
+                for (int thread = 0; thread < phase.getThreadCount(); thread++) {
+                    int skierIdBegin = parameters.getSkierIdOffset() + thread * skiersPerThread + 1;
+                    int skierIdEnd = parameters.getSkierIdOffset() + (thread + 1) * skiersPerThread;
+                    for (int position = 0; position < phase.getRequestCountPerThread(); position++) {
+                        writeRecord(output, phase, chooseType(phase, position), skierIdBegin, skierIdEnd);
+                        recordCount++;
+                    }
+                }
+            }
+        }
+        return recordCount;
+    }
+
+    private int chooseType(PhaseDefinition phase, int position) {
+        int postCount = phase.getPostRequestCount();
+        int get1Count = phase.getGet1RequestCount();
+        int draw = phase.isDurationBased() ? random.nextInt(phase.getRequestCountPerThread()) : position;
+        if (draw < postCount) {
+            return POST_TYPE;
+        }
+        return draw < postCount + get1Count ? GET1_TYPE : GET2_TYPE;
+    }
+
+    private void writeRecord(
+            DataOutputStream output,
+            PhaseDefinition phase,
+            int requestType,
+            int skierIdBegin,
+            int skierIdEnd) throws IOException {
+        int skierId = skierIdBegin + random.nextInt(skierIdEnd - skierIdBegin + 1);
+        byte[] payload = requestType == POST_TYPE ? createLiftRideBody(phase, skierId) : new byte[0];
+
+        output.writeByte(requestType);
+        output.writeByte(0);
+        output.writeShort(payload.length);
+        output.writeInt(skierId);
+        output.write(payload);
+        output.write(padding, 0, RequestCorpus.MAX_PAYLOAD_SIZE - payload.length);
+    }
+
+    private byte[] createLiftRideBody(PhaseDefinition phase, int skierId) {
+        int liftId = random.nextInt(parameters.getLiftCount()) + 1;
+        double time = phase.getLiftTimeStart()
+                + random.nextDouble() * (phase.getLiftTimeEnd() - phase.getLiftTimeStart());
+
+        LiftRide liftRide = new LiftRide()
+                .dayID(String.valueOf(parameters.getSkiDayNumber()))
+                .time(String.valueOf(time))
+                .skierID(String.valueOf(skierId))
+                .liftID(String.valueOf(liftId))
+                .resortID(parameters.getResortId());
+        byte[] body = json.serialize(liftRide).getBytes(StandardCharsets.UTF_8);
+        if (body.length > RequestCorpus.MAX_PAYLOAD_SIZE) {
+            throw new IllegalArgumentException("A lift ride body of " + body.length + " bytes does not fit in a "
+                    + RequestCorpus.RECORD_SIZE + " byte corpus record; use a shorter resortName.");
+        }
+        return body;
+    }
+}
@@ -0,0 +1,50 @@
+package assignment.corpus;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The records of one phase. Reads use absolute positions, or a duplicate of the shared mapped buffer,
+ * so any number of threads can read the same phase at once.
+ */
+public class CorpusPhase {
+    private final int threadCount;
+    private final int recordsPerThread;
+    private final ByteBuffer records;
+
+    CorpusPhase(int threadCount, int recordsPerThread, ByteBuffer records) {
+        this.threadCount = threadCount;
+        this.recordsPerThread = recordsPerThread;
+        this.records = records;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public int getRecordsPerThread() {
+        return recordsPerThread;
+    }
+
+    public int recordIndex(int threadIndex, int position) {
+        return (threadIndex % threadCount) * recordsPerThread + position;
+    }
+
+    public String getRequestType(int recordIndex) {
+        return RequestCorpus.REQUEST_TYPES.get(
+                records.get(recordIndex * RequestCorpus.RECORD_SIZE + RequestCorpus.TYPE_OFFSET));
+    }
+
+    public int getSkierId(int recordIndex) {
+        return records.getInt(recordIndex * RequestCorpus.RECORD_SIZE + RequestCorpus.SKIER_ID_OFFSET);
+    }
+
+    public byte[] getPayload(int recordIndex) {
+        int recordOffset = recordIndex * RequestCorpus.RECORD_SIZE;
+        byte[] payload = new byte[records.getShort(recordOffset + RequestCorpus.PAYLOAD_LENGTH_OFFSET)];
+        // A duplicate has its own position, so the bulk copy leaves the shared buffer to the other readers.
+        ByteBuffer payloadView = records.duplicate();
+        payloadView.position(recordOffset + RequestCorpus.PAYLOAD_OFFSET);
+        payloadView.get(payload);
+        return payload;
+    }
+}
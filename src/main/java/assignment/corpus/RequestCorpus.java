@@ -0,0 +1,91 @@
+package assignment.corpus;
+
+import assignment.statistics.RequestStatistics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A pre-generated workload, memory-mapped read only. The file starts with a header listing, for
+ * every phase, how many worker threads it was generated for and how many requests each thread sends.
+ * The records follow, phase by phase and thread by thread, each RECORD_SIZE bytes wide:
+ *
+ * <pre>
+ * byte  request type (0 POST, 1 GET1, 2 GET2)
+ * byte  unused
+ * short payload length
+ * int   skier ID
+ * byte[MAX_PAYLOAD_SIZE] payload: the serialized LiftRide body for a POST, empty for a GET
+ * </pre>
+ */
+public class RequestCorpus {
+    static final int MAGIC = 0x534B5243;
+    static final int VERSION = 1;
+    static final int RECORD_SIZE = 128;
+    static final int TYPE_OFFSET = 0;
+    static final int PAYLOAD_LENGTH_OFFSET = 2;
+    static final int SKIER_ID_OFFSET = 4;
+    static final int PAYLOAD_OFFSET = 8;
+    static final int MAX_PAYLOAD_SIZE = RECORD_SIZE - PAYLOAD_OFFSET;
+    static final List<String> REQUEST_TYPES = Collections.unmodifiableList(Arrays.asList(
+            RequestStatistics.POST_METHOD_NAME_ONE,
+            RequestStatistics.GET_METHOD_NAME_ONE,
+            RequestStatistics.GET_METHOD_NAME_TWO));
+
+    private final List<CorpusPhase> phases;
+
+    private RequestCorpus(List<CorpusPhase> phases) {
+        this.phases = phases;
+    }
+
+    public static RequestCorpus open(Path corpusPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(corpusPath, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < header.capacity() || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException(corpusPath + " is not a request corpus");
+            }
+            int phaseCount = header.getInt();
+
+            ByteBuffer phaseHeader = ByteBuffer.allocate(phaseCount * 2 * Integer.BYTES);
+            channel.read(phaseHeader, header.capacity());
+            phaseHeader.flip();
+
+            List<CorpusPhase> phases = new ArrayList<>();
+            long phaseOffset = headerSize(phaseCount);
+            for (int i = 0; i < phaseCount; i++) {
+                int threadCount = phaseHeader.getInt();
+                int recordsPerThread = phaseHeader.getInt();
+                long phaseSize = (long) threadCount * recordsPerThread * RECORD_SIZE;
+                if (phaseSize > Integer.MAX_VALUE) {
+                    throw new IOException("Phase " + i + " of " + corpusPath + " is too large to map");
+                }
+                MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, phaseOffset, phaseSize);
+                phases.add(new CorpusPhase(threadCount, recordsPerThread, records));
+                phaseOffset += phaseSize;
+            }
+            return new RequestCorpus(phases);
+        }
+    }
+
+    public int getPhaseCount() {
+        return phases.size();
+    }
+
+    public CorpusPhase getPhase(int phaseIndex) {
+        return phases.get(phaseIndex);
+    }
+
+    static long headerSize(int phaseCount) {
+        return (3 + 2L * phaseCount) * Integer.BYTES;
+    }
+}
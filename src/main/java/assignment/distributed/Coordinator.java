@@ -0,0 +1,78 @@
+package assignment.distributed;
+
+import assignment.client.RunSummary;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drives a run spread over several worker processes. The coordinator sends no load itself: it waits
+ * for every worker to connect, hands each one a slot, releases each phase only once every worker is
+ * ready for it, and merges the latency histograms and lift ride batch figures the workers send back.
+ */
+public class Coordinator {
+    private static final Logger logger = LogManager.getLogger(Coordinator.class);
+
+    private final int port;
+    private final int workerCount;
+
+    public Coordinator(int port, int workerCount) {
+        this.port = port;
+        this.workerCount = workerCount;
+    }
+
+    public RunSummary run(String configText, int phaseCount) throws IOException {
+        List<Socket> sockets = new ArrayList<>();
+        List<DataInputStream> inputs = new ArrayList<>();
+        List<DataOutputStream> outputs = new ArrayList<>();
+
+        try (ServerSocket serverSocket = new ServerSocket(port)) {
+            logger.log(Level.INFO, "Coordinator waiting for " + workerCount + " workers on port " + port);
+            while (sockets.size() < workerCount) {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                sockets.add(socket);
+                inputs.add(new DataInputStream(new BufferedInputStream(socket.getInputStream())));
+                outputs.add(new DataOutputStream(new BufferedOutputStream(socket.getOutputStream())));
+                logger.log(Level.INFO, "Worker " + sockets.size() + "/" + workerCount
+                        + " connected from " + socket.getRemoteSocketAddress());
+            }
+        }
+
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                DistributedProtocol.writeAssignment(outputs.get(i), new WorkerAssignment(i, workerCount, configText));
+            }
+
+            for (int phaseIndex = 0; phaseIndex < phaseCount; phaseIndex++) {
+                for (DataInputStream input : inputs) {
+                    DistributedProtocol.readPhaseMessage(input, DistributedProtocol.PHASE_READY, phaseIndex);
+                }
+                for (DataOutputStream output : outputs) {
+                    DistributedProtocol.writePhaseMessage(output, DistributedProtocol.PHASE_START, phaseIndex);
+                }
+                logger.log(Level.INFO, "Released phase " + (phaseIndex + 1) + " of " + phaseCount);
+            }
+
+            List<RunSummary> workerSummaries = new ArrayList<>();
+            for (DataInputStream input : inputs) {
+                workerSummaries.add(DistributedProtocol.readResult(input));
+            }
+            return RunSummary.merge(workerSummaries);
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+}
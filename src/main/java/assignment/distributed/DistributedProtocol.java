@@ -0,0 +1,122 @@
+package assignment.distributed;
+
+import assignment.client.RunSummary;
+import assignment.statistics.LatencyHistogram;
+import assignment.statistics.LiftRideBatchStatistics;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Messages exchanged between the coordinator and its workers. Every message starts with a one byte
+ * type; the coordinator sends ASSIGNMENT once and PHASE_START for each phase, and a worker answers
+ * with PHASE_READY for each phase and a single RESULT once its run is over.
+ */
+final class DistributedProtocol {
+    static final byte ASSIGNMENT = 1;
+    static final byte PHASE_READY = 2;
+    static final byte PHASE_START = 3;
+    static final byte RESULT = 4;
+
+    private DistributedProtocol() {
+    }
+
+    static void writeAssignment(DataOutputStream output, WorkerAssignment assignment) throws IOException {
+        byte[] config = assignment.getConfigText().getBytes(StandardCharsets.UTF_8);
+        output.writeByte(ASSIGNMENT);
+        output.writeInt(assignment.getWorkerIndex());
+        output.writeInt(assignment.getWorkerCount());
+        output.writeInt(config.length);
+        output.write(config);
+        output.flush();
+    }
+
+    static WorkerAssignment readAssignment(DataInputStream input) throws IOException {
+        expectMessage(input, ASSIGNMENT);
+        int workerIndex = input.readInt();
+        int workerCount = input.readInt();
+        byte[] config = new byte[input.readInt()];
+        input.readFully(config);
+        return new WorkerAssignment(workerIndex, workerCount, new String(config, StandardCharsets.UTF_8));
+    }
+
+    static void writePhaseMessage(DataOutputStream output, byte messageType, int phaseIndex) throws IOException {
+        output.writeByte(messageType);
+        output.writeInt(phaseIndex);
+        output.flush();
+    }
+
+    static void readPhaseMessage(DataInputStream input, byte messageType, int phaseIndex) throws IOException {
+        expectMessage(input, messageType);
+        int receivedPhaseIndex = input.readInt();
+        if (receivedPhaseIndex != phaseIndex) {
+            throw new IOException("Expected phase " + phaseIndex + " but peer is at phase " + receivedPhaseIndex);
+        }
+    }
+
+    static void writeResult(DataOutputStream output, RunSummary summary) throws IOException {
+        output.writeByte(RESULT);
+        output.writeLong(summary.getStartTime());
+        output.writeLong(summary.getEndTime());
+        output.writeLong(summary.getCpuTimeNanos());
+        output.writeLong(summary.getPeakThreadCount());
+        output.writeInt(summary.getSuccessCount());
+        output.writeInt(summary.getFailureCount());
+        output.writeLong(summary.getWarmupStartTime());
+        output.writeLong(summary.getWarmupEndTime());
+        output.writeInt(summary.getWarmupRequestCount());
+        writeHistograms(output, summary.getLatencyHistograms());
+        writeHistograms(output, summary.getCorrectedLatencyHistograms());
+        summary.getLiftRideBatchStatistics().writeTo(output);
+        output.flush();
+    }
+
+    static RunSummary readResult(DataInputStream input) throws IOException {
+        expectMessage(input, RESULT);
+        RunSummary.RunSummaryBuilder builder = RunSummary.builder()
+                .startTime(input.readLong())
+                .endTime(input.readLong())
+                .cpuTimeNanos(input.readLong())
+                .peakThreadCount(input.readLong())
+                .successCount(input.readInt())
+                .failureCount(input.readInt())
+                .warmupStartTime(input.readLong())
+                .warmupEndTime(input.readLong())
+                .warmupRequestCount(input.readInt());
+        return builder
+                .latencyHistograms(readHistograms(input))
+                .correctedLatencyHistograms(readHistograms(input))
+                .liftRideBatchStatistics(LiftRideBatchStatistics.readFrom(input))
+                .build();
+    }
+
+    private static void writeHistograms(DataOutputStream output, Map<String, LatencyHistogram> histograms)
+            throws IOException {
+        output.writeInt(histograms.size());
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            output.writeUTF(entry.getKey());
+            entry.getValue().writeTo(output);
+        }
+    }
+
+    private static Map<String, LatencyHistogram> readHistograms(DataInputStream input) throws IOException {
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        int histogramCount = input.readInt();
+        for (int i = 0; i < histogramCount; i++) {
+            String requestType = input.readUTF();
+            histograms.put(requestType, LatencyHistogram.readFrom(input));
+        }
+        return histograms;
+    }
+
+    private static void expectMessage(DataInputStream input, byte messageType) throws IOException {
+        byte receivedType = input.readByte();
+        if (receivedType != messageType) {
+            throw new IOException("Expected message " + messageType + " but received " + receivedType);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package assignment.distributed;
+
+import java.util.Arrays;
+
+public enum DistributedRole {
+    STANDALONE("standalone"),
+    COORDINATOR("coordinator"),
+    WORKER("worker");
+
+    private final String propertyValue;
+
+    DistributedRole(String propertyValue) {
+        this.propertyValue = propertyValue;
+    }
+
+    public static DistributedRole fromPropertyValue(String propertyValue) {
+        return Arrays.stream(values())
+                .filter(role -> role.propertyValue.equalsIgnoreCase(propertyValue.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown distributed role: " + propertyValue));
+    }
+}
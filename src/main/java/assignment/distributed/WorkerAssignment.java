@@ -0,0 +1,16 @@
+package assignment.distributed;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * What the coordinator hands a worker: its slot in the run and the coordinator's own configuration,
+ * so every worker splits the same phases and skier range no matter which box it runs on.
+ */
+@Getter
+@AllArgsConstructor
+public class WorkerAssignment {
+    private int workerIndex;
+    private int workerCount;
+    private String configText;
+}
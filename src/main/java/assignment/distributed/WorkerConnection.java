@@ -0,0 +1,72 @@
+package assignment.distributed;
+
+import assignment.client.PhaseBarrier;
+import assignment.client.RunSummary;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A worker's link to the coordinator. Workers may be started before the coordinator is listening,
+ * so connecting is retried for a while before giving up.
+ */
+public class WorkerConnection implements PhaseBarrier, AutoCloseable {
+    private static final int CONNECT_ATTEMPTS = 120;
+    private static final long CONNECT_RETRY_MILLIS = 500;
+
+    private static final Logger logger = LogManager.getLogger(WorkerConnection.class);
+
+    private final Socket socket;
+    private final DataInputStream input;
+    private final DataOutputStream output;
+
+    private WorkerConnection(Socket socket) throws IOException {
+        this.socket = socket;
+        this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    public static WorkerConnection connect(String host, int port) throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Socket socket = new Socket(host, port);
+                socket.setTcpNoDelay(true);
+                logger.log(Level.INFO, "Connected to coordinator at " + host + ":" + port);
+                return new WorkerConnection(socket);
+            } catch (ConnectException e) {
+                if (attempt == CONNECT_ATTEMPTS) {
+                    throw e;
+                }
+                TimeUnit.MILLISECONDS.sleep(CONNECT_RETRY_MILLIS);
+            }
+        }
+    }
+
+    public WorkerAssignment receiveAssignment() throws IOException {
+        return DistributedProtocol.readAssignment(input);
+    }
+
+    @Override
+    public void awaitPhaseStart(int phaseIndex) throws IOException {
+        DistributedProtocol.writePhaseMessage(output, DistributedProtocol.PHASE_READY, phaseIndex);
+        DistributedProtocol.readPhaseMessage(input, DistributedProtocol.PHASE_START, phaseIndex);
+    }
+
+    public void sendResult(RunSummary summary) throws IOException {
+        DistributedProtocol.writeResult(output, summary);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
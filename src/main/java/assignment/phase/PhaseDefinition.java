@@ -0,0 +1,110 @@
+package assignment.phase;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One stage of a load test. Request counts are per worker thread; when durationSeconds is set the
+ * counts are only used as weights for the request mix and the phase runs until the duration elapses.
+ * The ramp shape scales the arrival rate in open-loop runs and the number of active workers in
+ * closed-loop runs, never dropping below shapeFloor of the configured peak.
+ */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+@AllArgsConstructor
+public class PhaseDefinition {
+    public static final int NO_START_TIME = -1;
+
+    private static final int LEGACY_THREAD_DENOMINATOR = 4;
+    private static final int LEGACY_START_AFTER_PERCENT = 10;
+    private static final int LEGACY_POST_REQUEST_COUNT = 1000;
+
+    private String name;
+    private int threadCount;
+    private int arrivalRate;
+    private int durationSeconds;
+    private int postRequestCount;
+    private int get1RequestCount;
+    private int get2RequestCount;
+    private int liftTimeStart;
+    private int liftTimeEnd;
+    private RampShape rampShape;
+    private double shapeFloor;
+    private int rampSeconds;
+    private int spikeAtSeconds;
+    private int spikeSeconds;
+    private int startAfterPercent;
+    private int startAtSeconds;
+    private int threadIndexOffset;
+
+    public boolean isDurationBased() {
+        return durationSeconds > 0;
+    }
+
+    public int getRequestCountPerThread() {
+        return postRequestCount + get1RequestCount + get2RequestCount;
+    }
+
+    public int getTotalRequestCount() {
+        return threadCount * getRequestCountPerThread();
+    }
+
+    public double intensityAt(double elapsedSeconds) {
+        return shapeFloor + (1 - shapeFloor) * rampShape.valueAt(elapsedSeconds, this);
+    }
+
+    public PhaseDefinition forWorker(int workerIndex, int workerCount) {
+        int precedingThreads = 0;
+        for (int i = 0; i < workerIndex; i++) {
+            precedingThreads += shareOf(threadCount, i, workerCount);
+        }
+        return toBuilder()
+                .threadIndexOffset(threadIndexOffset + precedingThreads)
+                .threadCount(shareOf(threadCount, workerIndex, workerCount))
+                .arrivalRate(shareOf(arrivalRate, workerIndex, workerCount))
+                .build();
+    }
+
+    private static int shareOf(int total, int workerIndex, int workerCount) {
+        return total / workerCount + (workerIndex < total % workerCount ? 1 : 0);
+    }
+
+    public static List<PhaseDefinition> legacyPhases(
+            int maxThreadCount, int phaseOneArrivalRate, int phaseTwoArrivalRate, int phaseThreeArrivalRate) {
+        return Arrays.asList(
+                legacyPhase("One", maxThreadCount / LEGACY_THREAD_DENOMINATOR, phaseOneArrivalRate, 1, 90, 5, 0),
+                legacyPhase("Two", maxThreadCount, phaseTwoArrivalRate, 91, 360, 5, 0),
+                legacyPhase("Three", maxThreadCount / LEGACY_THREAD_DENOMINATOR, phaseThreeArrivalRate, 361, 420, 10, 10));
+    }
+
+    private static PhaseDefinition legacyPhase(
+            String name,
+            int threadCount,
+            int arrivalRate,
+            int liftTimeStart,
+            int liftTimeEnd,
+            int get1RequestCount,
+            int get2RequestCount) {
+        return PhaseDefinition.builder()
+                .name(name)
+                .threadCount(threadCount)
+                .arrivalRate(arrivalRate)
+                .postRequestCount(LEGACY_POST_REQUEST_COUNT)
+                .get1RequestCount(get1RequestCount)
+                .get2RequestCount(get2RequestCount)
+                .liftTimeStart(liftTimeStart)
+                .liftTimeEnd(liftTimeEnd)
+                .rampShape(RampShape.STEP)
+                .shapeFloor(1.0)
+                .rampSeconds(1)
+                .startAfterPercent(LEGACY_START_AFTER_PERCENT)
+                .startAtSeconds(NO_START_TIME)
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package assignment.phase;
+
+import assignment.PropertyParsing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Reads phase definitions of the form
+ * <pre>
+ * phases=morningRush,lunchLull
+ * phase.morningRush.threads=128
+ * phase.morningRush.durationSeconds=300
+ * phase.morningRush.shape=linear
+ * phase.lunchLull.startAfterPercent=100
+ * </pre>
+ * Any key that is left out falls back to the defaults below.
+ */
+public final class PhaseDefinitionParser {
+    private static final String PHASES_PROP_NAME = "phases";
+    private static final String PHASE_PROP_PREFIX = "phase.";
+    private static final String NAME_SEPARATOR = ",";
+
+    private static final String DEFAULT_ARRIVAL_RATE = "1000";
+    private static final String DEFAULT_DURATION_SECONDS = "0";
+    private static final String DEFAULT_POST_REQUESTS = "1000";
+    private static final String DEFAULT_GET1_REQUESTS = "5";
+    private static final String DEFAULT_GET2_REQUESTS = "0";
+    private static final String DEFAULT_LIFT_TIME_START = "1";
+    private static final String DEFAULT_LIFT_TIME_END = "420";
+    private static final String DEFAULT_SHAPE = "step";
+    private static final String DEFAULT_SHAPE_FLOOR = "0";
+    private static final String DEFAULT_RAMP_SECONDS = "60";
+    private static final String DEFAULT_SPIKE_AT_SECONDS = "0";
+    private static final String DEFAULT_SPIKE_SECONDS = "10";
+    private static final String DEFAULT_START_AFTER_PERCENT = "10";
+    private static final String DEFAULT_START_AT_SECONDS = String.valueOf(PhaseDefinition.NO_START_TIME);
+
+    private PhaseDefinitionParser() {
+    }
+
+    public static Optional<List<PhaseDefinition>> parse(Properties properties, int maxThreadCount) {
+        String phaseNames = properties.getProperty(PHASES_PROP_NAME);
+        if (phaseNames == null || phaseNames.trim().isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<PhaseDefinition> phases = new ArrayList<>();
+        for (String phaseName : phaseNames.split(NAME_SEPARATOR)) {
+            phases.add(parsePhase(properties, phaseName.trim(), maxThreadCount));
+        }
+        return Optional.of(phases);
+    }
+
+    private static PhaseDefinition parsePhase(Properties properties, String name, int maxThreadCount) {
+        String prefix = PHASE_PROP_PREFIX + name + ".";
+        int durationSeconds = PropertyParsing.parseInt(
+                properties, prefix + "durationSeconds", DEFAULT_DURATION_SECONDS);
+        String defaultRampSeconds = durationSeconds > 0 ? String.valueOf(durationSeconds) : DEFAULT_RAMP_SECONDS;
+
+        PhaseDefinition phase = PhaseDefinition.builder()
+                .name(name)
+                .threadCount(PropertyParsing.parseInt(
+                        properties, prefix + "threads", String.valueOf(maxThreadCount)))
+                .arrivalRate(PropertyParsing.parseInt(properties, prefix + "arrivalRate", DEFAULT_ARRIVAL_RATE))
+                .durationSeconds(durationSeconds)
+                .postRequestCount(PropertyParsing.parseInt(
+                        properties, prefix + "postRequests", DEFAULT_POST_REQUESTS))
+                .get1RequestCount(PropertyParsing.parseInt(
+                        properties, prefix + "get1Requests", DEFAULT_GET1_REQUESTS))
+                .get2RequestCount(PropertyParsing.parseInt(
+                        properties, prefix + "get2Requests", DEFAULT_GET2_REQUESTS))
+                .liftTimeStart(PropertyParsing.parseInt(
+                        properties, prefix + "liftTimeStart", DEFAULT_LIFT_TIME_START))
+                .liftTimeEnd(PropertyParsing.parseInt(properties, prefix + "liftTimeEnd", DEFAULT_LIFT_TIME_END))
+                .rampShape(RampShape.fromPropertyValue(properties.getProperty(prefix + "shape", DEFAULT_SHAPE)))
+                .shapeFloor(PropertyParsing.parseDouble(properties, prefix + "shapeFloor", DEFAULT_SHAPE_FLOOR))
+                .rampSeconds(PropertyParsing.parseInt(properties, prefix + "rampSeconds", defaultRampSeconds))
+                .spikeAtSeconds(PropertyParsing.parseInt(
+                        properties, prefix + "spikeAtSeconds", DEFAULT_SPIKE_AT_SECONDS))
+                .spikeSeconds(PropertyParsing.parseInt(properties, prefix + "spikeSeconds", DEFAULT_SPIKE_SECONDS))
+                .startAfterPercent(PropertyParsing.parseInt(
+                        properties, prefix + "startAfterPercent", DEFAULT_START_AFTER_PERCENT))
+                .startAtSeconds(PropertyParsing.parseInt(
+                        properties, prefix + "startAtSeconds", DEFAULT_START_AT_SECONDS))
+                .build();
+
+        validatePhase(phase, maxThreadCount);
+        return phase;
+    }
+
+    private static void validatePhase(PhaseDefinition phase, int maxThreadCount) {
+        String prefix = "Phase " + phase.getName() + ": ";
+        if (phase.getThreadCount() < 1 || phase.getThreadCount() > maxThreadCount) {
+            throw new IllegalArgumentException(prefix + "threads should be between 1 and maxThreads.");
+        }
+        if (phase.getArrivalRate() <= 0 || phase.getRampSeconds() <= 0 || phase.getDurationSeconds() < 0) {
+            throw new IllegalArgumentException(prefix + "arrivalRate and rampSeconds should be positive.");
+        }
+        if (phase.getPostRequestCount() < 0 || phase.getGet1RequestCount() < 0 || phase.getGet2RequestCount() < 0
+                || phase.getRequestCountPerThread() == 0) {
+            throw new IllegalArgumentException(prefix + "request counts should be non-negative and not all zero.");
+        }
+        if (phase.getLiftTimeStart() >= phase.getLiftTimeEnd()) {
+            throw new IllegalArgumentException(prefix + "liftTimeStart should be before liftTimeEnd.");
+        }
+        if (phase.getShapeFloor() < 0 || phase.getShapeFloor() > 1) {
+            throw new IllegalArgumentException(prefix + "shapeFloor should be between 0 and 1.");
+        }
+        // Once a spike is over it never comes back, so workers of a count-based phase that still have
+        // requests left would wait for it forever.
+        if (phase.getRampShape() == RampShape.SPIKE && phase.getShapeFloor() < 1 && !phase.isDurationBased()) {
+            throw new IllegalArgumentException(prefix + "the spike shape needs durationSeconds.");
+        }
+        if (phase.getStartAfterPercent() < 0 || phase.getStartAfterPercent() > 100) {
+            throw new IllegalArgumentException(prefix + "startAfterPercent should be between 0 and 100.");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package assignment.phase;
+
+import java.util.Arrays;
+
+public enum RampShape {
+    STEP("step") {
+        @Override
+        double valueAt(double elapsedSeconds, PhaseDefinition phase) {
+            return 1.0;
+        }
+    },
+    LINEAR("linear") {
+        @Override
+        double valueAt(double elapsedSeconds, PhaseDefinition phase) {
+            return Math.min(1.0, elapsedSeconds / phase.getRampSeconds());
+        }
+    },
+    SINUSOIDAL("sinusoidal") {
+        @Override
+        double valueAt(double elapsedSeconds, PhaseDefinition phase) {
+            return (1 - Math.cos(2 * Math.PI * elapsedSeconds / phase.getRampSeconds())) / 2;
+        }
+    },
+    SPIKE("spike") {
+        @Override
+        double valueAt(double elapsedSeconds, PhaseDefinition phase) {
+            double spikeEnd = phase.getSpikeAtSeconds() + phase.getSpikeSeconds();
+            return elapsedSeconds >= phase.getSpikeAtSeconds() && elapsedSeconds < spikeEnd ? 1.0 : 0.0;
+        }
+    };
+
+    private final String propertyValue;
+
+    RampShape(String propertyValue) {
+        this.propertyValue = propertyValue;
+    }
+
+    abstract double valueAt(double elapsedSeconds, PhaseDefinition phase);
+
+    public static RampShape fromPropertyValue(String propertyValue) {
+        return Arrays.stream(values())
+                .filter(shape -> shape.propertyValue.equalsIgnoreCase(propertyValue.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown ramp shape: " + propertyValue));
+    }
+}
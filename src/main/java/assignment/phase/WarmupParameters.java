@@ -0,0 +1,80 @@
+package assignment.phase;
+
+import assignment.PropertyParsing;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Settings for the unmeasured warm-up stage, read from client_config.properties:
+ * <pre>
+ * warmupSeconds=30
+ * warmupRequests=20000
+ * </pre>
+ * Only one of the two may be set. The warm-up sends the first phase's traffic mix and rate with as
+ * many workers as the busiest phase, so every connection the measured run needs is already open.
+ */
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+public class WarmupParameters {
+    private static final String WARMUP_SECONDS_PROP_NAME = "warmupSeconds";
+    private static final String WARMUP_REQUESTS_PROP_NAME = "warmupRequests";
+    private static final String DEFAULT_WARMUP_SECONDS = "0";
+    private static final String DEFAULT_WARMUP_REQUESTS = "0";
+    private static final String WARMUP_PHASE_NAME = "Warm-up";
+
+    private int seconds;
+    private int requestCount;
+
+    public static WarmupParameters parse(Properties properties) {
+        WarmupParameters warmupParameters = WarmupParameters.builder()
+                .seconds(PropertyParsing.parseNonNegativeInt(
+                        properties, WARMUP_SECONDS_PROP_NAME, DEFAULT_WARMUP_SECONDS))
+                .requestCount(PropertyParsing.parseNonNegativeInt(
+                        properties, WARMUP_REQUESTS_PROP_NAME, DEFAULT_WARMUP_REQUESTS))
+                .build();
+
+        validate(warmupParameters);
+        return warmupParameters;
+    }
+
+    public boolean isEnabled() {
+        return seconds > 0 || requestCount > 0;
+    }
+
+    public PhaseDefinition toPhase(List<PhaseDefinition> phases) {
+        PhaseDefinition firstPhase = phases.get(0);
+        int threadCount = phases.stream().mapToInt(PhaseDefinition::getThreadCount).max().orElse(1);
+        PhaseDefinition.PhaseDefinitionBuilder warmupPhase = firstPhase.toBuilder()
+                .name(WARMUP_PHASE_NAME)
+                .threadCount(threadCount)
+                .rampShape(RampShape.STEP)
+                .shapeFloor(1.0)
+                .startAtSeconds(PhaseDefinition.NO_START_TIME)
+                .durationSeconds(seconds);
+        if (seconds > 0) {
+            return warmupPhase.build();
+        }
+
+        // Keeps the first phase's request mix while sending about requestCount requests in total.
+        double scale = (double) requestCount / (threadCount * firstPhase.getRequestCountPerThread());
+        return warmupPhase
+                .postRequestCount(Math.max(1, (int) Math.ceil(firstPhase.getPostRequestCount() * scale)))
+                .get1RequestCount((int) Math.ceil(firstPhase.getGet1RequestCount() * scale))
+                .get2RequestCount((int) Math.ceil(firstPhase.getGet2RequestCount() * scale))
+                .build();
+    }
+
+    private static void validate(WarmupParameters warmupParameters) {
+        if (warmupParameters.getSeconds() > 0 && warmupParameters.getRequestCount() > 0) {
+            throw new IllegalArgumentException(
+                    WARMUP_SECONDS_PROP_NAME + " and " + WARMUP_REQUESTS_PROP_NAME + " cannot both be set.");
+        }
+    }
+}
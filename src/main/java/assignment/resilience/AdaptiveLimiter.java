@@ -0,0 +1,99 @@
+package assignment.resilience;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The in-flight limit for one endpoint. Callers block in acquire while the endpoint has as many
+ * calls in flight as the limit allows, and each completed call moves the limit by the configured
+ * algorithm. The limit only grows while at least half of it is in use, so an endpoint that is held
+ * back by too few sender threads does not drift up to the maximum. Waiters park on a lock condition
+ * rather than a monitor, so virtual sender threads do not pin their carriers while they wait.
+ */
+class AdaptiveLimiter {
+    private static final double GRADIENT_FLOOR = 0.5;
+    private static final int MIN_RTT_WINDOW_SAMPLES = 1000;
+    private static final double APP_LIMITED_FRACTION = 0.5;
+
+    private final ConcurrencyLimitPolicy policy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition belowLimit = lock.newCondition();
+    private double limit;
+    private int inFlight;
+
+    private long minRttNanos = Long.MAX_VALUE;
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private int windowSamples;
+
+    AdaptiveLimiter(ConcurrencyLimitPolicy policy) {
+        this.policy = policy;
+        this.limit = policy.getInitialLimit();
+    }
+
+    void acquire() throws IOException {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                belowLimit.await();
+            }
+            inFlight++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the concurrency limit");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(long rttNanos, boolean dropped) {
+        lock.lock();
+        try {
+            boolean appLimited = inFlight < limit * APP_LIMITED_FRACTION;
+            inFlight--;
+            double newLimit = policy.getAlgorithm() == LimiterAlgorithm.AIMD
+                    ? aimd(rttNanos, dropped)
+                    : gradient(rttNanos, dropped);
+            if (newLimit < limit || !appLimited) {
+                limit = Math.max(policy.getMinLimit(), Math.min(policy.getMaxLimit(), newLimit));
+            }
+            belowLimit.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double aimd(long rttNanos, boolean dropped) {
+        boolean slow = policy.getLatencyThresholdMillis() > 0
+                && rttNanos > TimeUnit.MILLISECONDS.toNanos(policy.getLatencyThresholdMillis());
+        return dropped || slow ? limit * policy.getBackoffRatio() : limit + 1 / limit;
+    }
+
+    // The lowest round trip over the current and the previous window stands in for the no-queueing
+    // latency; the window restarts every so often so a slower server is eventually taken as the norm.
+    private double gradient(long rttNanos, boolean dropped) {
+        windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+        minRttNanos = Math.min(minRttNanos, rttNanos);
+        if (++windowSamples == MIN_RTT_WINDOW_SAMPLES) {
+            minRttNanos = windowMinRttNanos;
+            windowMinRttNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+
+        double gradient = dropped ? GRADIENT_FLOOR : Math.max(GRADIENT_FLOOR,
+                Math.min(1, policy.getTolerance() * minRttNanos / Math.max(1, rttNanos)));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        return limit * (1 - policy.getSmoothing()) + newLimit * policy.getSmoothing();
+    }
+}
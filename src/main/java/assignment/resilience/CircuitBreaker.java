@@ -0,0 +1,167 @@
+package assignment.resilience;
+
+import java.util.function.Consumer;
+
+/**
+ * The circuit for one endpoint. While closed it counts failures over a window of recent calls.
+ * Once open it rejects every call until the open period ends. It then lets a few probe calls through
+ * half-open: the circuit closes when they all succeed and opens again as soon as one fails. Each
+ * admitted call holds a permit naming the state it was admitted in, so a call that was let through
+ * before a state change cannot later pass for a probe or move the new state's window.
+ */
+class CircuitBreaker {
+    private static final double PERCENT = 100.0;
+
+    private final String requestType;
+    private final CircuitBreakerPolicy policy;
+    private final Consumer<TimelineEvent> timeline;
+
+    private final boolean[] failedCalls;
+    private int windowPosition;
+    private int windowCallCount;
+    private int windowFailureCount;
+
+    private CircuitState state = CircuitState.CLOSED;
+    // Bumped on every state change; permits from an earlier generation no longer affect the state.
+    private long generation;
+    private long openUntilMillis;
+    private int probesInFlight;
+    private int probesSucceeded;
+    private long shedCount;
+
+    CircuitBreaker(String requestType, CircuitBreakerPolicy policy, Consumer<TimelineEvent> timeline) {
+        this.requestType = requestType;
+        this.policy = policy;
+        this.timeline = timeline;
+        this.failedCalls = new boolean[policy.getWindowSize()];
+    }
+
+    /**
+     * Returns the permit for a call that may go ahead, or null if the call is shed. The permit has to be
+     * handed back through onSuccess, onFailure or, when the call ended without an outcome, release.
+     */
+    synchronized Permit tryAcquire() {
+        if (state == CircuitState.OPEN && System.currentTimeMillis() >= openUntilMillis) {
+            transition(CircuitState.HALF_OPEN, "open period over");
+        }
+        if (state == CircuitState.CLOSED) {
+            return new Permit(generation, false);
+        }
+        if (state == CircuitState.HALF_OPEN && probesInFlight + probesSucceeded < policy.getHalfOpenProbes()) {
+            probesInFlight++;
+            return new Permit(generation, true);
+        }
+        shedCount++;
+        return null;
+    }
+
+    synchronized void onSuccess(Permit permit) {
+        if (!permit.settle() || permit.generation != generation) {
+            return;
+        }
+        if (permit.probe) {
+            probesInFlight--;
+            probesSucceeded++;
+            if (probesSucceeded >= policy.getHalfOpenProbes()) {
+                transition(CircuitState.CLOSED, probesSucceeded + " probes succeeded");
+            }
+        } else {
+            recordOutcome(false);
+        }
+    }
+
+    synchronized void onFailure(Permit permit, long retryAfterMillis, String cause) {
+        if (!permit.settle()) {
+            return;
+        }
+        if (permit.generation != generation) {
+            if (state == CircuitState.OPEN && retryAfterMillis != RetryAfter.NONE) {
+                // Calls that were already in flight when the circuit opened can still push the reopen time out.
+                openUntilMillis = Math.max(openUntilMillis, System.currentTimeMillis() + retryAfterMillis);
+            }
+            return;
+        }
+        if (permit.probe) {
+            open(retryAfterMillis, "probe failed: " + cause);
+        } else {
+            recordOutcome(true);
+            if (windowCallCount == failedCalls.length
+                    && windowFailureCount >= policy.getFailureRateThreshold() * windowCallCount) {
+                open(retryAfterMillis, String.format("failure rate %.0f%%, last: %s",
+                        windowFailureCount * PERCENT / windowCallCount, cause));
+            }
+        }
+    }
+
+    // Hands back a permit whose call ended without a response or an I/O failure, freeing its probe slot.
+    synchronized void release(Permit permit) {
+        if (permit.settle() && permit.probe && permit.generation == generation) {
+            probesInFlight--;
+        }
+    }
+
+    synchronized long getShedCount() {
+        return shedCount;
+    }
+
+    synchronized CircuitState getState() {
+        return state;
+    }
+
+    String getRequestType() {
+        return requestType;
+    }
+
+    private void open(long retryAfterMillis, String reason) {
+        long openMillis = Math.max(policy.getOpenMillis(), retryAfterMillis);
+        openUntilMillis = System.currentTimeMillis() + openMillis;
+        transition(CircuitState.OPEN, reason + ", open for " + openMillis + " ms"
+                + (retryAfterMillis != RetryAfter.NONE ? " (Retry-After " + retryAfterMillis + " ms)" : ""));
+    }
+
+    private void recordOutcome(boolean failed) {
+        if (windowCallCount == failedCalls.length) {
+            windowFailureCount -= failedCalls[windowPosition] ? 1 : 0;
+        } else {
+            windowCallCount++;
+        }
+        failedCalls[windowPosition] = failed;
+        windowFailureCount += failed ? 1 : 0;
+        windowPosition = (windowPosition + 1) % failedCalls.length;
+    }
+
+    private void transition(CircuitState toState, String reason) {
+        timeline.accept(new TimelineEvent(System.currentTimeMillis(), requestType, state, toState, reason));
+        state = toState;
+        generation++;
+        probesInFlight = 0;
+        probesSucceeded = 0;
+        windowPosition = 0;
+        windowCallCount = 0;
+        windowFailureCount = 0;
+    }
+
+    /**
+     * Admission of one call: the generation it was admitted in and whether it was a half-open probe.
+     * A permit is settled once; later outcomes for it are ignored.
+     */
+    static final class Permit {
+        private final long generation;
+        private final boolean probe;
+        private boolean settled;
+
+        private Permit(long generation, boolean probe) {
+            this.generation = generation;
+            this.probe = probe;
+        }
+
+        // Only read and written while the circuit's lock is held.
+        private boolean settle() {
+            if (settled) {
+                return false;
+            }
+            settled = true;
+            return true;
+        }
+    }
+}
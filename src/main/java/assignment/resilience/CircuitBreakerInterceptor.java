@@ -0,0 +1,101 @@
+package assignment.resilience;
+
+import assignment.statistics.RequestStatistics;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sheds load per endpoint when the server signals overload: 429 and 5xx responses and connection
+ * failures count against the endpoint's circuit, and while it is open requests fail straight away
+ * with a CircuitOpenException instead of reaching the ELB. Every state change is kept as a timeline
+ * event, and the report gives the time from each circuit opening to it closing again.
+ */
+public class CircuitBreakerInterceptor implements Interceptor {
+    private static final int TOO_MANY_REQUESTS_CODE = 429;
+    private static final int SERVER_ERROR_CODE = 500;
+    private static final double MILLISECONDS_IN_SECOND = 1000.0;
+
+    private static final Logger logger = LogManager.getLogger(CircuitBreakerInterceptor.class);
+
+    private final Map<String, CircuitBreaker> circuitBreakers = new HashMap<>();
+    private final List<TimelineEvent> timeline = Collections.synchronizedList(new ArrayList<>());
+
+    public CircuitBreakerInterceptor(CircuitBreakerPolicy policy) {
+        for (String requestType : RequestStatistics.createLatencyHistograms().keySet()) {
+            circuitBreakers.put(requestType, new CircuitBreaker(requestType, policy, this::addTimelineEvent));
+        }
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String requestType = RequestTypes.of(request);
+        CircuitBreaker circuitBreaker = circuitBreakers.get(requestType);
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            throw new CircuitOpenException(requestType);
+        }
+
+        try {
+            Response response = chain.proceed(request);
+            if (response.code() == TOO_MANY_REQUESTS_CODE || response.code() >= SERVER_ERROR_CODE) {
+                circuitBreaker.onFailure(permit,
+                        RetryAfter.parseMillis(response.header(RetryAfter.HEADER_NAME)), "HTTP " + response.code());
+            } else {
+                circuitBreaker.onSuccess(permit);
+            }
+            return response;
+        } catch (IOException e) {
+            circuitBreaker.onFailure(permit, RetryAfter.NONE, e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            // Anything else thrown by the chain leaves the permit unsettled; its probe slot must not leak.
+            circuitBreaker.release(permit);
+        }
+    }
+
+    public void printReport(long runStartTime) {
+        circuitBreakers.values().forEach(circuitBreaker -> System.out.println("Requests shed by "
+                + circuitBreaker.getRequestType() + " circuit: " + circuitBreaker.getShedCount()
+                + " (ended " + circuitBreaker.getState() + ")"));
+
+        List<TimelineEvent> events;
+        synchronized (timeline) {
+            events = new ArrayList<>(timeline);
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        System.out.println("Circuit breaker timeline:");
+        Map<String, Long> openedAt = new HashMap<>();
+        for (TimelineEvent event : events) {
+            String recovery = "";
+            if (event.getToState() == CircuitState.OPEN) {
+                openedAt.putIfAbsent(event.getRequestType(), event.getTime());
+            } else if (event.getToState() == CircuitState.CLOSED && openedAt.containsKey(event.getRequestType())) {
+                recovery = String.format(", recovered after %.3fs",
+                        (event.getTime() - openedAt.remove(event.getRequestType())) / MILLISECONDS_IN_SECOND);
+            }
+            System.out.println(String.format("  +%.3fs %s %s -> %s (%s%s)",
+                    (event.getTime() - runStartTime) / MILLISECONDS_IN_SECOND, event.getRequestType(),
+                    event.getFromState(), event.getToState(), event.getReason(), recovery));
+        }
+    }
+
+    private void addTimelineEvent(TimelineEvent event) {
+        timeline.add(event);
+        logger.log(Level.INFO, "Circuit for " + event.getRequestType() + " " + event.getFromState()
+                + " -> " + event.getToState() + ": " + event.getReason());
+    }
+}
@@ -0,0 +1,73 @@
+package assignment.resilience;
+
+import assignment.PropertyParsing;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Properties;
+
+/**
+ * Circuit breaker settings, read from client_config.properties:
+ * <pre>
+ * circuitBreaker=true
+ * circuitWindowSize=20
+ * circuitFailureRateThreshold=0.5
+ * circuitOpenMillis=5000
+ * circuitHalfOpenProbes=3
+ * </pre>
+ * A circuit opens once the share of failures over its last circuitWindowSize calls reaches the
+ * threshold, and stays open for circuitOpenMillis or for the server's Retry-After, whichever is longer.
+ */
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+public class CircuitBreakerPolicy {
+    private static final String ENABLED_PROP_NAME = "circuitBreaker";
+    private static final String WINDOW_SIZE_PROP_NAME = "circuitWindowSize";
+    private static final String FAILURE_RATE_PROP_NAME = "circuitFailureRateThreshold";
+    private static final String OPEN_MILLIS_PROP_NAME = "circuitOpenMillis";
+    private static final String HALF_OPEN_PROBES_PROP_NAME = "circuitHalfOpenProbes";
+
+    private static final String DEFAULT_ENABLED = "false";
+    private static final String DEFAULT_WINDOW_SIZE = "20";
+    private static final String DEFAULT_FAILURE_RATE = "0.5";
+    private static final String DEFAULT_OPEN_MILLIS = "5000";
+    private static final String DEFAULT_HALF_OPEN_PROBES = "3";
+
+    private boolean enabled;
+    private int windowSize;
+    private double failureRateThreshold;
+    private long openMillis;
+    private int halfOpenProbes;
+
+    public static CircuitBreakerPolicy parse(Properties properties) {
+        CircuitBreakerPolicy circuitBreakerPolicy = CircuitBreakerPolicy.builder()
+                .enabled(Boolean.parseBoolean(properties.getProperty(ENABLED_PROP_NAME, DEFAULT_ENABLED)))
+                .windowSize(PropertyParsing.parseInt(properties, WINDOW_SIZE_PROP_NAME, DEFAULT_WINDOW_SIZE))
+                .failureRateThreshold(PropertyParsing.parseDouble(
+                        properties, FAILURE_RATE_PROP_NAME, DEFAULT_FAILURE_RATE))
+                .openMillis(PropertyParsing.parseLong(properties, OPEN_MILLIS_PROP_NAME, DEFAULT_OPEN_MILLIS))
+                .halfOpenProbes(PropertyParsing.parseInt(
+                        properties, HALF_OPEN_PROBES_PROP_NAME, DEFAULT_HALF_OPEN_PROBES))
+                .build();
+
+        validate(circuitBreakerPolicy);
+        return circuitBreakerPolicy;
+    }
+
+    private static void validate(CircuitBreakerPolicy circuitBreakerPolicy) {
+        if (circuitBreakerPolicy.windowSize <= 0 || circuitBreakerPolicy.halfOpenProbes <= 0) {
+            throw new IllegalArgumentException(WINDOW_SIZE_PROP_NAME + " and " + HALF_OPEN_PROBES_PROP_NAME
+                    + " should be positive.");
+        }
+        if (circuitBreakerPolicy.failureRateThreshold <= 0 || circuitBreakerPolicy.failureRateThreshold > 1) {
+            throw new IllegalArgumentException(FAILURE_RATE_PROP_NAME + " should be above 0 and at most 1.");
+        }
+        if (circuitBreakerPolicy.openMillis < 0) {
+            throw new IllegalArgumentException(OPEN_MILLIS_PROP_NAME + " should not be negative.");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package assignment.resilience;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request while its endpoint's circuit is open. It is an IOException so
+ * OkHttp and the generated ApiClient report it like any other failed call.
+ */
+public class CircuitOpenException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String requestType) {
+        super("Circuit open for " + requestType + ", request shed");
+    }
+}
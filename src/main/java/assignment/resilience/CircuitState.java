@@ -0,0 +1,7 @@
+package assignment.resilience;
+
+public enum CircuitState {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+}
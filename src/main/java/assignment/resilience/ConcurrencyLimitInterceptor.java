@@ -0,0 +1,114 @@
+package assignment.resilience;
+
+import assignment.statistics.RequestStatistics;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many calls of each request type are in flight with an adaptive limit, the way upstream
+ * services protect themselves, so the run shows the concurrency an endpoint can sustain. 429, 5xx
+ * and connection failures count as drops. The limits are sampled once a second for the report.
+ */
+public class ConcurrencyLimitInterceptor implements Interceptor {
+    private static final int TOO_MANY_REQUESTS_CODE = 429;
+    private static final int SERVER_ERROR_CODE = 500;
+    private static final long SAMPLE_INTERVAL_MILLIS = 1000;
+    private static final int CONVERGENCE_SAMPLES = 5;
+    private static final double MILLISECONDS_IN_SECOND = 1000.0;
+
+    private final Map<String, AdaptiveLimiter> limiters = new LinkedHashMap<>();
+    private final List<double[]> limitSamples = new ArrayList<>();
+    private ScheduledExecutorService sampler;
+    private long startTime;
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimitPolicy policy) {
+        for (String requestType : RequestStatistics.createLatencyHistograms().keySet()) {
+            limiters.put(requestType, new AdaptiveLimiter(policy));
+        }
+    }
+
+    public void start() {
+        startTime = System.currentTimeMillis();
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(this::sampleLimits, 0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() throws InterruptedException {
+        sampler.shutdown();
+        sampler.awaitTermination(SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        sampleLimits();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        AdaptiveLimiter limiter = limiters.get(RequestTypes.of(request));
+        limiter.acquire();
+
+        long startNanos = System.nanoTime();
+        // Anything thrown by the chain counts as a drop, and the slot is always given back.
+        boolean dropped = true;
+        try {
+            Response response = chain.proceed(request);
+            dropped = response.code() == TOO_MANY_REQUESTS_CODE || response.code() >= SERVER_ERROR_CODE;
+            return response;
+        } finally {
+            limiter.release(System.nanoTime() - startNanos, dropped);
+        }
+    }
+
+    public void printReport() {
+        List<double[]> samples;
+        synchronized (limitSamples) {
+            samples = new ArrayList<>(limitSamples);
+        }
+
+        System.out.println("Concurrency limit over time (s: " + String.join(", ", limiters.keySet()) + "):");
+        for (double[] sample : samples) {
+            StringBuilder line = new StringBuilder(String.format("  %6.1f:", sample[0]));
+            for (int i = 1; i < sample.length; i++) {
+                line.append(String.format(" %.1f", sample[i]));
+            }
+            System.out.println(line);
+        }
+
+        int column = 1;
+        for (String requestType : limiters.keySet()) {
+            double sum = 0;
+            int count = 0;
+            for (int i = Math.max(0, samples.size() - CONVERGENCE_SAMPLES); i < samples.size(); i++) {
+                sum += samples.get(i)[column];
+                count++;
+            }
+            System.out.println("Converged concurrency limit " + requestType + ": "
+                    + String.format("%.1f", count == 0 ? 0 : sum / count));
+            column++;
+        }
+    }
+
+    private void sampleLimits() {
+        double[] sample = new double[limiters.size() + 1];
+        sample[0] = (System.currentTimeMillis() - startTime) / MILLISECONDS_IN_SECOND;
+        int column = 1;
+        for (AdaptiveLimiter limiter : limiters.values()) {
+            sample[column++] = limiter.getLimit();
+        }
+        synchronized (limitSamples) {
+            limitSamples.add(sample);
+        }
+    }
+}
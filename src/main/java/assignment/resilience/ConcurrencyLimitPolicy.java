@@ -0,0 +1,99 @@
+package assignment.resilience;
+
+import assignment.PropertyParsing;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Properties;
+
+/**
+ * Adaptive concurrency limiter settings, read from client_config.properties:
+ * <pre>
+ * concurrencyLimiter=gradient
+ * limiterInitialLimit=20
+ * limiterMinLimit=1
+ * limiterMaxLimit=1000
+ * aimdBackoffRatio=0.9
+ * aimdLatencyThresholdMillis=0
+ * gradientTolerance=1.5
+ * gradientSmoothing=0.2
+ * </pre>
+ * AIMD grows the limit by one per limit's worth of successful calls and cuts it by aimdBackoffRatio
+ * on an error, or on a call slower than aimdLatencyThresholdMillis when that is above 0. Gradient
+ * scales the limit by how far the latest round trip is above the lowest one seen.
+ */
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+public class ConcurrencyLimitPolicy {
+    private static final String ALGORITHM_PROP_NAME = "concurrencyLimiter";
+    private static final String INITIAL_LIMIT_PROP_NAME = "limiterInitialLimit";
+    private static final String MIN_LIMIT_PROP_NAME = "limiterMinLimit";
+    private static final String MAX_LIMIT_PROP_NAME = "limiterMaxLimit";
+    private static final String BACKOFF_RATIO_PROP_NAME = "aimdBackoffRatio";
+    private static final String LATENCY_THRESHOLD_PROP_NAME = "aimdLatencyThresholdMillis";
+    private static final String TOLERANCE_PROP_NAME = "gradientTolerance";
+    private static final String SMOOTHING_PROP_NAME = "gradientSmoothing";
+
+    private static final String DEFAULT_ALGORITHM = "off";
+    private static final String DEFAULT_INITIAL_LIMIT = "20";
+    private static final String DEFAULT_MIN_LIMIT = "1";
+    private static final String DEFAULT_MAX_LIMIT = "1000";
+    private static final String DEFAULT_BACKOFF_RATIO = "0.9";
+    private static final String DEFAULT_LATENCY_THRESHOLD = "0";
+    private static final String DEFAULT_TOLERANCE = "1.5";
+    private static final String DEFAULT_SMOOTHING = "0.2";
+
+    private LimiterAlgorithm algorithm;
+    private int initialLimit;
+    private int minLimit;
+    private int maxLimit;
+    private double backoffRatio;
+    private long latencyThresholdMillis;
+    private double tolerance;
+    private double smoothing;
+
+    public static ConcurrencyLimitPolicy parse(Properties properties) {
+        ConcurrencyLimitPolicy concurrencyLimitPolicy = ConcurrencyLimitPolicy.builder()
+                .algorithm(LimiterAlgorithm.fromPropertyValue(
+                        properties.getProperty(ALGORITHM_PROP_NAME, DEFAULT_ALGORITHM)))
+                .initialLimit(PropertyParsing.parseInt(properties, INITIAL_LIMIT_PROP_NAME, DEFAULT_INITIAL_LIMIT))
+                .minLimit(PropertyParsing.parseInt(properties, MIN_LIMIT_PROP_NAME, DEFAULT_MIN_LIMIT))
+                .maxLimit(PropertyParsing.parseInt(properties, MAX_LIMIT_PROP_NAME, DEFAULT_MAX_LIMIT))
+                .backoffRatio(PropertyParsing.parseDouble(
+                        properties, BACKOFF_RATIO_PROP_NAME, DEFAULT_BACKOFF_RATIO))
+                .latencyThresholdMillis(PropertyParsing.parseLong(
+                        properties, LATENCY_THRESHOLD_PROP_NAME, DEFAULT_LATENCY_THRESHOLD))
+                .tolerance(PropertyParsing.parseDouble(properties, TOLERANCE_PROP_NAME, DEFAULT_TOLERANCE))
+                .smoothing(PropertyParsing.parseDouble(properties, SMOOTHING_PROP_NAME, DEFAULT_SMOOTHING))
+                .build();
+
+        validate(concurrencyLimitPolicy);
+        return concurrencyLimitPolicy;
+    }
+
+    public boolean isEnabled() {
+        return algorithm != LimiterAlgorithm.OFF;
+    }
+
+    private static void validate(ConcurrencyLimitPolicy concurrencyLimitPolicy) {
+        if (concurrencyLimitPolicy.minLimit <= 0
+                || concurrencyLimitPolicy.initialLimit < concurrencyLimitPolicy.minLimit
+                || concurrencyLimitPolicy.maxLimit < concurrencyLimitPolicy.initialLimit) {
+            throw new IllegalArgumentException(MIN_LIMIT_PROP_NAME + ", " + INITIAL_LIMIT_PROP_NAME + " and "
+                    + MAX_LIMIT_PROP_NAME + " should be positive and in increasing order.");
+        }
+        if (concurrencyLimitPolicy.backoffRatio <= 0 || concurrencyLimitPolicy.backoffRatio >= 1) {
+            throw new IllegalArgumentException(BACKOFF_RATIO_PROP_NAME + " should be between 0 and 1.");
+        }
+        if (concurrencyLimitPolicy.tolerance < 1) {
+            throw new IllegalArgumentException(TOLERANCE_PROP_NAME + " should be at least 1.");
+        }
+        if (concurrencyLimitPolicy.smoothing <= 0 || concurrencyLimitPolicy.smoothing > 1) {
+            throw new IllegalArgumentException(SMOOTHING_PROP_NAME + " should be above 0 and at most 1.");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package assignment.resilience;
+
+import java.util.Arrays;
+
+public enum LimiterAlgorithm {
+    OFF("off"),
+    AIMD("aimd"),
+    GRADIENT("gradient");
+
+    private final String propertyValue;
+
+    LimiterAlgorithm(String propertyValue) {
+        this.propertyValue = propertyValue;
+    }
+
+    public static LimiterAlgorithm fromPropertyValue(String propertyValue) {
+        return Arrays.stream(values())
+                .filter(algorithm -> algorithm.propertyValue.equalsIgnoreCase(propertyValue.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown concurrency limiter: " + propertyValue));
+    }
+}
@@ -0,0 +1,25 @@
+package assignment.resilience;
+
+import assignment.statistics.RequestStatistics;
+import com.squareup.okhttp.Request;
+
+/**
+ * Maps an outgoing HTTP request back to the request type it is reported under, so interceptors can
+ * keep per-endpoint state without RequestSender passing it down.
+ */
+public final class RequestTypes {
+    private static final String POST_METHOD = "POST";
+    private static final String RESORT_TOTALS_PATH_SUFFIX = "/vertical";
+
+    private RequestTypes() {
+    }
+
+    public static String of(Request request) {
+        if (POST_METHOD.equals(request.method())) {
+            return RequestStatistics.POST_METHOD_NAME_ONE;
+        }
+        return request.httpUrl().encodedPath().endsWith(RESORT_TOTALS_PATH_SUFFIX)
+                ? RequestStatistics.GET_METHOD_NAME_TWO
+                : RequestStatistics.GET_METHOD_NAME_ONE;
+    }
+}
@@ -0,0 +1,35 @@
+package assignment.resilience;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads a Retry-After header, which is either a number of seconds or an HTTP date.
+ */
+public final class RetryAfter {
+    public static final String HEADER_NAME = "Retry-After";
+    public static final long NONE = -1;
+
+    private static final long MILLISECONDS_IN_SECOND = 1000;
+
+    private RetryAfter() {
+    }
+
+    public static long parseMillis(String headerValue) {
+        if (headerValue == null || headerValue.trim().isEmpty()) {
+            return NONE;
+        }
+        String value = headerValue.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * MILLISECONDS_IN_SECOND);
+        } catch (NumberFormatException e) {
+            try {
+                return Math.max(0, ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME)
+                        .toInstant().toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException ignored) {
+                return NONE;
+            }
+        }
+    }
+}
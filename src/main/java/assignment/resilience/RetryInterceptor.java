@@ -0,0 +1,129 @@
+package assignment.resilience;
+
+import assignment.statistics.LatencyHistogram;
+import assignment.statistics.RequestStatistics;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retries calls on the shared OkHttpClient the way the production clients do: on connection
+ * failures and on the configured status codes, with exponential backoff and full jitter, and only
+ * while the run-wide retry budget allows it. A Retry-After header sets the shortest backoff.
+ * Because it sits on the call path, RequestSender's statistics are end-to-end latencies including
+ * every retry, while this interceptor keeps the latency of each call's first attempt, up to its
+ * response headers, for comparison.
+ */
+public class RetryInterceptor implements Interceptor {
+    private static final double PERCENTILE_50 = 0.5;
+    private static final double PERCENTILE_99 = 0.99;
+    private static final int MAX_BACKOFF_DOUBLINGS = 30;
+
+    private final RetryPolicy retryPolicy;
+    private final Map<String, LatencyHistogram> firstAttemptHistograms = RequestStatistics.createLatencyHistograms();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong attemptCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong budgetDeniedCount = new AtomicLong();
+
+    public RetryInterceptor(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String requestType = RequestTypes.of(request);
+        requestCount.incrementAndGet();
+
+        for (int attempt = 0; ; attempt++) {
+            long attemptStartTime = System.currentTimeMillis();
+            attemptCount.incrementAndGet();
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (CircuitOpenException e) {
+                // Retrying into an open circuit only burns the budget; the circuit decides when to try again.
+                throw e;
+            } catch (IOException e) {
+                recordFirstAttempt(attempt, requestType, attemptStartTime);
+                if (!shouldRetry(attempt)) {
+                    throw e;
+                }
+                backOff(attempt, RetryAfter.NONE);
+                continue;
+            }
+
+            recordFirstAttempt(attempt, requestType, attemptStartTime);
+            if (!retryPolicy.isRetryable(response.code()) || !shouldRetry(attempt)) {
+                return response;
+            }
+            response.body().close();
+            backOff(attempt, RetryAfter.parseMillis(response.header(RetryAfter.HEADER_NAME)));
+        }
+    }
+
+    public double getAmplificationFactor() {
+        long requests = requestCount.get();
+        return requests == 0 ? 1 : (double) attemptCount.get() / requests;
+    }
+
+    public void printReport() {
+        System.out.println("Retry attempts: " + retryCount.get() + " ("
+                + budgetDeniedCount.get() + " denied by the retry budget)");
+        System.out.println("Retry amplification factor: " + String.format("%.3f", getAmplificationFactor()));
+        firstAttemptHistograms.forEach((requestType, histogram) -> {
+            synchronized (histogram) {
+                System.out.println("First attempt " + requestType + " median/99th percentile(ms): "
+                        + histogram.getValueAtPercentile(PERCENTILE_50) + "/"
+                        + histogram.getValueAtPercentile(PERCENTILE_99));
+            }
+        });
+    }
+
+    private void recordFirstAttempt(int attempt, String requestType, long attemptStartTime) {
+        if (attempt == 0) {
+            LatencyHistogram histogram = firstAttemptHistograms.get(requestType);
+            synchronized (histogram) {
+                histogram.record(System.currentTimeMillis() - attemptStartTime);
+            }
+        }
+    }
+
+    private boolean shouldRetry(int attempt) {
+        if (attempt >= retryPolicy.getMaxRetries()) {
+            return false;
+        }
+        while (true) {
+            long retries = retryCount.get();
+            if (retries >= retryPolicy.getBudgetMinRetries() + retryPolicy.getBudgetRatio() * requestCount.get()) {
+                budgetDeniedCount.incrementAndGet();
+                return false;
+            }
+            if (retryCount.compareAndSet(retries, retries + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Full jitter: a uniform delay between zero and the capped exponential backoff for this attempt,
+    // but never sooner than the server asked for in Retry-After.
+    private void backOff(int attempt, long retryAfterMillis) throws IOException {
+        long ceilingMillis = Math.min(retryPolicy.getMaxDelayMillis(),
+                retryPolicy.getBaseDelayMillis() << Math.min(attempt, MAX_BACKOFF_DOUBLINGS));
+        try {
+            TimeUnit.MILLISECONDS.sleep(Math.max(retryAfterMillis,
+                    ThreadLocalRandom.current().nextLong(ceilingMillis + 1)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off before a retry");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package assignment.resilience;
+
+import assignment.PropertyParsing;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Retry settings, read from client_config.properties:
+ * <pre>
+ * maxRetries=5
+ * retryStatusCodes=429,500,502,503,504
+ * retryBaseDelayMillis=50
+ * retryMaxDelayMillis=2000
+ * retryBudgetRatio=0.1
+ * retryBudgetMinRetries=10
+ * </pre>
+ * A maxRetries of 0 turns retrying off. The budget caps retries at retryBudgetRatio of all requests
+ * sent so far, plus retryBudgetMinRetries so the first failures of a run can still be retried.
+ */
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+public class RetryPolicy {
+    private static final String MAX_RETRIES_PROP_NAME = "maxRetries";
+    private static final String STATUS_CODES_PROP_NAME = "retryStatusCodes";
+    private static final String BASE_DELAY_PROP_NAME = "retryBaseDelayMillis";
+    private static final String MAX_DELAY_PROP_NAME = "retryMaxDelayMillis";
+    private static final String BUDGET_RATIO_PROP_NAME = "retryBudgetRatio";
+    private static final String BUDGET_MIN_RETRIES_PROP_NAME = "retryBudgetMinRetries";
+
+    private static final String DEFAULT_MAX_RETRIES = "0";
+    private static final String DEFAULT_STATUS_CODES = "429,500,502,503,504";
+    private static final String DEFAULT_BASE_DELAY = "50";
+    private static final String DEFAULT_MAX_DELAY = "2000";
+    private static final String DEFAULT_BUDGET_RATIO = "0.1";
+    private static final String DEFAULT_BUDGET_MIN_RETRIES = "10";
+    private static final String STATUS_CODE_SEPARATOR = ",";
+
+    private int maxRetries;
+    private Set<Integer> retryStatusCodes;
+    private long baseDelayMillis;
+    private long maxDelayMillis;
+    private double budgetRatio;
+    private int budgetMinRetries;
+
+    public static RetryPolicy parse(Properties properties) {
+        RetryPolicy retryPolicy = RetryPolicy.builder()
+                .maxRetries(PropertyParsing.parseInt(properties, MAX_RETRIES_PROP_NAME, DEFAULT_MAX_RETRIES))
+                .retryStatusCodes(Arrays.stream(properties.getProperty(STATUS_CODES_PROP_NAME, DEFAULT_STATUS_CODES)
+                        .split(STATUS_CODE_SEPARATOR))
+                        .map(String::trim)
+                        .filter(code -> !code.isEmpty())
+                        .map(Integer::valueOf)
+                        .collect(Collectors.toSet()))
+                .baseDelayMillis(PropertyParsing.parseLong(properties, BASE_DELAY_PROP_NAME, DEFAULT_BASE_DELAY))
+                .maxDelayMillis(PropertyParsing.parseLong(properties, MAX_DELAY_PROP_NAME, DEFAULT_MAX_DELAY))
+                .budgetRatio(PropertyParsing.parseDouble(properties, BUDGET_RATIO_PROP_NAME, DEFAULT_BUDGET_RATIO))
+                .budgetMinRetries(PropertyParsing.parseInt(
+                        properties, BUDGET_MIN_RETRIES_PROP_NAME, DEFAULT_BUDGET_MIN_RETRIES))
+                .build();
+
+        validate(retryPolicy);
+        return retryPolicy;
+    }
+
+    public boolean isEnabled() {
+        return maxRetries > 0;
+    }
+
+    public boolean isRetryable(int statusCode) {
+        return retryStatusCodes.contains(statusCode);
+    }
+
+    private static void validate(RetryPolicy retryPolicy) {
+        if (retryPolicy.maxRetries < 0 || retryPolicy.budgetMinRetries < 0 || retryPolicy.budgetRatio < 0) {
+            throw new IllegalArgumentException(MAX_RETRIES_PROP_NAME + ", " + BUDGET_RATIO_PROP_NAME + " and "
+                    + BUDGET_MIN_RETRIES_PROP_NAME + " should not be negative.");
+        }
+        if (retryPolicy.baseDelayMillis <= 0 || retryPolicy.maxDelayMillis < retryPolicy.baseDelayMillis) {
+            throw new IllegalArgumentException(BASE_DELAY_PROP_NAME + " should be positive and no more than "
+                    + MAX_DELAY_PROP_NAME + ".");
+        }
+    }
+}
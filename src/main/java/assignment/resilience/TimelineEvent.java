@@ -0,0 +1,16 @@
+package assignment.resilience;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class TimelineEvent {
+    private long time;
+    private String requestType;
+    private CircuitState fromState;
+    private CircuitState toState;
+    private String reason;
+}
@@ -0,0 +1,231 @@
+package assignment.search;
+
+import assignment.Parameters;
+import assignment.client.Client;
+import assignment.client.HttpClientFactory;
+import assignment.client.LoadMode;
+import assignment.client.PhaseBarrier;
+import assignment.client.RequestSource;
+import assignment.client.TunedSocketFactory;
+import assignment.phase.PhaseDefinition;
+import assignment.phase.RampShape;
+import assignment.statistics.LatencyHistogram;
+import assignment.statistics.RequestStatistics;
+import io.swagger.client.api.SkiersApi;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds the highest load the server takes while every request type stays inside its p99 target.
+ * The load level, either closed-loop worker threads or an open-loop arrival rate, is multiplied by
+ * searchGrowthFactor until a step misses the SLO, and the gap between the last passing and the
+ * first failing level is then bisected down to searchResolution. Each step runs the mix of the
+ * busiest configured phase for searchSettleSeconds, whose latencies and errors are not counted,
+ * and then for searchMeasureSeconds. All steps share one HTTP client, so connections stay warm
+ * between them.
+ */
+public class CapacitySearch {
+    private static final String CONFIG_FILE_PATH = "client_config.properties";
+    private static final String CURVE_FILE_NAME = "searchCurve.csv";
+    private static final String CURVE_HEADERS =
+            "Level,Throughput,ErrorRate,PostP50,PostP99,Get1P50,Get1P99,Get2P50,Get2P99,MeetsSlo,Knee";
+    private static final double MILLISECONDS_IN_SECOND = 1000.0;
+
+    private static final Logger logger = LogManager.getLogger(CapacitySearch.class);
+
+    private final Parameters parameters;
+    private final SearchParameters searchParameters;
+    private final SkiersApi skiersApi;
+    private final List<SearchStep> steps = new ArrayList<>();
+
+    public CapacitySearch(Parameters parameters, SkiersApi skiersApi) {
+        this.parameters = parameters;
+        this.searchParameters = parameters.getSearchParameters();
+        this.skiersApi = skiersApi;
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        Optional<Parameters> clientParams = Parameters.parsePropertiesFile(CONFIG_FILE_PATH);
+        if (clientParams.isPresent()) {
+            Parameters parameters = clientParams.get();
+            TunedSocketFactory socketFactory = new TunedSocketFactory(
+                    parameters.isHttpTcpNoDelay(),
+                    parameters.getHttpSendBufferSize(),
+                    parameters.getHttpReceiveBufferSize());
+            SkiersApi skiersApi = new SkiersApi(HttpClientFactory.createApiClient(parameters, socketFactory));
+
+            CapacitySearch capacitySearch = new CapacitySearch(parameters, skiersApi);
+            capacitySearch.search();
+            capacitySearch.printCurve();
+        } else {
+            logger.log(Level.DEBUG, "Unable to load parameters config file");
+        }
+    }
+
+    public void search() throws InterruptedException, IOException {
+        int passingLevel = 0;
+        int failingLevel = 0;
+
+        int level = searchParameters.getStartLevel();
+        while (failingLevel == 0 && passingLevel < searchParameters.getMaxLevel()) {
+            if (runStep(level).isMeetsSlo()) {
+                passingLevel = level;
+                level = Math.min(searchParameters.getMaxLevel(),
+                        Math.max(level + 1, (int) (level * searchParameters.getGrowthFactor())));
+            } else {
+                failingLevel = level;
+            }
+        }
+
+        while (failingLevel != 0
+                && failingLevel - passingLevel > Math.max(1, passingLevel * searchParameters.getResolution())) {
+            int midLevel = passingLevel + (failingLevel - passingLevel) / 2;
+            if (runStep(midLevel).isMeetsSlo()) {
+                passingLevel = midLevel;
+            } else {
+                failingLevel = midLevel;
+            }
+        }
+    }
+
+    private SearchStep runStep(int level) throws InterruptedException, IOException {
+        logger.log(Level.INFO, "Search step at " + describeLevel(level));
+        boolean threads = searchParameters.getDimension() == SearchDimension.THREADS;
+        Parameters stepParameters = parameters.toBuilder()
+                .loadMode(threads ? LoadMode.CLOSED : LoadMode.OPEN)
+                .requestSource(RequestSource.RANDOM)
+                .phases(Collections.singletonList(createStepPhase(level, threads)))
+                .build();
+
+        RequestStatistics requestStatistics = new RequestStatistics(
+                "outputData" + level + (threads ? "Threads" : "PerSecond"),
+                parameters.getSampleLogParameters(), stepParameters.toString());
+        Thread statsWriteThread = requestStatistics.startWritingSamples();
+        AtomicInteger successCount = new AtomicInteger(0);
+        AtomicInteger failureCount = new AtomicInteger(0);
+
+        long measurementStartTime = System.currentTimeMillis()
+                + (long) (searchParameters.getSettleSeconds() * MILLISECONDS_IN_SECOND);
+        requestStatistics.setMeasurementStartTime(measurementStartTime);
+        // Like the latencies, errors only count from the end of the settle period, so the counts are noted then.
+        AtomicInteger settleSuccessCount = new AtomicInteger(0);
+        AtomicInteger settleFailureCount = new AtomicInteger(0);
+        ScheduledExecutorService settleTimer = Executors.newSingleThreadScheduledExecutor();
+        settleTimer.schedule(() -> {
+            settleSuccessCount.set(successCount.get());
+            settleFailureCount.set(failureCount.get());
+        }, measurementStartTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        Client.runPhases(
+                stepParameters, PhaseBarrier.NONE, skiersApi, successCount, failureCount, requestStatistics);
+        // Delayed tasks still run after shutdown, so this also waits for the counts to be noted.
+        settleTimer.shutdown();
+        settleTimer.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+        requestStatistics.finishWriting();
+        statsWriteThread.join();
+
+        Map<String, LatencyHistogram> histograms = requestStatistics.getLatencyHistograms();
+        long measuredRequests = histograms.values().stream().mapToLong(LatencyHistogram::getTotalCount).sum();
+        int measuredFailures = failureCount.get() - settleFailureCount.get();
+        int totalRequests = successCount.get() - settleSuccessCount.get() + measuredFailures;
+        double errorRate = totalRequests == 0 ? 1 : (double) measuredFailures / totalRequests;
+
+        SearchStep step = SearchStep.builder()
+                .level(level)
+                .throughput(measuredRequests / (double) searchParameters.getMeasureSeconds())
+                .errorRate(errorRate)
+                .latencyHistograms(histograms)
+                .meetsSlo(measuredRequests > 0 && meetsSlo(histograms, errorRate))
+                .build();
+        steps.add(step);
+        logger.log(Level.INFO, describeLevel(level) + ": " + step.getThroughput() + " req/s, "
+                + (step.isMeetsSlo() ? "meets" : "misses") + " the SLO");
+        return step;
+    }
+
+    private PhaseDefinition createStepPhase(int level, boolean threads) {
+        PhaseDefinition busiestPhase = parameters.getPhases().stream()
+                .max(Comparator.comparingInt(PhaseDefinition::getThreadCount))
+                .orElseThrow(() -> new IllegalArgumentException("At least one phase is needed for the search."));
+
+        return busiestPhase.toBuilder()
+                .name("Search" + level)
+                .threadCount(threads ? level : parameters.getMaxThreadCount())
+                .arrivalRate(threads ? busiestPhase.getArrivalRate() : level)
+                .durationSeconds(searchParameters.getSettleSeconds() + searchParameters.getMeasureSeconds())
+                .rampShape(RampShape.STEP)
+                .shapeFloor(1.0)
+                .startAtSeconds(PhaseDefinition.NO_START_TIME)
+                .threadIndexOffset(0)
+                .build();
+    }
+
+    private boolean meetsSlo(Map<String, LatencyHistogram> histograms, double errorRate) {
+        if (errorRate > searchParameters.getMaxErrorRate()) {
+            return false;
+        }
+        return histograms.entrySet().stream().allMatch(entry -> {
+            long target = searchParameters.getP99TargetMillis().get(entry.getKey());
+            LatencyHistogram histogram = entry.getValue();
+            return target <= 0 || histogram.getTotalCount() == 0 || histogram.getValueAtPercentile(0.99) <= target;
+        });
+    }
+
+    public void printCurve() throws FileNotFoundException {
+        List<SearchStep> curve = new ArrayList<>(steps);
+        curve.sort(Comparator.comparingInt(SearchStep::getLevel));
+        Optional<SearchStep> knee = curve.stream()
+                .filter(SearchStep::isMeetsSlo)
+                .max(Comparator.comparingDouble(SearchStep::getThroughput));
+
+        try (PrintWriter printWriter = new PrintWriter(CURVE_FILE_NAME)) {
+            printWriter.println(CURVE_HEADERS);
+            System.out.println("Level       Throughput   Errors   POST p50/p99   GET1 p50/p99   GET2 p50/p99   SLO");
+            for (SearchStep step : curve) {
+                boolean isKnee = knee.isPresent() && knee.get() == step;
+                Map<String, LatencyHistogram> histograms = step.getLatencyHistograms();
+                LatencyHistogram post = histograms.get(RequestStatistics.POST_METHOD_NAME_ONE);
+                LatencyHistogram get1 = histograms.get(RequestStatistics.GET_METHOD_NAME_ONE);
+                LatencyHistogram get2 = histograms.get(RequestStatistics.GET_METHOD_NAME_TWO);
+
+                printWriter.println(step.getLevel() + "," + step.getThroughput() + "," + step.getErrorRate()
+                        + "," + post.getValueAtPercentile(0.5) + "," + post.getValueAtPercentile(0.99)
+                        + "," + get1.getValueAtPercentile(0.5) + "," + get1.getValueAtPercentile(0.99)
+                        + "," + get2.getValueAtPercentile(0.5) + "," + get2.getValueAtPercentile(0.99)
+                        + "," + step.isMeetsSlo() + "," + isKnee);
+                System.out.println(String.format("%-10d %11.1f %7.2f%% %7d/%-6d %7d/%-6d %7d/%-6d   %s%s",
+                        step.getLevel(), step.getThroughput(), step.getErrorRate() * 100,
+                        post.getValueAtPercentile(0.5), post.getValueAtPercentile(0.99),
+                        get1.getValueAtPercentile(0.5), get1.getValueAtPercentile(0.99),
+                        get2.getValueAtPercentile(0.5), get2.getValueAtPercentile(0.99),
+                        step.isMeetsSlo() ? "pass" : "FAIL", isKnee ? "   <-- knee" : ""));
+            }
+        }
+
+        if (knee.isPresent()) {
+            System.out.println("Max throughput within SLO: " + knee.get().getThroughput() + " req/s at "
+                    + describeLevel(knee.get().getLevel()));
+        } else {
+            System.out.println("No step met the SLO.");
+        }
+    }
+
+    private String describeLevel(int level) {
+        return searchParameters.getDimension() == SearchDimension.THREADS ? level + " threads" : level + " req/s";
+    }
+}
@@ -0,0 +1,21 @@
+package assignment.search;
+
+import java.util.Arrays;
+
+public enum SearchDimension {
+    THREADS("threads"),
+    RATE("rate");
+
+    private final String propertyValue;
+
+    SearchDimension(String propertyValue) {
+        this.propertyValue = propertyValue;
+    }
+
+    public static SearchDimension fromPropertyValue(String propertyValue) {
+        return Arrays.stream(values())
+                .filter(dimension -> dimension.propertyValue.equalsIgnoreCase(propertyValue.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown search dimension: " + propertyValue));
+    }
+}
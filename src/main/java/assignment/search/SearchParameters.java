@@ -0,0 +1,118 @@
+package assignment.search;
+
+import assignment.PropertyParsing;
+import assignment.statistics.RequestStatistics;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Settings for the capacity search, read from client_config.properties:
+ * <pre>
+ * searchDimension=threads
+ * searchStartLevel=4
+ * searchSettleSeconds=5
+ * searchMeasureSeconds=20
+ * sloP99PostMillis=50
+ * sloP99Get1Millis=200
+ * </pre>
+ * A p99 target of 0 leaves that request type unchecked.
+ */
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+public class SearchParameters {
+    private static final String DIMENSION_PROP_NAME = "searchDimension";
+    private static final String START_LEVEL_PROP_NAME = "searchStartLevel";
+    private static final String MAX_LEVEL_PROP_NAME = "searchMaxLevel";
+    private static final String GROWTH_FACTOR_PROP_NAME = "searchGrowthFactor";
+    private static final String RESOLUTION_PROP_NAME = "searchResolution";
+    private static final String SETTLE_SECONDS_PROP_NAME = "searchSettleSeconds";
+    private static final String MEASURE_SECONDS_PROP_NAME = "searchMeasureSeconds";
+    private static final String MAX_ERROR_RATE_PROP_NAME = "sloMaxErrorRate";
+    private static final String P99_POST_PROP_NAME = "sloP99PostMillis";
+    private static final String P99_GET1_PROP_NAME = "sloP99Get1Millis";
+    private static final String P99_GET2_PROP_NAME = "sloP99Get2Millis";
+
+    private static final String DEFAULT_DIMENSION = "threads";
+    private static final String DEFAULT_THREADS_START_LEVEL = "4";
+    private static final String DEFAULT_RATE_START_LEVEL = "100";
+    private static final String DEFAULT_RATE_MAX_LEVEL = "100000";
+    private static final String DEFAULT_GROWTH_FACTOR = "2";
+    private static final String DEFAULT_RESOLUTION = "0.05";
+    private static final String DEFAULT_SETTLE_SECONDS = "5";
+    private static final String DEFAULT_MEASURE_SECONDS = "20";
+    private static final String DEFAULT_MAX_ERROR_RATE = "0.01";
+    private static final String DEFAULT_P99_MILLIS = "0";
+
+    private SearchDimension dimension;
+    private int startLevel;
+    private int maxLevel;
+    private double growthFactor;
+    private double resolution;
+    private int settleSeconds;
+    private int measureSeconds;
+    private double maxErrorRate;
+    private Map<String, Long> p99TargetMillis;
+
+    public static SearchParameters parse(Properties properties, int maxThreadCount) {
+        SearchDimension dimension = SearchDimension.fromPropertyValue(
+                properties.getProperty(DIMENSION_PROP_NAME, DEFAULT_DIMENSION));
+        boolean threads = dimension == SearchDimension.THREADS;
+
+        Map<String, Long> p99TargetMillis = new HashMap<>();
+        p99TargetMillis.put(RequestStatistics.POST_METHOD_NAME_ONE,
+                PropertyParsing.parseLong(properties, P99_POST_PROP_NAME, DEFAULT_P99_MILLIS));
+        p99TargetMillis.put(RequestStatistics.GET_METHOD_NAME_ONE,
+                PropertyParsing.parseLong(properties, P99_GET1_PROP_NAME, DEFAULT_P99_MILLIS));
+        p99TargetMillis.put(RequestStatistics.GET_METHOD_NAME_TWO,
+                PropertyParsing.parseLong(properties, P99_GET2_PROP_NAME, DEFAULT_P99_MILLIS));
+
+        SearchParameters searchParameters = SearchParameters.builder()
+                .dimension(dimension)
+                .startLevel(PropertyParsing.parseInt(properties, START_LEVEL_PROP_NAME,
+                        threads ? DEFAULT_THREADS_START_LEVEL : DEFAULT_RATE_START_LEVEL))
+                .maxLevel(PropertyParsing.parseInt(properties, MAX_LEVEL_PROP_NAME,
+                        threads ? String.valueOf(maxThreadCount) : DEFAULT_RATE_MAX_LEVEL))
+                .growthFactor(PropertyParsing.parseDouble(
+                        properties, GROWTH_FACTOR_PROP_NAME, DEFAULT_GROWTH_FACTOR))
+                .resolution(PropertyParsing.parseDouble(properties, RESOLUTION_PROP_NAME, DEFAULT_RESOLUTION))
+                .settleSeconds(PropertyParsing.parseInt(
+                        properties, SETTLE_SECONDS_PROP_NAME, DEFAULT_SETTLE_SECONDS))
+                .measureSeconds(PropertyParsing.parseInt(
+                        properties, MEASURE_SECONDS_PROP_NAME, DEFAULT_MEASURE_SECONDS))
+                .maxErrorRate(PropertyParsing.parseDouble(
+                        properties, MAX_ERROR_RATE_PROP_NAME, DEFAULT_MAX_ERROR_RATE))
+                .p99TargetMillis(p99TargetMillis)
+                .build();
+
+        validate(searchParameters, maxThreadCount);
+        return searchParameters;
+    }
+
+    private static void validate(SearchParameters searchParameters, int maxThreadCount) {
+        if (searchParameters.startLevel <= 0 || searchParameters.maxLevel < searchParameters.startLevel) {
+            throw new IllegalArgumentException(START_LEVEL_PROP_NAME + " should be positive and no more than "
+                    + MAX_LEVEL_PROP_NAME + ".");
+        }
+        if (searchParameters.dimension == SearchDimension.THREADS && searchParameters.maxLevel > maxThreadCount) {
+            throw new IllegalArgumentException(MAX_LEVEL_PROP_NAME + " should not exceed maxThreads.");
+        }
+        if (searchParameters.growthFactor <= 1) {
+            throw new IllegalArgumentException(GROWTH_FACTOR_PROP_NAME + " should be greater than 1.");
+        }
+        if (searchParameters.resolution <= 0) {
+            throw new IllegalArgumentException(RESOLUTION_PROP_NAME + " should be positive.");
+        }
+        if (searchParameters.settleSeconds < 0 || searchParameters.measureSeconds <= 0) {
+            throw new IllegalArgumentException(SETTLE_SECONDS_PROP_NAME + " should not be negative and "
+                    + MEASURE_SECONDS_PROP_NAME + " should be positive.");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package assignment.search;
+
+import assignment.statistics.LatencyHistogram;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * The measured part of one search step: throughput over the measurement window and the latency
+ * histograms of the requests that started inside it.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class SearchStep {
+    private int level;
+    private double throughput;
+    private double errorRate;
+    private Map<String, LatencyHistogram> latencyHistograms;
+    private boolean meetsSlo;
+}
@@ -0,0 +1,133 @@
+package assignment.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.swagger.client.JSON;
+import io.swagger.client.model.LiftRide;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A local stand-in for the ski server, for measuring the client without the ELB in the way. It
+ * accepts single and batched lift ride POSTs and answers both vertical GETs with a fixed body, under
+ * any base path. Run it with: StandInServer [port] [handlerThreads] [serviceMillis]. The service
+ * time is spent once per request, so batching shows up as more rides per second.
+ */
+public class StandInServer {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_HANDLER_THREADS = 64;
+    private static final long DEFAULT_SERVICE_MILLIS = 0;
+    private static final int BACKLOG = 1024;
+    private static final long REPORT_INTERVAL_SECONDS = 5;
+
+    private static final String LIFT_RIDE_PATH_SUFFIX = "/skiers/liftrides";
+    private static final String LIFT_RIDE_BATCH_PATH_SUFFIX = "/skiers/liftrides/batch";
+    private static final String SKIERS_PATH_SEGMENT = "/skiers/";
+    private static final String POST_METHOD = "POST";
+    private static final String GET_METHOD = "GET";
+    private static final byte[] VERTICAL_BODY =
+            "{\"resorts\":[{\"seasonID\":\"2019\",\"totalVert\":100}]}".getBytes(StandardCharsets.UTF_8);
+
+    private static final Logger logger = LogManager.getLogger(StandInServer.class);
+
+    private final JSON json = new JSON();
+    private final long serviceMillis;
+    private final LongAdder rideCount = new LongAdder();
+    private final LongAdder postRequestCount = new LongAdder();
+    private final LongAdder getRequestCount = new LongAdder();
+
+    public StandInServer(long serviceMillis) {
+        this.serviceMillis = serviceMillis;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int handlerThreads = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_HANDLER_THREADS;
+        long serviceMillis = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SERVICE_MILLIS;
+        new StandInServer(serviceMillis).start(port, handlerThreads);
+    }
+
+    public void start(int port, int handlerThreads) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(handlerThreads));
+        server.start();
+        logger.log(Level.INFO, "Stand-in server listening on port " + port);
+
+        Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(
+                this::printRates, REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if (POST_METHOD.equals(method) && path.endsWith(LIFT_RIDE_BATCH_PATH_SUFFIX)) {
+                LiftRide[] rides = json.getGson().fromJson(
+                        new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8), LiftRide[].class);
+                serve();
+                postRequestCount.increment();
+                rideCount.add(rides == null ? 0 : rides.length);
+                respond(exchange, 201, null);
+            } else if (POST_METHOD.equals(method) && path.endsWith(LIFT_RIDE_PATH_SUFFIX)) {
+                json.getGson().fromJson(
+                        new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8), LiftRide.class);
+                serve();
+                postRequestCount.increment();
+                rideCount.increment();
+                respond(exchange, 201, null);
+            } else if (GET_METHOD.equals(method) && path.contains(SKIERS_PATH_SEGMENT)) {
+                serve();
+                getRequestCount.increment();
+                respond(exchange, 200, VERTICAL_BODY);
+            } else {
+                respond(exchange, 404, null);
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.WARN, e.getMessage());
+            respond(exchange, 400, null);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void serve() {
+        if (serviceMillis > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(serviceMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int statusCode, byte[] body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(statusCode, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private void printRates() {
+        System.out.println(String.format("Last %ds: %.1f rides/s, %.1f POST requests/s, %.1f GET requests/s",
+                REPORT_INTERVAL_SECONDS,
+                rideCount.sumThenReset() / (double) REPORT_INTERVAL_SECONDS,
+                postRequestCount.sumThenReset() / (double) REPORT_INTERVAL_SECONDS,
+                getRequestCount.sumThenReset() / (double) REPORT_INTERVAL_SECONDS));
+    }
+}
@@ -0,0 +1,260 @@
+package assignment.statistics;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Summarizes result CSVs after the fact, one or many at a time, for example every
+ * outputData*Threads.csv of a sweep. Each file is memory-mapped and split into line-aligned ranges
+ * that a fork/join pool parses in parallel straight from the mapped bytes, recording into per-range
+ * {@link ExactLatencyStats} that are merged on the way back up. Nothing is allocated per line, and
+ * the percentiles and standard deviation are exact.
+ */
+public class CsvAnalyzer {
+    // Ranges are split until they are no larger than this.
+    private static final long RANGE_SIZE = 16L * 1024 * 1024;
+    // How far past the end of its range a task may read to finish its last line.
+    private static final int LINE_LOOKAHEAD = 1024;
+    private static final int ERROR_STATUS_CODE = 400;
+    private static final byte[][] REQUEST_TYPE_NAMES = RequestStatistics.REQUEST_TYPES.stream()
+            .map(requestType -> requestType.getBytes(StandardCharsets.US_ASCII))
+            .toArray(byte[][]::new);
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: CsvAnalyzer <csv file or glob>...");
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        for (String arg : args) {
+            files.addAll(expand(arg));
+        }
+        if (files.isEmpty()) {
+            System.out.println("No result files matched " + String.join(" ", args));
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool();
+        Summary total = new Summary();
+        for (Path file : files) {
+            Summary summary = analyze(file, pool);
+            summary.print(file.toString());
+            total.merge(summary);
+        }
+        if (files.size() > 1) {
+            total.print("All " + files.size() + " files");
+        }
+        pool.shutdown();
+    }
+
+    public static Summary analyze(Path file, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            return size == 0 ? new Summary() : pool.invoke(new RangeTask(channel, size, 0, size));
+        }
+    }
+
+    // Shells on Windows leave wildcards alone, so a glob in the file name part is expanded here.
+    private static List<Path> expand(String arg) throws IOException {
+        Path path = Paths.get(arg);
+        String fileName = path.getFileName().toString();
+        List<Path> files = new ArrayList<>();
+        if (fileName.indexOf('*') < 0 && fileName.indexOf('?') < 0) {
+            files.add(path);
+            return files;
+        }
+        Path directory = path.getParent();
+        try (DirectoryStream<Path> matches =
+                     Files.newDirectoryStream(directory != null ? directory : Paths.get("."), fileName)) {
+            // Matches in the working directory are listed by file name alone, as they were given.
+            matches.forEach(match -> files.add(directory != null ? match : match.getFileName()));
+        }
+        files.sort(null);
+        return files;
+    }
+
+    /**
+     * Latency histograms and error counts by request type, plus the number of lines that could not
+     * be parsed.
+     */
+    public static class Summary {
+        private final Map<String, ExactLatencyStats> latencyStats = new LinkedHashMap<>();
+        private final long[] errorCounts = new long[REQUEST_TYPE_NAMES.length];
+        private long malformedLineCount;
+
+        Summary() {
+            RequestStatistics.REQUEST_TYPES.forEach(requestType ->
+                    latencyStats.put(requestType, new ExactLatencyStats()));
+        }
+
+        public Map<String, ExactLatencyStats> getLatencyStats() {
+            return latencyStats;
+        }
+
+        void merge(Summary other) {
+            other.latencyStats.forEach((requestType, stats) -> latencyStats.get(requestType).merge(stats));
+            for (int i = 0; i < errorCounts.length; i++) {
+                errorCounts[i] += other.errorCounts[i];
+            }
+            malformedLineCount += other.malformedLineCount;
+        }
+
+        void print(String title) {
+            long requestCount = latencyStats.values().stream()
+                    .mapToLong(ExactLatencyStats::getTotalCount)
+                    .sum();
+            System.out.println(title + ": " + requestCount + " requests"
+                    + (malformedLineCount > 0 ? ", " + malformedLineCount + " malformed lines skipped" : ""));
+            for (int i = 0; i < REQUEST_TYPE_NAMES.length; i++) {
+                String requestType = RequestStatistics.requestTypeName((byte) i);
+                ExactLatencyStats stats = latencyStats.get(requestType);
+                if (stats.getTotalCount() == 0) {
+                    continue;
+                }
+                System.out.println("  " + requestType + ": " + stats.getTotalCount() + " requests, "
+                        + errorCounts[i] + " errors, mean " + String.format("%.2f", stats.getMean())
+                        + " ms, stddev " + String.format("%.2f", stats.getStandardDeviation()) + " ms, "
+                        + LatencyHistogram.REPORTED_PERCENTILE_NAMES + "/max "
+                        + stats.describePercentiles() + " ms");
+            }
+        }
+    }
+
+    /**
+     * Parses the lines that start in [start, end) of the file, splitting the range in two until it is
+     * small enough. The first line of the file is the header and is skipped.
+     */
+    private static class RangeTask extends RecursiveTask<Summary> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long fileSize;
+        private final long start;
+        private final long end;
+
+        private MappedByteBuffer region;
+        private int position;
+
+        RangeTask(FileChannel channel, long fileSize, long start, long end) {
+            this.channel = channel;
+            this.fileSize = fileSize;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Summary compute() {
+            if (end - start > RANGE_SIZE) {
+                long middle = start + (end - start) / 2;
+                RangeTask firstHalf = new RangeTask(channel, fileSize, start, middle);
+                firstHalf.fork();
+                Summary summary = new RangeTask(channel, fileSize, middle, end).compute();
+                summary.merge(firstHalf.join());
+                return summary;
+            }
+            try {
+                return parseRange();
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read " + start + "-" + end + " of a result file", e);
+            }
+        }
+
+        private Summary parseRange() throws IOException {
+            // Mapping from one byte early lets a range tell whether a line starts exactly at its start.
+            long mapStart = Math.max(0, start - 1);
+            long mapEnd = Math.min(fileSize, end + LINE_LOOKAHEAD);
+            region = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+            int rangeEnd = (int) (end - mapStart);
+            Summary summary = new Summary();
+
+            // Either the header or the tail of a line that belongs to the previous range.
+            skipPast('\n');
+            while (position < rangeEnd && position < region.limit()) {
+                parseLine(summary);
+            }
+            return summary;
+        }
+
+        private void parseLine(Summary summary) {
+            int requestTypeIndex = parseRequestType();
+            long responseCode = parseNumber();
+            long startTime = parseNumber();
+            long endTime = parseNumber();
+            long latency = parseNumber();
+            boolean endOfLine = position >= region.limit() || region.get(position) == '\n'
+                    || region.get(position) == '\r';
+            if (requestTypeIndex < 0 || responseCode < 0 || startTime < 0 || endTime < 0 || latency < 0
+                    || latency > ExactLatencyStats.MAX_LATENCY || !endOfLine) {
+                summary.malformedLineCount++;
+            } else {
+                summary.latencyStats.get(RequestStatistics.requestTypeName((byte) requestTypeIndex))
+                        .record((int) latency);
+                if (responseCode >= ERROR_STATUS_CODE) {
+                    summary.errorCounts[requestTypeIndex]++;
+                }
+            }
+            skipPast('\n');
+        }
+
+        // Matches the first field against the known request types and moves past its comma.
+        private int parseRequestType() {
+            for (int i = 0; i < REQUEST_TYPE_NAMES.length; i++) {
+                byte[] name = REQUEST_TYPE_NAMES[i];
+                int separator = position + name.length;
+                if (separator < region.limit() && region.get(separator) == ',' && matches(name)) {
+                    position = separator + 1;
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private boolean matches(byte[] name) {
+            for (int i = 0; i < name.length; i++) {
+                if (region.get(position + i) != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Reads a non-negative decimal field and moves past a trailing comma; -1 means there were no digits.
+        private long parseNumber() {
+            long value = 0;
+            int digitCount = 0;
+            while (position < region.limit()) {
+                byte character = region.get(position);
+                if (character < '0' || character > '9') {
+                    break;
+                }
+                value = value * 10 + (character - '0');
+                digitCount++;
+                position++;
+            }
+            if (position < region.limit() && region.get(position) == ',') {
+                position++;
+            }
+            return digitCount > 0 ? value : -1;
+        }
+
+        private void skipPast(char terminator) {
+            while (position < region.limit() && region.get(position) != terminator) {
+                position++;
+            }
+            position++;
+        }
+    }
+}
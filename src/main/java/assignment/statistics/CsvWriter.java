@@ -1,72 +1,167 @@
 package assignment.statistics;
 
-import org.apache.logging.log4j.Level;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.PrintWriter;
-import java.util.Collection;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPOutputStream;
 
-public class CsvWriter {
+/**
+ * Writes samples as CSV text. Each line is formatted digit by digit straight into one reusable 1 MB
+ * byte buffer, which goes to the file channel, or through gzip, only when it is full, so writing a line
+ * allocates nothing. The file can be rotated by size or age, each part starting with its own header.
+ */
+public class CsvWriter extends SampleWriter {
     private final String CSV_HEADERS =
             "RequestMethod,ResponseCode,StartTimeStamp,EndTimeStamp,Latency";
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    // Room for the longest possible line: a request type and four numbers of up to 20 characters each.
+    private static final int MAX_LINE_SIZE = 128;
+    private static final long BYTES_IN_MEGABYTE = 1024 * 1024;
+    private static final long MILLISECONDS_IN_SECOND = 1000;
+    private static final byte SEPARATOR = ',';
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] REQUEST_TYPE_PREFIXES = RequestStatistics.REQUEST_TYPES.stream()
+            .map(requestType -> (requestType + ",").getBytes(StandardCharsets.US_ASCII))
+            .toArray(byte[][]::new);
 
-    private String fileName;
-    private PrintWriter printWriter;
-    private BlockingQueue<Collection<RequestStatistics.SingleRequestStatistic>> statsQueue;
+    private final long rotateBytes;
+    private final long rotateMillis;
+    private final boolean gzip;
+    private final byte[] buffer = new byte[WRITE_BUFFER_SIZE];
+    private int bufferPosition;
 
-    private static final Logger logger = LogManager.getLogger(CsvWriter.class);
+    private FileChannel channel;
+    private OutputStream gzipOutput;
+    private int segment;
+    private long segmentBytes;
+    private long segmentStartMillis;
 
-    CsvWriter(String fileName, BlockingQueue<Collection<RequestStatistics.SingleRequestStatistic>> statsQueue) {
-        this.fileName = fileName;
-        this.statsQueue = statsQueue;
+    CsvWriter(
+            String fileName,
+            SampleLogParameters sampleLogParameters,
+            BlockingQueue<SampleChunk> statsQueue,
+            SampleChunkPool chunkPool) {
+        super(fileName, statsQueue, chunkPool);
+        this.rotateBytes = sampleLogParameters.getCsvRotateMegabytes() * BYTES_IN_MEGABYTE;
+        this.rotateMillis = sampleLogParameters.getCsvRotateSeconds() * MILLISECONDS_IN_SECOND;
+        this.gzip = sampleLogParameters.isCsvGzip();
     }
 
-    public Thread startWriter() {
-        createFile();
-        return createWriteThread();
+    @Override
+    protected void open() throws IOException {
+        openSegment();
     }
 
-    public void createFile() {
-        File outputFile = new File(fileName);
-        try {
-            printWriter = new PrintWriter(outputFile);
-            printWriter.println(CSV_HEADERS);
-        } catch (FileNotFoundException e) {
-            logger.log(Level.FATAL, e.getMessage());
+    @Override
+    protected void write(SampleChunk chunk) throws IOException {
+        if (rotateMillis > 0 && System.currentTimeMillis() - segmentStartMillis >= rotateMillis) {
+            rotate();
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            if (bufferPosition + MAX_LINE_SIZE > buffer.length) {
+                flushBuffer();
+            }
+            int lineStart = bufferPosition;
+            appendCsvLine(chunk, i);
+            segmentBytes += bufferPosition - lineStart;
+            if (rotateBytes > 0 && segmentBytes >= rotateBytes) {
+                rotate();
+            }
         }
     }
 
-    private String generateCsvLine(RequestStatistics.SingleRequestStatistic stat) {
-        return stat.getRequestType() + "," + stat.getResponseCode() + "," + stat.getStartTime()
-                + "," + stat.getEndTime() + "," + stat.getLatency();
+    @Override
+    protected void close() throws IOException {
+        closeSegment();
     }
 
-    private void writeThreadData() {
-        try {
-            Collection<RequestStatistics.SingleRequestStatistic> reqStats = statsQueue.take();
-            while (reqStats.size() > 0) {
-                reqStats.forEach(stats -> {
-                    String csvLine = generateCsvLine(stats);
-                    printWriter.println(csvLine);
-                });
-                reqStats = statsQueue.take();
-            }
-            printWriter.close();
-        } catch (InterruptedException e) {
-            logger.log(Level.FATAL, e.getMessage());
+    private void appendCsvLine(SampleChunk chunk, int index) {
+        long startTime = chunk.getStartTime(index);
+        int latency = chunk.getLatency(index);
+        byte[] requestTypePrefix = REQUEST_TYPE_PREFIXES[chunk.getRequestTypeIndex(index)];
+        System.arraycopy(requestTypePrefix, 0, buffer, bufferPosition, requestTypePrefix.length);
+        bufferPosition += requestTypePrefix.length;
+        appendNumber(chunk.getResponseCode(index));
+        buffer[bufferPosition++] = SEPARATOR;
+        appendNumber(startTime);
+        buffer[bufferPosition++] = SEPARATOR;
+        appendNumber(startTime + latency);
+        buffer[bufferPosition++] = SEPARATOR;
+        appendNumber(latency);
+        System.arraycopy(LINE_SEPARATOR, 0, buffer, bufferPosition, LINE_SEPARATOR.length);
+        bufferPosition += LINE_SEPARATOR.length;
+    }
+
+    private void appendNumber(long value) {
+        if (value < 0) {
+            buffer[bufferPosition++] = '-';
+            value = -value;
+        }
+        // Digits come out lowest first, so they are written in place and then reversed.
+        int start = bufferPosition;
+        do {
+            buffer[bufferPosition++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        for (int low = start, high = bufferPosition - 1; low < high; low++, high--) {
+            byte digit = buffer[low];
+            buffer[low] = buffer[high];
+            buffer[high] = digit;
         }
     }
 
-    public Thread createWriteThread() {
-        Runnable thread = this::writeThreadData;
+    private void rotate() throws IOException {
+        closeSegment();
+        segment++;
+        openSegment();
+    }
 
-        Thread writeThread = new Thread(thread);
-        writeThread.start();
-        return writeThread;
+    private void openSegment() throws IOException {
+        channel = FileChannel.open(Paths.get(segmentFileName()),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        gzipOutput = gzip ? new GZIPOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE) : null;
+        segmentStartMillis = System.currentTimeMillis();
+        byte[] headers = (CSV_HEADERS + System.lineSeparator()).getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(headers, 0, buffer, bufferPosition, headers.length);
+        bufferPosition += headers.length;
+        segmentBytes = headers.length;
     }
 
+    private void closeSegment() throws IOException {
+        flushBuffer();
+        if (gzipOutput != null) {
+            // Also closes the channel underneath.
+            gzipOutput.close();
+        } else {
+            channel.close();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (gzipOutput != null) {
+            gzipOutput.write(buffer, 0, bufferPosition);
+        } else {
+            SampleLog.writeFully(channel, ByteBuffer.wrap(buffer, 0, bufferPosition));
+        }
+        bufferPosition = 0;
+    }
+
+    // The first part keeps the plain file name; later parts are numbered in front of the extension.
+    private String segmentFileName() {
+        String name = fileName;
+        if (segment > 0) {
+            int extensionStart = fileName.lastIndexOf('.');
+            name = extensionStart > fileName.lastIndexOf('/')
+                    ? fileName.substring(0, extensionStart) + "." + segment + fileName.substring(extensionStart)
+                    : fileName + "." + segment;
+        }
+        return gzip ? name + GZIP_EXTENSION : name;
+    }
 }
@@ -0,0 +1,101 @@
+package assignment.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Exact latency statistics for one request type, for offline analysis where there is time to count
+ * every millisecond. The mean comes from a 64-bit sum, the variance from Welford's running update, and
+ * each latency is counted in a primitive array indexed by millisecond that grows to fit the longest
+ * one seen, so percentiles are exact nearest-rank values rather than bucketed. Like
+ * {@link LatencyHistogram}, it has a single writer and partial results are merged.
+ */
+public class ExactLatencyStats {
+    // Latencies up to this many milliseconds, about 24 days, can be counted.
+    public static final long MAX_LATENCY = Integer.MAX_VALUE - 8;
+
+    private static final int INITIAL_COUNTING_ARRAY_SIZE = 1024;
+    // Keeps 0.99 * 100 from rounding up to rank 100 through floating point error.
+    private static final double PERCENTILE_RANK_EPSILON = 1e-9;
+
+    private long[] latencyCounts = new long[INITIAL_COUNTING_ARRAY_SIZE];
+    private long totalCount;
+    private long totalLatency;
+    private int maxLatency = -1;
+    private double runningMean;
+    private double squaredDeviationSum;
+
+    public void record(int latency) {
+        if (latency >= latencyCounts.length) {
+            latencyCounts = Arrays.copyOf(latencyCounts,
+                    (int) Math.min(MAX_LATENCY + 1, Math.max(latency + 1L, latencyCounts.length * 2L)));
+        }
+        latencyCounts[latency]++;
+        totalCount++;
+        totalLatency += latency;
+        maxLatency = Math.max(maxLatency, latency);
+        double delta = latency - runningMean;
+        runningMean += delta / totalCount;
+        squaredDeviationSum += delta * (latency - runningMean);
+    }
+
+    public void merge(ExactLatencyStats other) {
+        if (other.totalCount == 0) {
+            return;
+        }
+        if (other.latencyCounts.length > latencyCounts.length) {
+            latencyCounts = Arrays.copyOf(latencyCounts, other.latencyCounts.length);
+        }
+        for (int i = 0; i <= other.maxLatency; i++) {
+            latencyCounts[i] += other.latencyCounts[i];
+        }
+        long mergedCount = totalCount + other.totalCount;
+        double delta = other.runningMean - runningMean;
+        runningMean += delta * other.totalCount / mergedCount;
+        squaredDeviationSum +=
+                other.squaredDeviationSum + delta * delta * totalCount * other.totalCount / mergedCount;
+        totalCount = mergedCount;
+        totalLatency += other.totalLatency;
+        maxLatency = Math.max(maxLatency, other.maxLatency);
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) totalLatency / totalCount;
+    }
+
+    public int getMax() {
+        return maxLatency;
+    }
+
+    public double getStandardDeviation() {
+        return totalCount > 1 ? Math.sqrt(squaredDeviationSum / (totalCount - 1)) : 0;
+    }
+
+    // Nearest rank: the smallest latency that at least the given fraction of requests did not exceed.
+    public int getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * totalCount - PERCENTILE_RANK_EPSILON));
+        long seen = 0;
+        for (int latency = 0; latency <= maxLatency; latency++) {
+            seen += latencyCounts[latency];
+            if (seen >= rank) {
+                return latency;
+            }
+        }
+        return maxLatency;
+    }
+
+    // The same percentiles as LatencyHistogram.describePercentiles, then the max, separated by slashes.
+    public String describePercentiles() {
+        StringBuilder description = new StringBuilder();
+        for (double percentile : LatencyHistogram.REPORTED_PERCENTILES) {
+            description.append(getValueAtPercentile(percentile)).append('/');
+        }
+        return description.append(maxLatency).toString();
+    }
+}
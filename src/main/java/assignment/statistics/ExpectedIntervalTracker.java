@@ -0,0 +1,34 @@
+package assignment.statistics;
+
+/**
+ * Gives each request of one closed-loop worker the interval at which the worker expects to send
+ * requests of that type, for coordinated-omission correction: the configured interval, or else the
+ * mean latency of the worker's earlier requests of the same type, since a closed-loop worker sends its
+ * next request as soon as the last one returns. Tracking each type separately keeps GETs that are
+ * always slower than POSTs from being corrected as if they had stalled.
+ */
+public class ExpectedIntervalTracker {
+    private final long configuredIntervalMillis;
+    private final long[] latencySums = new long[RequestStatistics.REQUEST_TYPES.size()];
+    private final long[] latencyCounts = new long[RequestStatistics.REQUEST_TYPES.size()];
+
+    public ExpectedIntervalTracker(long configuredIntervalMillis) {
+        this.configuredIntervalMillis = configuredIntervalMillis;
+    }
+
+    /**
+     * The expected interval for a request of the given type that took latency milliseconds, or zero
+     * before the worker has a mean to go by.
+     */
+    public synchronized long expectedIntervalMillis(byte requestTypeIndex, int latency) {
+        long expectedIntervalMillis = 0;
+        if (configuredIntervalMillis > 0) {
+            expectedIntervalMillis = configuredIntervalMillis;
+        } else if (latencyCounts[requestTypeIndex] > 0) {
+            expectedIntervalMillis = Math.max(1, latencySums[requestTypeIndex] / latencyCounts[requestTypeIndex]);
+        }
+        latencySums[requestTypeIndex] += latency;
+        latencyCounts[requestTypeIndex]++;
+        return expectedIntervalMillis;
+    }
+}
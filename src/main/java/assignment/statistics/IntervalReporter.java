@@ -0,0 +1,159 @@
+package assignment.statistics;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reports the run as it goes: every interval it prints the throughput and error rate of that interval
+ * and the p50/p99/max latency of each request type completed in it, and appends the same figures to a
+ * CSV file. Latencies are recorded into interval histograms that are swapped out at each report, split
+ * into stripes by thread so workers rarely wait on each other or on the reporter.
+ */
+public class IntervalReporter {
+    private static final String CSV_HEADERS =
+            "ElapsedSeconds,Throughput,ErrorRate,RequestMethod,Count,P50,P99,Max";
+    private static final int STRIPE_COUNT = 16;
+    private static final double NANOS_IN_SECOND = 1_000_000_000.0;
+    private static final long STOP_TIMEOUT_SECONDS = 5;
+
+    private static final Logger logger = LogManager.getLogger(IntervalReporter.class);
+
+    private final int intervalSeconds;
+    private final String fileName;
+    private final AtomicInteger successCount;
+    private final AtomicInteger failureCount;
+    private final List<Stripe> stripes = new ArrayList<>(STRIPE_COUNT);
+    private final ScheduledExecutorService reportExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "interval-reporter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PrintWriter printWriter;
+    private long startNanos;
+    private long lastReportNanos;
+    private int lastSuccessCount;
+    private int lastFailureCount;
+
+    public IntervalReporter(
+            int intervalSeconds, String fileName, AtomicInteger successCount, AtomicInteger failureCount) {
+        this.intervalSeconds = intervalSeconds;
+        this.fileName = fileName;
+        this.successCount = successCount;
+        this.failureCount = failureCount;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes.add(new Stripe());
+        }
+    }
+
+    public void start() {
+        File outputFile = new File(fileName);
+        try {
+            boolean newFile = outputFile.length() == 0;
+            printWriter = new PrintWriter(new FileWriter(outputFile, true));
+            if (newFile) {
+                printWriter.println(CSV_HEADERS);
+            }
+        } catch (IOException e) {
+            logger.log(Level.ERROR, "Interval report will not be written to " + fileName + ": " + e.getMessage());
+        }
+        startNanos = System.nanoTime();
+        lastReportNanos = startNanos;
+        lastSuccessCount = successCount.get();
+        lastFailureCount = failureCount.get();
+        reportExecutor.scheduleAtFixedRate(this::report, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the reporter after one last report covering whatever was left of the final interval.
+     */
+    public void stop() throws InterruptedException {
+        reportExecutor.shutdown();
+        reportExecutor.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        report();
+        if (printWriter != null) {
+            printWriter.close();
+        }
+    }
+
+    public void record(byte requestTypeIndex, int latency) {
+        stripes.get((int) (Thread.currentThread().getId() % STRIPE_COUNT)).record(requestTypeIndex, latency);
+    }
+
+    private void report() {
+        long reportNanos = System.nanoTime();
+        double intervalLengthSeconds = (reportNanos - lastReportNanos) / NANOS_IN_SECOND;
+        if (intervalLengthSeconds <= 0) {
+            return;
+        }
+        Map<String, LatencyHistogram> intervalHistograms = RequestStatistics.createLatencyHistograms();
+        for (Stripe stripe : stripes) {
+            stripe.drain().forEach((requestType, histogram) ->
+                    intervalHistograms.get(requestType).merge(histogram));
+        }
+        int currentSuccessCount = successCount.get();
+        int currentFailureCount = failureCount.get();
+        int intervalSuccesses = currentSuccessCount - lastSuccessCount;
+        int intervalFailures = currentFailureCount - lastFailureCount;
+        int intervalRequests = intervalSuccesses + intervalFailures;
+        lastReportNanos = reportNanos;
+        lastSuccessCount = currentSuccessCount;
+        lastFailureCount = currentFailureCount;
+
+        double elapsedSeconds = (reportNanos - startNanos) / NANOS_IN_SECOND;
+        double throughput = intervalRequests / intervalLengthSeconds;
+        double errorRate = intervalRequests == 0 ? 0 : (double) intervalFailures / intervalRequests;
+
+        StringBuilder line = new StringBuilder(String.format(
+                "[%7.1fs] %.1f req/s, %.2f%% errors", elapsedSeconds, throughput, errorRate * 100));
+        intervalHistograms.forEach((requestType, histogram) -> {
+            if (histogram.getTotalCount() > 0) {
+                line.append(String.format(" | %s p50/p99/max %d/%d/%d ms", requestType,
+                        histogram.getValueAtPercentile(0.5), histogram.getValueAtPercentile(0.99),
+                        histogram.getMax()));
+            }
+            if (printWriter != null) {
+                printWriter.println(String.format("%.1f,%.1f,", elapsedSeconds, throughput)
+                        + String.format("%.4f", errorRate) + "," + requestType + "," + histogram.getTotalCount()
+                        + "," + formatLatency(histogram, histogram.getValueAtPercentile(0.5))
+                        + "," + formatLatency(histogram, histogram.getValueAtPercentile(0.99))
+                        + "," + formatLatency(histogram, histogram.getMax()));
+            }
+        });
+        System.out.println(line);
+        if (printWriter != null) {
+            printWriter.flush();
+        }
+    }
+
+    private static String formatLatency(LatencyHistogram histogram, long latency) {
+        return histogram.getTotalCount() > 0 ? String.valueOf(latency) : "";
+    }
+
+    private static class Stripe {
+        private Map<String, LatencyHistogram> histograms = RequestStatistics.createLatencyHistograms();
+
+        synchronized void record(byte requestTypeIndex, int latency) {
+            histograms.get(RequestStatistics.requestTypeName(requestTypeIndex)).record(latency);
+        }
+
+        synchronized Map<String, LatencyHistogram> drain() {
+            Map<String, LatencyHistogram> drained = histograms;
+            histograms = RequestStatistics.createLatencyHistograms();
+            return drained;
+        }
+    }
+}
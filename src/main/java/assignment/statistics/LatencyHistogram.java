@@ -0,0 +1,182 @@
+package assignment.statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Counts latencies in a fixed-size, high-dynamic-range layout in the style of HdrHistogram. Latencies
+ * under 256 ms get a bucket per millisecond; above that, each doubling of the latency is split into
+ * 128 buckets, so a percentile is never more than 0.8% above the true value and the whole range up to
+ * several hours fits in 18 KB. Sum and max are kept exactly, and the variance with Welford's running
+ * update, combined pairwise when histograms are merged. A histogram has a single writer; workers
+ * each record into their own and the results are merged, so recording never takes a lock. Only
+ * non-empty buckets are written when a histogram is sent over the wire.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int MAX_MAGNITUDE = 16;
+    private static final long HIGHEST_TRACKABLE_LATENCY = ((long) SUB_BUCKET_COUNT << MAX_MAGNITUDE) - 1;
+    private static final int BUCKET_COUNT = (MAX_MAGNITUDE + 1) * SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+
+    // Keeps 0.99 * 100 from rounding up to rank 100 through floating point error.
+    private static final double PERCENTILE_RANK_EPSILON = 1e-9;
+
+    public static final double[] REPORTED_PERCENTILES = {0.5, 0.9, 0.95, 0.99, 0.999, 0.9999};
+    public static final String REPORTED_PERCENTILE_NAMES = "p50/p90/p95/p99/p99.9/p99.99";
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long totalLatency;
+    private long maxLatency = -1;
+    private double runningMean;
+    private double squaredDeviationSum;
+
+    public void record(long latencyMillis) {
+        long latency = Math.max(0, latencyMillis);
+        counts[bucketIndex(Math.min(latency, HIGHEST_TRACKABLE_LATENCY))]++;
+        totalCount++;
+        totalLatency += latency;
+        maxLatency = Math.max(maxLatency, latency);
+        double delta = latency - runningMean;
+        runningMean += delta / totalCount;
+        squaredDeviationSum += delta * (latency - runningMean);
+    }
+
+    /**
+     * Records the latency and, when it is longer than the expected interval between requests, the
+     * latencies of the requests a stalled closed-loop worker would have sent in the meantime, each one
+     * interval shorter than the last. The same correction as HdrHistogram's
+     * recordValueWithExpectedInterval.
+     */
+    public void recordWithExpectedInterval(long latencyMillis, long expectedIntervalMillis) {
+        record(latencyMillis);
+        if (expectedIntervalMillis <= 0) {
+            return;
+        }
+        for (long missedLatency = latencyMillis - expectedIntervalMillis;
+                missedLatency >= expectedIntervalMillis;
+                missedLatency -= expectedIntervalMillis) {
+            record(missedLatency);
+        }
+    }
+
+    public void merge(LatencyHistogram other) {
+        if (other.totalCount == 0) {
+            return;
+        }
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        long mergedCount = totalCount + other.totalCount;
+        double delta = other.runningMean - runningMean;
+        runningMean += delta * other.totalCount / mergedCount;
+        squaredDeviationSum +=
+                other.squaredDeviationSum + delta * delta * totalCount * other.totalCount / mergedCount;
+        totalCount = mergedCount;
+        totalLatency += other.totalLatency;
+        maxLatency = Math.max(maxLatency, other.maxLatency);
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) totalLatency / totalCount;
+    }
+
+    public long getMax() {
+        return maxLatency;
+    }
+
+    // Sample standard deviation, exact rather than taken from the buckets.
+    public double getStandardDeviation() {
+        return totalCount > 1 ? Math.sqrt(squaredDeviationSum / (totalCount - 1)) : 0;
+    }
+
+    // The REPORTED_PERCENTILES and the max, separated by slashes.
+    public String describePercentiles() {
+        StringBuilder description = new StringBuilder();
+        for (double percentile : REPORTED_PERCENTILES) {
+            description.append(getValueAtPercentile(percentile)).append('/');
+        }
+        return description.append(maxLatency).toString();
+    }
+
+    /**
+     * The highest latency in the bucket holding the given percentile's nearest rank, capped at the
+     * recorded max, so reported percentiles err on the slow side. Below 256 ms this is the same value
+     * {@link ExactLatencyStats} gives.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return -1;
+        }
+        // The bucket holding the rank is the highest one with fewer than rank latencies below it.
+        long rank = Math.max(1, (long) Math.ceil(percentile * totalCount - PERCENTILE_RANK_EPSILON));
+        long kthIndex = rank - 1;
+        long remainingCount = totalCount;
+
+        for (int i = bucketIndex(Math.min(maxLatency, HIGHEST_TRACKABLE_LATENCY)); i >= 0; i--) {
+            remainingCount -= counts[i];
+            if (remainingCount <= kthIndex) {
+                return Math.min(maxLatency, highestLatencyInBucket(i));
+            }
+        }
+        return -1;
+    }
+
+    public void writeTo(DataOutput output) throws IOException {
+        output.writeLong(totalLatency);
+        output.writeLong(maxLatency);
+        output.writeDouble(squaredDeviationSum);
+        int bucketCount = 0;
+        for (long count : counts) {
+            if (count != 0) {
+                bucketCount++;
+            }
+        }
+        output.writeInt(bucketCount);
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] != 0) {
+                output.writeInt(i);
+                output.writeLong(counts[i]);
+            }
+        }
+    }
+
+    public static LatencyHistogram readFrom(DataInput input) throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.totalLatency = input.readLong();
+        histogram.maxLatency = input.readLong();
+        histogram.squaredDeviationSum = input.readDouble();
+        int bucketCount = input.readInt();
+        for (int i = 0; i < bucketCount; i++) {
+            int bucket = input.readInt();
+            if (bucket < 0 || bucket >= BUCKET_COUNT) {
+                throw new IOException("Histogram bucket " + bucket + " is out of range");
+            }
+            long count = input.readLong();
+            histogram.counts[bucket] += count;
+            histogram.totalCount += count;
+        }
+        histogram.runningMean = histogram.getMean();
+        return histogram;
+    }
+
+    // Latencies below SUB_BUCKET_COUNT map straight to their own bucket. Above that, the magnitude is the
+    // number of low bits dropped to bring the latency back into [SUB_BUCKET_HALF_COUNT, SUB_BUCKET_COUNT).
+    private static int bucketIndex(long latency) {
+        int magnitude = 63 - Long.numberOfLeadingZeros(latency | (SUB_BUCKET_COUNT - 1)) - (SUB_BUCKET_BITS - 1);
+        return magnitude * SUB_BUCKET_HALF_COUNT + (int) (latency >>> magnitude);
+    }
+
+    private static long highestLatencyInBucket(int bucket) {
+        int magnitude = Math.max(0, bucket / SUB_BUCKET_HALF_COUNT - 1);
+        long subBucket = bucket - (long) magnitude * SUB_BUCKET_HALF_COUNT;
+        return (subBucket << magnitude) + (1L << magnitude) - 1;
+    }
+}
@@ -0,0 +1,57 @@
+package assignment.statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Per-batch figures for batched lift ride POSTs. The rides in a batch are also recorded one by one
+ * as POST statistics, timed from when each ride was queued, so those include the time spent waiting
+ * for the batch to fill; the batch latency here is only the round trip of the batch request. Workers
+ * of a distributed run send theirs to the coordinator, which merges them.
+ */
+public class LiftRideBatchStatistics {
+    private final LatencyHistogram batchLatencyHistogram = new LatencyHistogram();
+    private long batchCount;
+    private long rideCount;
+
+    public synchronized void recordBatch(int batchRideCount, long latencyMillis) {
+        batchCount++;
+        rideCount += batchRideCount;
+        batchLatencyHistogram.record(latencyMillis);
+    }
+
+    public synchronized void merge(LiftRideBatchStatistics other) {
+        synchronized (other) {
+            batchCount += other.batchCount;
+            rideCount += other.rideCount;
+            batchLatencyHistogram.merge(other.batchLatencyHistogram);
+        }
+    }
+
+    public synchronized void writeTo(DataOutput output) throws IOException {
+        output.writeLong(batchCount);
+        output.writeLong(rideCount);
+        batchLatencyHistogram.writeTo(output);
+    }
+
+    public static LiftRideBatchStatistics readFrom(DataInput input) throws IOException {
+        LiftRideBatchStatistics statistics = new LiftRideBatchStatistics();
+        statistics.batchCount = input.readLong();
+        statistics.rideCount = input.readLong();
+        statistics.batchLatencyHistogram.merge(LatencyHistogram.readFrom(input));
+        return statistics;
+    }
+
+    public synchronized long getBatchCount() {
+        return batchCount;
+    }
+
+    public synchronized double getMeanBatchSize() {
+        return batchCount == 0 ? 0 : (double) rideCount / batchCount;
+    }
+
+    public synchronized long getBatchLatencyAtPercentile(double percentile) {
+        return batchLatencyHistogram.getValueAtPercentile(percentile);
+    }
+}
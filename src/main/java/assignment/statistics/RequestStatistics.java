@@ -1,14 +1,15 @@
 package assignment.statistics;
 
-import lombok.AllArgsConstructor;
-import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -19,13 +20,26 @@ public class RequestStatistics {
     public static final String GET_METHOD_NAME_ONE = "GET1";
     public static final String GET_METHOD_NAME_TWO = "GET2";
     public static final String POST_METHOD_NAME_ONE = "POST";
+    public static final byte POST_TYPE_INDEX = 0;
+    public static final byte GET1_TYPE_INDEX = 1;
+    public static final byte GET2_TYPE_INDEX = 2;
+
+    static final List<String> REQUEST_TYPES =
+            Arrays.asList(POST_METHOD_NAME_ONE, GET_METHOD_NAME_ONE, GET_METHOD_NAME_TWO);
 
     private  static final Logger logger = LogManager.getLogger(RequestStatistics.class);
 
     private String fileName;
-    private BlockingQueue<Collection<SingleRequestStatistic>> requestWriteQueue = new LinkedBlockingQueue<>();
-    private CsvWriter csvWriter;
-    private StatisticsCalculator statisticsCalculator;
+    private BlockingQueue<SampleChunk> requestWriteQueue = new LinkedBlockingQueue<>();
+    private SampleChunkPool chunkPool = new SampleChunkPool();
+    private SampleWriter sampleWriter;
+    private Map<String, LatencyHistogram> latencyHistograms = createLatencyHistograms();
+    private Map<String, LatencyHistogram> correctedLatencyHistograms = createLatencyHistograms();
+    private volatile long measurementStartTime;
+    private boolean discarding;
+    private LiftRideBatchStatistics liftRideBatchStatistics = new LiftRideBatchStatistics();
+    @Setter
+    private IntervalReporter intervalReporter;
 
     private Double meanPostLatency;
     private Double meanGet1Latency;
@@ -40,66 +54,127 @@ public class RequestStatistics {
     private long maxGet1ResponseTime;
     private long maxGet2ResponseTime;
 
-    public RequestStatistics(String outputFileName) {
-        this.fileName = outputFileName;
-        this.csvWriter = new CsvWriter(fileName, requestWriteQueue);
+    /**
+     * Statistics whose samples are written to outputName plus the format's file extension. The run
+     * description is kept in the header of a binary sample log.
+     */
+    public RequestStatistics(String outputName, SampleLogParameters sampleLogParameters, String runDescription) {
+        this.fileName = outputName + sampleLogParameters.getFormat().getFileExtension();
+        this.sampleWriter = SampleWriter.create(
+                sampleLogParameters, fileName, runDescription, requestWriteQueue, chunkPool);
     }
 
-    public Thread startWritingToCsv() {
-        return csvWriter.startWriter();
+    /**
+     * Statistics that are dropped as they arrive, for traffic such as the warm-up that is sent but not
+     * measured.
+     */
+    public static RequestStatistics discarding() {
+        RequestStatistics requestStatistics = new RequestStatistics();
+        requestStatistics.discarding = true;
+        return requestStatistics;
     }
 
-    public void startCalculation() {
-        statisticsCalculator = new StatisticsCalculator(fileName);
-        statisticsCalculator.calculateStats();
+    public Thread startWritingSamples() {
+        return sampleWriter.startWriter();
     }
 
-    public void setVals() {
-        Map<String, Double> avgLatencyMap = statisticsCalculator.getAvgLatencyMap();
-        this.meanGet1Latency = avgLatencyMap.get(GET_METHOD_NAME_ONE);
-        this.meanGet2Latency = avgLatencyMap.get(GET_METHOD_NAME_TWO);
-        this.meanPostLatency = avgLatencyMap.get(POST_METHOD_NAME_ONE);
-
-        Map<String, Integer> maxLatencyMap = statisticsCalculator.getMaxLatencyMap();
-        this.maxPostResponseTime = maxLatencyMap.get(POST_METHOD_NAME_ONE);
-        this.maxGet1ResponseTime = maxLatencyMap.get(GET_METHOD_NAME_ONE);
-        this.maxGet2ResponseTime = maxLatencyMap.get(GET_METHOD_NAME_TWO);
-
-        Map<String, Integer> medianLatencyMap = statisticsCalculator.getMedianLatencyMap();
-        this.medianGet1Latency = medianLatencyMap.get(GET_METHOD_NAME_ONE);
-        this.medianGet2Latency = medianLatencyMap.get(GET_METHOD_NAME_TWO);
-        this.medianPostLatency = medianLatencyMap.get(POST_METHOD_NAME_ONE);
-
-        Map<String, Integer> p99Map = statisticsCalculator.getP99LatencyMap();
-        this.p99Get1ResponseTime = p99Map.get(GET_METHOD_NAME_ONE);
-        this.p99Get2ResponseTime = p99Map.get(GET_METHOD_NAME_TWO);
-        this.p99PostResponseTime = p99Map.get(POST_METHOD_NAME_ONE);
+    /**
+     * Tells the sample writer that every recorder has been closed, so it can finish the file and exit.
+     */
+    public void finishWriting() {
+        putOnQueue(chunkPool.acquire());
     }
 
-    public void addStatsToQueue(Collection<SingleRequestStatistic> statsToAdd) {
-        try {
-            requestWriteQueue.put(statsToAdd);
-        } catch (InterruptedException e) {
-            logger.log(Level.FATAL, e.getMessage());
+    public void setVals(Map<String, LatencyHistogram> histograms) {
+        LatencyHistogram get1Histogram = histograms.get(GET_METHOD_NAME_ONE);
+        LatencyHistogram get2Histogram = histograms.get(GET_METHOD_NAME_TWO);
+        LatencyHistogram postHistogram = histograms.get(POST_METHOD_NAME_ONE);
+
+        this.meanGet1Latency = get1Histogram.getMean();
+        this.meanGet2Latency = get2Histogram.getMean();
+        this.meanPostLatency = postHistogram.getMean();
+
+        this.maxPostResponseTime = postHistogram.getMax();
+        this.maxGet1ResponseTime = get1Histogram.getMax();
+        this.maxGet2ResponseTime = get2Histogram.getMax();
+
+        this.medianGet1Latency = get1Histogram.getValueAtPercentile(0.5);
+        this.medianGet2Latency = get2Histogram.getValueAtPercentile(0.5);
+        this.medianPostLatency = postHistogram.getValueAtPercentile(0.5);
+
+        this.p99Get1ResponseTime = get1Histogram.getValueAtPercentile(0.99);
+        this.p99Get2ResponseTime = get2Histogram.getValueAtPercentile(0.99);
+        this.p99PostResponseTime = postHistogram.getValueAtPercentile(0.99);
+    }
+
+    /**
+     * Requests that started before this time are still written to the sample log but left out of the latency
+     * histograms, so the histograms describe steady state only.
+     */
+    public void setMeasurementStartTime(long measurementStartTime) {
+        this.measurementStartTime = measurementStartTime;
+    }
+
+    /**
+     * A recorder for one worker. Its latencies reach the run's histograms once it is closed.
+     */
+    public SampleRecorder newRecorder() {
+        return new SampleRecorder(this, null);
+    }
+
+    /**
+     * A recorder for one closed-loop worker, whose latencies are also corrected with the intervals the
+     * tracker expects. The tracker may be null when no correction is wanted.
+     */
+    public SampleRecorder newRecorder(ExpectedIntervalTracker expectedIntervalTracker) {
+        return new SampleRecorder(this, expectedIntervalTracker);
+    }
+
+    synchronized void merge(SampleRecorder recorder) {
+        if (discarding) {
+            return;
         }
+        recorder.getLatencyHistograms().forEach((requestType, histogram) ->
+                latencyHistograms.get(requestType).merge(histogram));
+        recorder.getCorrectedLatencyHistograms().forEach((requestType, histogram) ->
+                correctedLatencyHistograms.get(requestType).merge(histogram));
+    }
+
+    public static Map<String, LatencyHistogram> createLatencyHistograms() {
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        histograms.put(POST_METHOD_NAME_ONE, new LatencyHistogram());
+        histograms.put(GET_METHOD_NAME_ONE, new LatencyHistogram());
+        histograms.put(GET_METHOD_NAME_TWO, new LatencyHistogram());
+        return histograms;
+    }
+
+    public static byte requestTypeIndex(String requestType) {
+        int index = REQUEST_TYPES.indexOf(requestType);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown request type " + requestType);
+        }
+        return (byte) index;
+    }
+
+    static String requestTypeName(byte requestTypeIndex) {
+        return REQUEST_TYPES.get(requestTypeIndex);
+    }
+
+    SampleChunk acquireChunk() {
+        return chunkPool.acquire();
     }
 
-    @Getter
-    @Builder
-    @AllArgsConstructor
-    public static class SingleRequestStatistic implements Comparable<SingleRequestStatistic>{
-        private long startTime;
-        private long endTime;
-        private int responseCode;
-        private String requestType;
-
-        public long getLatency() {
-            return endTime - startTime;
+    void addStatsToQueue(SampleChunk chunk) {
+        if (!chunk.isEmpty()) {
+            putOnQueue(chunk);
         }
+    }
 
-        @Override
-        public int compareTo(SingleRequestStatistic otherStat) {
-            return (int)Math.ceil(this.getLatency() - otherStat.getLatency());
+    private void putOnQueue(SampleChunk chunk) {
+        try {
+            requestWriteQueue.put(chunk);
+        } catch (InterruptedException e) {
+            logger.log(Level.FATAL, e.getMessage());
         }
     }
 }
@@ -0,0 +1,60 @@
+package assignment.statistics;
+
+/**
+ * A fixed number of request samples stored column by column in primitive arrays, so a recorded
+ * request costs no objects of its own. Chunks are filled by one recorder, handed to the sample writer
+ * when full and returned to the run's {@link SampleChunkPool} once written.
+ */
+public class SampleChunk {
+    static final int CAPACITY = 1024;
+
+    private final long[] startTimes = new long[CAPACITY];
+    private final int[] latencies = new int[CAPACITY];
+    private final short[] responseCodes = new short[CAPACITY];
+    private final byte[] requestTypes = new byte[CAPACITY];
+    private int size;
+
+    void add(long startTime, int latency, short responseCode, byte requestTypeIndex) {
+        startTimes[size] = startTime;
+        latencies[size] = latency;
+        responseCodes[size] = responseCode;
+        requestTypes[size] = requestTypeIndex;
+        size++;
+    }
+
+    boolean isFull() {
+        return size == CAPACITY;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getStartTime(int index) {
+        return startTimes[index];
+    }
+
+    public int getLatency(int index) {
+        return latencies[index];
+    }
+
+    public int getResponseCode(int index) {
+        return responseCodes[index];
+    }
+
+    public String getRequestType(int index) {
+        return RequestStatistics.requestTypeName(requestTypes[index]);
+    }
+
+    byte getRequestTypeIndex(int index) {
+        return requestTypes[index];
+    }
+}
@@ -0,0 +1,23 @@
+package assignment.statistics;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Sample chunks that have been written out and can be filled again. Recorders take chunks on any
+ * thread and the sample writer gives them back, so a run allocates only as many chunks as are in
+ * flight at once.
+ */
+class SampleChunkPool {
+    private final Queue<SampleChunk> freeChunks = new ConcurrentLinkedQueue<>();
+
+    SampleChunk acquire() {
+        SampleChunk chunk = freeChunks.poll();
+        return chunk != null ? chunk : new SampleChunk();
+    }
+
+    void release(SampleChunk chunk) {
+        chunk.clear();
+        freeChunks.offer(chunk);
+    }
+}
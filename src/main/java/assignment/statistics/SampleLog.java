@@ -0,0 +1,131 @@
+package assignment.statistics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary sample log format: a magic number and version, the length and UTF-8 text of the run
+ * parameters, then one RECORD_SIZE-byte record per request in the order the samples were handed off.
+ *
+ * <pre>
+ * long  start time, in milliseconds since the epoch
+ * int   latency, in milliseconds
+ * short response code
+ * byte  request type (0 POST, 1 GET1, 2 GET2)
+ * byte  unused
+ * </pre>
+ */
+public final class SampleLog {
+    static final int MAGIC = 0x534B534C;
+    static final int VERSION = 1;
+    static final int RECORD_SIZE = 16;
+    static final int IO_BUFFER_SIZE = 1 << 20;
+
+    private SampleLog() {
+    }
+
+    static void writeHeader(FileChannel channel, String runDescription) throws IOException {
+        byte[] description = runDescription.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES + description.length);
+        header.putInt(MAGIC).putInt(VERSION).putInt(description.length).put(description);
+        header.flip();
+        writeFully(channel, header);
+    }
+
+    static void putRecord(ByteBuffer buffer, SampleChunk chunk, int index) {
+        buffer.putLong(chunk.getStartTime(index))
+                .putInt(chunk.getLatency(index))
+                .putShort((short) chunk.getResponseCode(index))
+                .put(chunk.getRequestTypeIndex(index))
+                .put((byte) 0);
+    }
+
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    public static Reader open(Path logPath) throws IOException {
+        FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES);
+            readFully(channel, header);
+            if (header.remaining() < header.capacity() || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException(logPath + " is not a sample log");
+            }
+            ByteBuffer description = ByteBuffer.allocate(header.getInt());
+            readFully(channel, description);
+            if (description.remaining() < description.capacity()) {
+                throw new IOException(logPath + " ends inside its header");
+            }
+            return new Reader(channel, new String(description.array(), StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // Keep reading until the buffer is full or the file ends.
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Reads the records of a sample log back into chunks, through one large buffer.
+     */
+    public static class Reader implements Closeable {
+        private final FileChannel channel;
+        private final String runDescription;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+
+        private Reader(FileChannel channel, String runDescription) {
+            this.channel = channel;
+            this.runDescription = runDescription;
+            buffer.flip();
+        }
+
+        public String getRunDescription() {
+            return runDescription;
+        }
+
+        /**
+         * Fills the chunk with the next records. Returns false once there are none left.
+         */
+        boolean readChunk(SampleChunk chunk) throws IOException {
+            while (!chunk.isFull()) {
+                if (buffer.remaining() < RECORD_SIZE) {
+                    buffer.compact();
+                    int bytesRead = channel.read(buffer);
+                    buffer.flip();
+                    if (bytesRead < 0) {
+                        break;
+                    }
+                    continue;
+                }
+                long startTime = buffer.getLong();
+                int latency = buffer.getInt();
+                short responseCode = buffer.getShort();
+                byte requestType = buffer.get();
+                buffer.get();
+                if (requestType < 0 || requestType >= RequestStatistics.REQUEST_TYPES.size()) {
+                    throw new IOException("Unknown request type " + requestType + " in the sample log");
+                }
+                chunk.add(startTime, latency, responseCode, requestType);
+            }
+            return !chunk.isEmpty();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
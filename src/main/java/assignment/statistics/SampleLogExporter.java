@@ -0,0 +1,57 @@
+package assignment.statistics;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Converts a binary sample log into the CSV the client writes by default, through the same CSV
+ * writer, and prints the run parameters stored in the log's header.
+ */
+public class SampleLogExporter {
+    private static final String SAMPLE_LOG_EXTENSION = SampleLogFormat.BINARY.getFileExtension();
+    private static final int CHUNKS_IN_FLIGHT = 16;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.out.println("Usage: SampleLogExporter <sample log> [csv file]");
+            return;
+        }
+        String sampleLogFile = args[0];
+        String csvFile = args.length > 1 ? args[1] : toCsvFileName(sampleLogFile);
+        long sampleCount = export(sampleLogFile, csvFile);
+        System.out.println("Wrote " + sampleCount + " samples to " + csvFile);
+    }
+
+    public static long export(String sampleLogFile, String csvFile) throws IOException, InterruptedException {
+        // Bounded, so reading cannot run ahead of the writer by more than a few chunks.
+        BlockingQueue<SampleChunk> chunkQueue = new ArrayBlockingQueue<>(CHUNKS_IN_FLIGHT);
+        SampleChunkPool chunkPool = new SampleChunkPool();
+        Thread writeThread = new CsvWriter(
+                csvFile, SampleLogParameters.parse(new Properties()), chunkQueue, chunkPool).startWriter();
+
+        long sampleCount = 0;
+        try (SampleLog.Reader reader = SampleLog.open(Paths.get(sampleLogFile))) {
+            System.out.println("Run parameters: " + reader.getRunDescription());
+            SampleChunk chunk = chunkPool.acquire();
+            while (reader.readChunk(chunk)) {
+                sampleCount += chunk.size();
+                chunkQueue.put(chunk);
+                chunk = chunkPool.acquire();
+            }
+        } finally {
+            chunkQueue.put(chunkPool.acquire());
+            writeThread.join();
+        }
+        return sampleCount;
+    }
+
+    private static String toCsvFileName(String sampleLogFile) {
+        String baseName = sampleLogFile.endsWith(SAMPLE_LOG_EXTENSION)
+                ? sampleLogFile.substring(0, sampleLogFile.length() - SAMPLE_LOG_EXTENSION.length())
+                : sampleLogFile;
+        return baseName + SampleLogFormat.CSV.getFileExtension();
+    }
+}
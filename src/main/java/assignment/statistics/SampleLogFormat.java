@@ -0,0 +1,27 @@
+package assignment.statistics;
+
+import java.util.Arrays;
+
+public enum SampleLogFormat {
+    CSV("csv", ".csv"),
+    BINARY("binary", ".bin");
+
+    private final String propertyValue;
+    private final String fileExtension;
+
+    SampleLogFormat(String propertyValue, String fileExtension) {
+        this.propertyValue = propertyValue;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public static SampleLogFormat fromPropertyValue(String propertyValue) {
+        return Arrays.stream(values())
+                .filter(format -> format.propertyValue.equalsIgnoreCase(propertyValue.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown sample log format: " + propertyValue));
+    }
+}
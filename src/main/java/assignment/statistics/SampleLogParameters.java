@@ -0,0 +1,64 @@
+package assignment.statistics;
+
+import assignment.PropertyParsing;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Properties;
+
+/**
+ * How request samples are written, read from client_config.properties:
+ * <pre>
+ * sampleLogFormat=csv
+ * csvRotateMegabytes=512
+ * csvRotateSeconds=600
+ * csvGzip=true
+ * </pre>
+ * A CSV log starts a new file once the current one holds the given number of megabytes of
+ * uncompressed text or has been open for the given number of seconds; zero turns either limit off.
+ */
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+public class SampleLogParameters {
+    private static final String SAMPLE_LOG_FORMAT_PROP_NAME = "sampleLogFormat";
+    private static final String CSV_ROTATE_MEGABYTES_PROP_NAME = "csvRotateMegabytes";
+    private static final String CSV_ROTATE_SECONDS_PROP_NAME = "csvRotateSeconds";
+    private static final String CSV_GZIP_PROP_NAME = "csvGzip";
+    private static final String DEFAULT_SAMPLE_LOG_FORMAT = "csv";
+    private static final String DEFAULT_CSV_ROTATE_MEGABYTES = "0";
+    private static final String DEFAULT_CSV_ROTATE_SECONDS = "0";
+    private static final String DEFAULT_CSV_GZIP = "false";
+
+    private SampleLogFormat format;
+    private int csvRotateMegabytes;
+    private int csvRotateSeconds;
+    private boolean csvGzip;
+
+    public static SampleLogParameters parse(Properties properties) {
+        SampleLogParameters sampleLogParameters = SampleLogParameters.builder()
+                .format(SampleLogFormat.fromPropertyValue(
+                        properties.getProperty(SAMPLE_LOG_FORMAT_PROP_NAME, DEFAULT_SAMPLE_LOG_FORMAT)))
+                .csvRotateMegabytes(PropertyParsing.parseNonNegativeInt(
+                        properties, CSV_ROTATE_MEGABYTES_PROP_NAME, DEFAULT_CSV_ROTATE_MEGABYTES))
+                .csvRotateSeconds(PropertyParsing.parseNonNegativeInt(
+                        properties, CSV_ROTATE_SECONDS_PROP_NAME, DEFAULT_CSV_ROTATE_SECONDS))
+                .csvGzip(Boolean.parseBoolean(properties.getProperty(CSV_GZIP_PROP_NAME, DEFAULT_CSV_GZIP).trim()))
+                .build();
+
+        validate(sampleLogParameters);
+        return sampleLogParameters;
+    }
+
+    private static void validate(SampleLogParameters sampleLogParameters) {
+        boolean csvOptionsSet = sampleLogParameters.getCsvRotateMegabytes() > 0
+                || sampleLogParameters.getCsvRotateSeconds() > 0 || sampleLogParameters.isCsvGzip();
+        if (csvOptionsSet && sampleLogParameters.getFormat() != SampleLogFormat.CSV) {
+            throw new IllegalArgumentException(CSV_ROTATE_MEGABYTES_PROP_NAME + ", " + CSV_ROTATE_SECONDS_PROP_NAME
+                    + " and " + CSV_GZIP_PROP_NAME + " only apply to the csv " + SAMPLE_LOG_FORMAT_PROP_NAME + ".");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package assignment.statistics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes samples in the fixed-width {@link SampleLog} format. Records are packed into one large direct
+ * buffer that goes to the file channel whenever it fills, so writing costs no text formatting at all.
+ */
+public class SampleLogWriter extends SampleWriter {
+    private final String runDescription;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(SampleLog.IO_BUFFER_SIZE);
+    private FileChannel channel;
+
+    SampleLogWriter(
+            String fileName,
+            String runDescription,
+            BlockingQueue<SampleChunk> statsQueue,
+            SampleChunkPool chunkPool) {
+        super(fileName, statsQueue, chunkPool);
+        this.runDescription = runDescription;
+    }
+
+    @Override
+    protected void open() throws IOException {
+        channel = FileChannel.open(Paths.get(fileName),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        SampleLog.writeHeader(channel, runDescription);
+    }
+
+    @Override
+    protected void write(SampleChunk chunk) throws IOException {
+        for (int i = 0; i < chunk.size(); i++) {
+            if (buffer.remaining() < SampleLog.RECORD_SIZE) {
+                flush();
+            }
+            SampleLog.putRecord(buffer, chunk, i);
+        }
+    }
+
+    @Override
+    protected void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        SampleLog.writeFully(channel, buffer);
+        buffer.clear();
+    }
+}
@@ -0,0 +1,80 @@
+package assignment.statistics;
+
+import java.util.Map;
+
+/**
+ * One worker's samples and latency histograms, recorded without locks as the worker's requests
+ * complete. Samples are packed into pooled {@link SampleChunk}s that go to the sample writer as they
+ * fill; the histograms are merged into the run's {@link RequestStatistics} when the recorder is
+ * closed. Corrected histograms are only allocated once a request carries an expected interval.
+ */
+public class SampleRecorder {
+    private final RequestStatistics requestStatistics;
+    private final ExpectedIntervalTracker expectedIntervalTracker;
+    private final Map<String, LatencyHistogram> latencyHistograms = RequestStatistics.createLatencyHistograms();
+    private Map<String, LatencyHistogram> correctedLatencyHistograms;
+    private SampleChunk chunk;
+
+    SampleRecorder(RequestStatistics requestStatistics, ExpectedIntervalTracker expectedIntervalTracker) {
+        this.requestStatistics = requestStatistics;
+        this.expectedIntervalTracker = expectedIntervalTracker;
+    }
+
+    /**
+     * Records one completed request, with typeIndex one of the RequestStatistics *_TYPE_INDEX constants.
+     */
+    public void record(long startTime, int latency, short status, byte typeIndex) {
+        // Zero when the request needs no coordinated-omission correction.
+        long expectedIntervalMillis = expectedIntervalTracker != null
+                ? expectedIntervalTracker.expectedIntervalMillis(typeIndex, latency) : 0;
+        if (requestStatistics.isDiscarding()) {
+            return;
+        }
+        IntervalReporter intervalReporter = requestStatistics.getIntervalReporter();
+        if (intervalReporter != null) {
+            intervalReporter.record(typeIndex, latency);
+        }
+        if (chunk == null) {
+            chunk = requestStatistics.acquireChunk();
+        }
+        chunk.add(startTime, latency, status, typeIndex);
+        if (chunk.isFull()) {
+            requestStatistics.addStatsToQueue(chunk);
+            chunk = null;
+        }
+
+        if (startTime < requestStatistics.getMeasurementStartTime()) {
+            return;
+        }
+        if (expectedIntervalMillis > 0 && correctedLatencyHistograms == null) {
+            // Until now the corrected histograms would have matched the raw ones exactly.
+            correctedLatencyHistograms = RequestStatistics.createLatencyHistograms();
+            latencyHistograms.forEach((requestType, histogram) ->
+                    correctedLatencyHistograms.get(requestType).merge(histogram));
+        }
+        String requestType = RequestStatistics.requestTypeName(typeIndex);
+        latencyHistograms.get(requestType).record(latency);
+        if (correctedLatencyHistograms != null) {
+            correctedLatencyHistograms.get(requestType).recordWithExpectedInterval(latency, expectedIntervalMillis);
+        }
+    }
+
+    /**
+     * Hands the last, partly filled chunk to the sample writer and merges the histograms into the run's.
+     */
+    public void close() {
+        if (chunk != null) {
+            requestStatistics.addStatsToQueue(chunk);
+            chunk = null;
+        }
+        requestStatistics.merge(this);
+    }
+
+    Map<String, LatencyHistogram> getLatencyHistograms() {
+        return latencyHistograms;
+    }
+
+    Map<String, LatencyHistogram> getCorrectedLatencyHistograms() {
+        return correctedLatencyHistograms != null ? correctedLatencyHistograms : latencyHistograms;
+    }
+}
@@ -0,0 +1,34 @@
+package assignment.statistics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The recorders of a worker whose requests complete on other threads, such as a pool or OkHttp's
+ * dispatcher. Each completing thread records into its own {@link SampleRecorder} without a lock.
+ */
+public class SampleRecorders {
+    private final RequestStatistics requestStatistics;
+    private final ExpectedIntervalTracker expectedIntervalTracker;
+    private final Map<Thread, SampleRecorder> recorders = new ConcurrentHashMap<>();
+
+    public SampleRecorders(RequestStatistics requestStatistics, ExpectedIntervalTracker expectedIntervalTracker) {
+        this.requestStatistics = requestStatistics;
+        this.expectedIntervalTracker = expectedIntervalTracker;
+    }
+
+    public SampleRecorder forCurrentThread() {
+        Thread thread = Thread.currentThread();
+        // A plain get first, since computeIfAbsent locks its bin even when the recorder already exists.
+        SampleRecorder recorder = recorders.get(thread);
+        return recorder != null ? recorder
+                : recorders.computeIfAbsent(thread, key -> requestStatistics.newRecorder(expectedIntervalTracker));
+    }
+
+    /**
+     * Closes every recorder, once no more requests can complete.
+     */
+    public void close() {
+        recorders.values().forEach(SampleRecorder::close);
+    }
+}
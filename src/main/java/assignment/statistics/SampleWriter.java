@@ -0,0 +1,83 @@
+package assignment.statistics;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Drains the run's sample chunks on a thread of its own and writes them out in one of the
+ * {@link SampleLogFormat}s, giving each chunk back to the pool once it is written. An empty chunk
+ * ends the stream. If the file cannot be written the chunks are still drained, so the run itself is
+ * never held up.
+ */
+public abstract class SampleWriter {
+    private static final Logger logger = LogManager.getLogger(SampleWriter.class);
+
+    protected final String fileName;
+    private final BlockingQueue<SampleChunk> statsQueue;
+    private final SampleChunkPool chunkPool;
+
+    SampleWriter(String fileName, BlockingQueue<SampleChunk> statsQueue, SampleChunkPool chunkPool) {
+        this.fileName = fileName;
+        this.statsQueue = statsQueue;
+        this.chunkPool = chunkPool;
+    }
+
+    static SampleWriter create(
+            SampleLogParameters sampleLogParameters,
+            String fileName,
+            String runDescription,
+            BlockingQueue<SampleChunk> statsQueue,
+            SampleChunkPool chunkPool) {
+        return sampleLogParameters.getFormat() == SampleLogFormat.BINARY
+                ? new SampleLogWriter(fileName, runDescription, statsQueue, chunkPool)
+                : new CsvWriter(fileName, sampleLogParameters, statsQueue, chunkPool);
+    }
+
+    public Thread startWriter() {
+        Thread writeThread = new Thread(this::writeThreadData);
+        writeThread.start();
+        return writeThread;
+    }
+
+    protected abstract void open() throws IOException;
+
+    protected abstract void write(SampleChunk chunk) throws IOException;
+
+    protected abstract void close() throws IOException;
+
+    private void writeThreadData() {
+        boolean writing = true;
+        try {
+            open();
+        } catch (IOException e) {
+            logger.log(Level.FATAL, "Unable to create " + fileName + ": " + e.getMessage());
+            writing = false;
+        }
+        try {
+            SampleChunk chunk = statsQueue.take();
+            while (chunk.size() > 0) {
+                if (writing) {
+                    try {
+                        write(chunk);
+                    } catch (IOException e) {
+                        logger.log(Level.FATAL, "Unable to write " + fileName + ": " + e.getMessage());
+                        writing = false;
+                    }
+                }
+                chunkPool.release(chunk);
+                chunk = statsQueue.take();
+            }
+            if (writing) {
+                close();
+            }
+        } catch (InterruptedException e) {
+            logger.log(Level.FATAL, e.getMessage());
+        } catch (IOException e) {
+            logger.log(Level.FATAL, "Unable to finish " + fileName + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package assignment.traffic;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One request as it left the client: when it was sent relative to the start of the recording, and
+ * the method, path below the API base path, content type and body it was sent with.
+ */
+@Getter
+@AllArgsConstructor
+public class RecordedRequest {
+    private long offsetNanos;
+    private String method;
+    private String path;
+    private String contentType;
+    private byte[] body;
+}
@@ -0,0 +1,68 @@
+package assignment.traffic;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary traffic log format: a magic number and version, then one entry per request in the order the
+ * requests were sent.
+ *
+ * <pre>
+ * long   send offset from the start of the recording, in nanoseconds
+ * UTF    method
+ * UTF    path below the API base path, including any query string
+ * UTF    content type, empty when there is no body
+ * int    body length, then the body bytes
+ * </pre>
+ */
+public final class TrafficLog {
+    static final int MAGIC = 0x534B524C;
+    static final int VERSION = 1;
+
+    private TrafficLog() {
+    }
+
+    static void writeHeader(DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+    }
+
+    static void write(DataOutputStream output, RecordedRequest request) throws IOException {
+        output.writeLong(request.getOffsetNanos());
+        output.writeUTF(request.getMethod());
+        output.writeUTF(request.getPath());
+        output.writeUTF(request.getContentType());
+        output.writeInt(request.getBody().length);
+        output.write(request.getBody());
+    }
+
+    public static List<RecordedRequest> readAll(Path logPath) throws IOException {
+        List<RecordedRequest> requests = new ArrayList<>();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(logPath)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException(logPath + " is not a traffic log");
+            }
+            while (true) {
+                long offsetNanos;
+                try {
+                    offsetNanos = input.readLong();
+                } catch (EOFException e) {
+                    return requests;
+                }
+                String method = input.readUTF();
+                String path = input.readUTF();
+                String contentType = input.readUTF();
+                byte[] body = new byte[input.readInt()];
+                input.readFully(body);
+                requests.add(new RecordedRequest(offsetNanos, method, path, contentType, body));
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package assignment.traffic;
+
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+import okio.Buffer;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Captures every request the shared OkHttpClient sends into a traffic log. Registered as an
+ * application interceptor, so it sees each call once, before connection retries, at the moment the
+ * call is actually sent. Entries are handed to a writer thread so the senders never wait on disk.
+ */
+public class TrafficRecorder implements Interceptor {
+    private static final RecordedRequest END_OF_RECORDING = new RecordedRequest(0, "", "", "", new byte[0]);
+
+    private static final Logger logger = LogManager.getLogger(TrafficRecorder.class);
+
+    private final String logFile;
+    private final String basePath;
+    private final BlockingQueue<RecordedRequest> recordQueue = new LinkedBlockingQueue<>();
+    private final long recordingStartNanos = System.nanoTime();
+    private Thread writeThread;
+
+    public TrafficRecorder(String logFile, String basePath) {
+        this.logFile = logFile;
+        this.basePath = basePath;
+    }
+
+    public void start() {
+        writeThread = new Thread(this::writeRecords);
+        writeThread.start();
+    }
+
+    public void stop() throws InterruptedException {
+        recordQueue.put(END_OF_RECORDING);
+        writeThread.join();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        long offsetNanos = System.nanoTime() - recordingStartNanos;
+
+        String contentType = "";
+        byte[] body = new byte[0];
+        if (request.body() != null) {
+            Buffer buffer = new Buffer();
+            request.body().writeTo(buffer);
+            body = buffer.readByteArray();
+            contentType = request.body().contentType() != null ? request.body().contentType().toString() : "";
+        }
+
+        String url = request.urlString();
+        String path = url.startsWith(basePath) ? url.substring(basePath.length()) : request.httpUrl().encodedPath();
+        recordQueue.add(new RecordedRequest(offsetNanos, request.method(), path, contentType, body));
+        return chain.proceed(request);
+    }
+
+    private void writeRecords() {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(logFile)))) {
+            TrafficLog.writeHeader(output);
+            RecordedRequest request = recordQueue.take();
+            while (request != END_OF_RECORDING) {
+                TrafficLog.write(output, request);
+                request = recordQueue.take();
+            }
+        } catch (IOException | InterruptedException e) {
+            logger.log(Level.FATAL, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package assignment.traffic;
+
+import assignment.Parameters;
+import assignment.client.Client;
+import assignment.client.HttpClientFactory;
+import assignment.client.RunSummary;
+import assignment.client.TunedSocketFactory;
+import assignment.statistics.SampleRecorder;
+import assignment.statistics.RequestStatistics;
+import io.swagger.client.ApiClient;
+import io.swagger.client.ApiException;
+import io.swagger.client.ApiResponse;
+import io.swagger.client.JSON;
+import io.swagger.client.Pair;
+import io.swagger.client.model.LiftRide;
+import lombok.AllArgsConstructor;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replays a traffic log against the server in client_config.properties, or against the host given on
+ * the command line, keeping the recorded inter-arrival times divided by a speed-up factor:
+ *
+ * <pre>
+ * TrafficReplayer &lt;log file&gt; [speed-up factor] [host server address]
+ * </pre>
+ *
+ * Requests are spread over maxThreads lanes by skier, and a lane sends its requests one at a time in
+ * recorded order, so requests for the same skier are never reordered. A lane that falls behind sends
+ * its next request straight away; latency is measured from the time the request was due.
+ */
+public class TrafficReplayer {
+    private static final String CONFIG_FILE_PATH = "client_config.properties";
+    private static final String OUTPUT_NAME = "replayOutputData";
+    private static final double DEFAULT_SPEED_UP = 1.0;
+    private static final long NANOS_IN_MILLISECOND = 1_000_000L;
+    private static final String POST_METHOD = "POST";
+    private static final String RESORT_TOTALS_PATH_SUFFIX = "/vertical";
+    private static final Pattern SKIER_ID_IN_PATH = Pattern.compile("/skiers/([^/?]+)(?:/vertical)?(?:\\?.*)?$");
+
+    private static final Logger logger = LogManager.getLogger(TrafficReplayer.class);
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.out.println("Usage: TrafficReplayer <log file> [speed-up factor] [host server address]");
+            return;
+        }
+        Optional<Parameters> clientParams = Parameters.parsePropertiesFile(CONFIG_FILE_PATH);
+        if (!clientParams.isPresent()) {
+            logger.log(Level.DEBUG, "Unable to load parameters config file");
+            return;
+        }
+
+        double speedUp = args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_SPEED_UP;
+        if (speedUp <= 0) {
+            throw new IllegalArgumentException("The speed-up factor should be positive.");
+        }
+        Parameters parameters = args.length > 2
+                ? clientParams.get().toBuilder().hostServerAddress(args[2]).build()
+                : clientParams.get();
+
+        List<RecordedRequest> requests = TrafficLog.readAll(Paths.get(args[0]));
+        logger.log(Level.INFO, "Replaying " + requests.size() + " requests against "
+                + parameters.getHostServerAddress() + " at " + speedUp + "x");
+        replay(parameters, requests, speedUp);
+    }
+
+    private static void replay(Parameters parameters, List<RecordedRequest> requests, double speedUp)
+            throws InterruptedException {
+        RequestStatistics requestStatistics =
+                new RequestStatistics(OUTPUT_NAME, parameters.getSampleLogParameters(), parameters.toString());
+        Thread statsWriteThread = requestStatistics.startWritingSamples();
+        TunedSocketFactory socketFactory = new TunedSocketFactory(
+                parameters.isHttpTcpNoDelay(), parameters.getHttpSendBufferSize(), parameters.getHttpReceiveBufferSize());
+        ApiClient apiClient = HttpClientFactory.createApiClient(parameters, socketFactory);
+
+        int laneCount = parameters.getMaxThreadCount();
+        List<List<RecordedRequest>> lanes = new ArrayList<>();
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        JSON json = new JSON();
+        requests.forEach(request ->
+                lanes.get(Math.floorMod(getSkierKey(request, json).hashCode(), laneCount)).add(request));
+
+        AtomicInteger successCount = new AtomicInteger(0);
+        AtomicInteger failureCount = new AtomicInteger(0);
+        long replayStartTime = System.currentTimeMillis();
+        long replayStartNanos = System.nanoTime();
+
+        List<Thread> laneThreads = new ArrayList<>();
+        for (List<RecordedRequest> lane : lanes) {
+            ReplayLane replayLane = new ReplayLane(lane, apiClient, speedUp, replayStartTime, replayStartNanos,
+                    successCount, failureCount, requestStatistics);
+            Thread laneThread = new Thread(replayLane);
+            laneThread.start();
+            laneThreads.add(laneThread);
+        }
+        for (Thread laneThread : laneThreads) {
+            laneThread.join();
+        }
+        long replayEndTime = System.currentTimeMillis();
+
+        requestStatistics.finishWriting();
+        statsWriteThread.join();
+        requestStatistics.setVals(requestStatistics.getLatencyHistograms());
+
+        Client.printResults(requestStatistics, parameters, RunSummary.builder()
+                .startTime(replayStartTime)
+                .endTime(replayEndTime)
+                .peakThreadCount(ManagementFactory.getThreadMXBean().getPeakThreadCount())
+                .successCount(successCount.get())
+                .failureCount(failureCount.get())
+                .latencyHistograms(requestStatistics.getLatencyHistograms())
+                .correctedLatencyHistograms(requestStatistics.getCorrectedLatencyHistograms())
+                .liftRideBatchStatistics(requestStatistics.getLiftRideBatchStatistics())
+                .build());
+        HttpClientFactory.printConnectionStats(apiClient, socketFactory);
+    }
+
+    private static String getSkierKey(RecordedRequest request, JSON json) {
+        if (POST_METHOD.equals(request.getMethod()) && request.getBody().length > 0) {
+            LiftRide liftRide = json.deserialize(new String(request.getBody(), StandardCharsets.UTF_8), LiftRide.class);
+            if (liftRide != null && liftRide.getSkierID() != null) {
+                return liftRide.getSkierID();
+            }
+        }
+        Matcher matcher = SKIER_ID_IN_PATH.matcher(request.getPath());
+        return matcher.find() ? matcher.group(1) : request.getPath();
+    }
+
+    private static byte getRequestTypeIndex(RecordedRequest request) {
+        if (POST_METHOD.equals(request.getMethod())) {
+            return RequestStatistics.POST_TYPE_INDEX;
+        }
+        String path = request.getPath();
+        int queryStart = path.indexOf('?');
+        return (queryStart < 0 ? path : path.substring(0, queryStart)).endsWith(RESORT_TOTALS_PATH_SUFFIX)
+                ? RequestStatistics.GET2_TYPE_INDEX : RequestStatistics.GET1_TYPE_INDEX;
+    }
+
+    @AllArgsConstructor
+    private static class ReplayLane implements Runnable {
+        private final List<RecordedRequest> requests;
+        private final ApiClient apiClient;
+        private final double speedUp;
+        private final long replayStartTime;
+        private final long replayStartNanos;
+        private final AtomicInteger successCount;
+        private final AtomicInteger failureCount;
+        private final RequestStatistics requestStatistics;
+
+        @Override
+        public void run() {
+            SampleRecorder sampleRecorder = requestStatistics.newRecorder();
+            for (RecordedRequest request : requests) {
+                long dueOffsetNanos = (long) (request.getOffsetNanos() / speedUp);
+                waitUntil(replayStartNanos + dueOffsetNanos);
+                long requestStartTime = replayStartTime + dueOffsetNanos / NANOS_IN_MILLISECOND;
+                try {
+                    ApiResponse<Object> res = apiClient.execute(createCall(request));
+                    successCount.incrementAndGet();
+                    record(sampleRecorder, request, requestStartTime, res.getStatusCode());
+                } catch (ApiException e) {
+                    failureCount.incrementAndGet();
+                    logger.log(Level.ERROR, e.getMessage());
+                    if (e.getCode() != 0) {
+                        record(sampleRecorder, request, requestStartTime, e.getCode());
+                    }
+                }
+            }
+            sampleRecorder.close();
+        }
+
+        private com.squareup.okhttp.Call createCall(RecordedRequest request) throws ApiException {
+            Map<String, String> headers = new HashMap<>();
+            headers.put("Accept", "application/json");
+            if (!request.getContentType().isEmpty()) {
+                headers.put("Content-Type", request.getContentType());
+            }
+            return apiClient.buildCall(
+                    request.getPath(),
+                    request.getMethod(),
+                    Collections.<Pair>emptyList(),
+                    Collections.<Pair>emptyList(),
+                    request.getBody().length > 0 ? request.getBody() : null,
+                    headers,
+                    Collections.<String, Object>emptyMap(),
+                    new String[0],
+                    null);
+        }
+
+        private static void record(
+                SampleRecorder sampleRecorder, RecordedRequest request, long requestStartTime, int responseCode) {
+            sampleRecorder.record(requestStartTime, (int) (System.currentTimeMillis() - requestStartTime),
+                    (short) responseCode, getRequestTypeIndex(request));
+        }
+
+        private static void waitUntil(long targetNanos) {
+            long remainingNanos = targetNanos - System.nanoTime();
+            while (remainingNanos > 0) {
+                LockSupport.parkNanos(remainingNanos);
+                remainingNanos = targetNanos - System.nanoTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package assignment.workload;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LiftRideEvent {
+    private int skierId;
+    private int liftId;
+    private double time;
+}
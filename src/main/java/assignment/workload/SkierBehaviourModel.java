@@ -0,0 +1,235 @@
+package assignment.workload;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulates a ski day: skiers arrive following the arrival curve, pick lifts with a Zipf popularity,
+ * queue, ride up, ski down and queue again until they have used up their rides. A lift ride event is
+ * emitted whenever a skier boards. Skiers are kept in primitive arrays and pending events in one
+ * bucket per simulated minute, so ten million skiers fit in a few hundred megabytes.
+ *
+ * <p>With a positive dayWallMinutes the day is stretched over that much wall-clock time and callers
+ * wait until the next boarding is due, outside the model's lock so other callers can draw theirs in the
+ * meantime; otherwise boardings are handed out as fast as they are asked
+ * for. When the last skier leaves, the next day starts. GET requests ask for skiers that rode
+ * recently, the way a skier checks their vertical after a run.
+ */
+public class SkierBehaviourModel implements WorkloadModel {
+    private static final int DAY_START_MINUTE = 1;
+    private static final int DAY_LENGTH_MINUTES = 420;
+    private static final double MIN_RIDE_MINUTES = 4;
+    private static final double MAX_RIDE_MINUTES = 12;
+    private static final double MIN_DESCENT_MINUTES = 5;
+    private static final double MAX_DESCENT_MINUTES = 15;
+    private static final double MIN_WAIT_MINUTES = 0.5;
+    private static final int MAX_RIDES_PER_SKIER = Byte.MAX_VALUE;
+    private static final int RECENT_RIDER_COUNT = 4096;
+    private static final int INITIAL_BUCKET_CAPACITY = 16;
+    private static final double NANOS_IN_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private static final byte ARRIVING = 0;
+    private static final byte QUEUED = 1;
+    private static final byte GONE_HOME = 2;
+
+    private final int skierIdOffset;
+    private final int skierCount;
+    private final double meanRidesPerSkier;
+    private final double[] arrivalCdf;
+    private final double[] liftCdf;
+    private final double[] liftWaitMinutes;
+    private final double[] liftRideMinutes;
+    private final double wallNanosPerMinute;
+    private final Random random;
+
+    private final byte[] state;
+    private final byte[] ridesRemaining;
+    private final short[] lift;
+    private final float[] eventMinute;
+    private final int[][] buckets = new int[DAY_LENGTH_MINUTES][];
+    private final int[] bucketSizes = new int[DAY_LENGTH_MINUTES];
+    private int currentBucket = DAY_LENGTH_MINUTES;
+    private long dayStartNanos;
+
+    private final int[] recentRiders = new int[RECENT_RIDER_COUNT];
+    private volatile int recentRiderCount;
+    private int recentRiderIndex;
+
+    public SkierBehaviourModel(int skierIdOffset, int skierCount, int liftCount, WorkloadParameters parameters) {
+        this.skierIdOffset = skierIdOffset;
+        this.skierCount = skierCount;
+        this.meanRidesPerSkier = parameters.getMeanRidesPerSkier();
+        this.wallNanosPerMinute = parameters.getDayWallMinutes() * NANOS_IN_MINUTE / DAY_LENGTH_MINUTES;
+        this.random = new Random(parameters.getSeed());
+        this.arrivalCdf = toCdf(parameters.getArrivalCurve());
+
+        double[] popularity = new double[liftCount];
+        for (int i = 0; i < liftCount; i++) {
+            popularity[i] = 1 / Math.pow(i + 1, parameters.getLiftZipfExponent());
+        }
+        double meanPopularity = Arrays.stream(popularity).average().orElse(1);
+        this.liftCdf = toCdf(popularity);
+        this.liftWaitMinutes = new double[liftCount];
+        this.liftRideMinutes = new double[liftCount];
+        for (int i = 0; i < liftCount; i++) {
+            liftWaitMinutes[i] = Math.max(MIN_WAIT_MINUTES,
+                    parameters.getLiftWaitMinutes() * popularity[i] / meanPopularity);
+            liftRideMinutes[i] = uniform(MIN_RIDE_MINUTES, MAX_RIDE_MINUTES);
+        }
+
+        this.state = new byte[skierCount];
+        this.ridesRemaining = new byte[skierCount];
+        this.lift = new short[skierCount];
+        this.eventMinute = new float[skierCount];
+    }
+
+    @Override
+    public LiftRideEvent nextLiftRide() {
+        LiftRideEvent liftRideEvent;
+        long dueNanos;
+        synchronized (this) {
+            liftRideEvent = drawLiftRide();
+            dueNanos = dayStartNanos + (long) (currentBucket * wallNanosPerMinute);
+        }
+        if (wallNanosPerMinute > 0) {
+            awaitNanos(dueNanos);
+        }
+        return liftRideEvent;
+    }
+
+    private LiftRideEvent drawLiftRide() {
+        while (true) {
+            int skier = nextDueSkier();
+            if (state[skier] == ARRIVING) {
+                joinLiftLine(skier, eventMinute[skier]);
+                continue;
+            }
+
+            double boardingMinute = eventMinute[skier];
+            int boardedLift = lift[skier];
+            ridesRemaining[skier]--;
+            double nextArrivalMinute = boardingMinute + liftRideMinutes[boardedLift]
+                    + uniform(MIN_DESCENT_MINUTES, MAX_DESCENT_MINUTES);
+            if (ridesRemaining[skier] > 0 && nextArrivalMinute < DAY_START_MINUTE + DAY_LENGTH_MINUTES) {
+                joinLiftLine(skier, nextArrivalMinute);
+            } else {
+                state[skier] = GONE_HOME;
+            }
+
+            rememberRider(skier);
+            return new LiftRideEvent(skierIdOffset + skier + 1, boardedLift + 1, boardingMinute);
+        }
+    }
+
+    // Reads the ring buffer without the lock: a stale or torn view only changes which recent rider is
+    // picked, and GET requests must not queue behind a boarding that is waiting for wall-clock time.
+    @Override
+    public int nextSkierId() {
+        int riderCount = recentRiderCount;
+        if (riderCount == 0) {
+            return skierIdOffset + 1 + ThreadLocalRandom.current().nextInt(skierCount);
+        }
+        return skierIdOffset + recentRiders[ThreadLocalRandom.current().nextInt(riderCount)] + 1;
+    }
+
+    private int nextDueSkier() {
+        while (true) {
+            if (currentBucket == DAY_LENGTH_MINUTES) {
+                startDay();
+            }
+            if (bucketSizes[currentBucket] > 0) {
+                return buckets[currentBucket][--bucketSizes[currentBucket]];
+            }
+            // Events are never scheduled before the current minute, so a drained bucket can be freed.
+            buckets[currentBucket] = null;
+            currentBucket++;
+        }
+    }
+
+    private void startDay() {
+        Arrays.fill(buckets, null);
+        Arrays.fill(bucketSizes, 0);
+        for (int skier = 0; skier < skierCount; skier++) {
+            int slice = sample(arrivalCdf);
+            double arrivalMinute = DAY_START_MINUTE
+                    + (slice + random.nextDouble()) * DAY_LENGTH_MINUTES / arrivalCdf.length;
+            state[skier] = ARRIVING;
+            ridesRemaining[skier] = (byte) drawRideCount();
+            schedule(skier, arrivalMinute);
+        }
+        currentBucket = 0;
+        dayStartNanos = System.nanoTime();
+    }
+
+    private void joinLiftLine(int skier, double arrivalMinute) {
+        int chosenLift = sample(liftCdf);
+        double boardingMinute = arrivalMinute + liftWaitMinutes[chosenLift] * 2 * random.nextDouble();
+        if (boardingMinute >= DAY_START_MINUTE + DAY_LENGTH_MINUTES) {
+            state[skier] = GONE_HOME;
+            return;
+        }
+        state[skier] = QUEUED;
+        lift[skier] = (short) chosenLift;
+        schedule(skier, boardingMinute);
+    }
+
+    private void schedule(int skier, double minute) {
+        int bucket = Math.max(currentBucket == DAY_LENGTH_MINUTES ? 0 : currentBucket,
+                (int) (minute - DAY_START_MINUTE));
+        eventMinute[skier] = (float) minute;
+        if (buckets[bucket] == null) {
+            buckets[bucket] = new int[INITIAL_BUCKET_CAPACITY];
+        } else if (bucketSizes[bucket] == buckets[bucket].length) {
+            buckets[bucket] = Arrays.copyOf(buckets[bucket], buckets[bucket].length * 2);
+        }
+        buckets[bucket][bucketSizes[bucket]++] = skier;
+    }
+
+    private static void awaitNanos(long dueNanos) {
+        long waitNanos = dueNanos - System.nanoTime();
+        while (waitNanos > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(waitNanos);
+            waitNanos = dueNanos - System.nanoTime();
+        }
+    }
+
+    private void rememberRider(int skier) {
+        recentRiders[recentRiderIndex] = skier;
+        recentRiderIndex = (recentRiderIndex + 1) % RECENT_RIDER_COUNT;
+        if (recentRiderCount < RECENT_RIDER_COUNT) {
+            recentRiderCount++;
+        }
+    }
+
+    // Geometric number of rides with the configured mean, at least one.
+    private int drawRideCount() {
+        if (meanRidesPerSkier <= 1) {
+            return 1;
+        }
+        double rides = 1 + Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - 1 / meanRidesPerSkier));
+        return (int) Math.min(MAX_RIDES_PER_SKIER, rides);
+    }
+
+    private int sample(double[] cdf) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(cdf.length - 1, index >= 0 ? index + 1 : -index - 1);
+    }
+
+    private double uniform(double min, double max) {
+        return min + random.nextDouble() * (max - min);
+    }
+
+    private static double[] toCdf(double[] weights) {
+        double total = Arrays.stream(weights).sum();
+        double[] cdf = new double[weights.length];
+        double cumulative = 0;
+        for (int i = 0; i < weights.length; i++) {
+            cumulative += weights[i];
+            cdf[i] = cumulative / total;
+        }
+        return cdf;
+    }
+}
@@ -0,0 +1,35 @@
+package assignment.workload;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Every skier in the range, every lift and every minute of the time window are equally likely.
+ */
+public class UniformWorkloadModel implements WorkloadModel {
+    private final int skierIdBegin;
+    private final int skierIdEnd;
+    private final int liftCount;
+    private final int startTime;
+    private final int endTime;
+
+    public UniformWorkloadModel(int skierIdBegin, int skierIdEnd, int liftCount, int startTime, int endTime) {
+        this.skierIdBegin = skierIdBegin;
+        this.skierIdEnd = skierIdEnd;
+        this.liftCount = liftCount;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    @Override
+    public LiftRideEvent nextLiftRide() {
+        return new LiftRideEvent(
+                nextSkierId(),
+                ThreadLocalRandom.current().nextInt(1, liftCount + 1),
+                ThreadLocalRandom.current().nextDouble(startTime, endTime));
+    }
+
+    @Override
+    public int nextSkierId() {
+        return ThreadLocalRandom.current().nextInt(skierIdBegin, skierIdEnd + 1);
+    }
+}
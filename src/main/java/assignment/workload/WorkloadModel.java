@@ -0,0 +1,11 @@
+package assignment.workload;
+
+/**
+ * Decides who rides which lift when. Implementations used by more than one worker thread must be
+ * thread safe.
+ */
+public interface WorkloadModel {
+    LiftRideEvent nextLiftRide();
+
+    int nextSkierId();
+}
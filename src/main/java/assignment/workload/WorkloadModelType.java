@@ -0,0 +1,21 @@
+package assignment.workload;
+
+import java.util.Arrays;
+
+public enum WorkloadModelType {
+    UNIFORM("uniform"),
+    SKIER("skier");
+
+    private final String propertyValue;
+
+    WorkloadModelType(String propertyValue) {
+        this.propertyValue = propertyValue;
+    }
+
+    public static WorkloadModelType fromPropertyValue(String propertyValue) {
+        return Arrays.stream(values())
+                .filter(type -> type.propertyValue.equalsIgnoreCase(propertyValue.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown workload model: " + propertyValue));
+    }
+}
@@ -0,0 +1,86 @@
+package assignment.workload;
+
+import assignment.PropertyParsing;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Settings for the workload model, read from client_config.properties:
+ * <pre>
+ * workloadModel=skier
+ * dayWallMinutes=20
+ * liftZipfExponent=1.0
+ * meanRidesPerSkier=10
+ * liftWaitMinutes=5
+ * skierArrivalCurve=30,25,12,10,10,8,5
+ * </pre>
+ * The arrival curve gives the relative share of skiers arriving in each equal slice of the day.
+ * A dayWallMinutes of 0 runs the simulated day as fast as requests are sent.
+ */
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+public class WorkloadParameters {
+    private static final String MODEL_PROP_NAME = "workloadModel";
+    private static final String DAY_WALL_MINUTES_PROP_NAME = "dayWallMinutes";
+    private static final String ZIPF_EXPONENT_PROP_NAME = "liftZipfExponent";
+    private static final String MEAN_RIDES_PROP_NAME = "meanRidesPerSkier";
+    private static final String LIFT_WAIT_MINUTES_PROP_NAME = "liftWaitMinutes";
+    private static final String ARRIVAL_CURVE_PROP_NAME = "skierArrivalCurve";
+    private static final String SEED_PROP_NAME = "workloadSeed";
+
+    private static final String DEFAULT_MODEL = "uniform";
+    private static final String DEFAULT_DAY_WALL_MINUTES = "0";
+    private static final String DEFAULT_ZIPF_EXPONENT = "1.0";
+    private static final String DEFAULT_MEAN_RIDES = "10";
+    private static final String DEFAULT_LIFT_WAIT_MINUTES = "5";
+    private static final String DEFAULT_ARRIVAL_CURVE = "30,25,12,10,10,8,5";
+    private static final String DEFAULT_SEED = "42";
+    private static final String CURVE_SEPARATOR = ",";
+
+    private WorkloadModelType modelType;
+    private double dayWallMinutes;
+    private double liftZipfExponent;
+    private double meanRidesPerSkier;
+    private double liftWaitMinutes;
+    private double[] arrivalCurve;
+    private long seed;
+
+    public static WorkloadParameters parse(Properties properties) {
+        WorkloadParameters workloadParameters = WorkloadParameters.builder()
+                .modelType(WorkloadModelType.fromPropertyValue(properties.getProperty(MODEL_PROP_NAME, DEFAULT_MODEL)))
+                .dayWallMinutes(PropertyParsing.parseNonNegativeDouble(
+                        properties, DAY_WALL_MINUTES_PROP_NAME, DEFAULT_DAY_WALL_MINUTES))
+                .liftZipfExponent(PropertyParsing.parseNonNegativeDouble(
+                        properties, ZIPF_EXPONENT_PROP_NAME, DEFAULT_ZIPF_EXPONENT))
+                .meanRidesPerSkier(PropertyParsing.parseNonNegativeDouble(
+                        properties, MEAN_RIDES_PROP_NAME, DEFAULT_MEAN_RIDES))
+                .liftWaitMinutes(PropertyParsing.parseNonNegativeDouble(
+                        properties, LIFT_WAIT_MINUTES_PROP_NAME, DEFAULT_LIFT_WAIT_MINUTES))
+                .arrivalCurve(Arrays.stream(properties.getProperty(ARRIVAL_CURVE_PROP_NAME, DEFAULT_ARRIVAL_CURVE)
+                        .split(CURVE_SEPARATOR))
+                        .mapToDouble(weight -> Double.parseDouble(weight.trim()))
+                        .toArray())
+                .seed(PropertyParsing.parseLong(properties, SEED_PROP_NAME, DEFAULT_SEED))
+                .build();
+
+        validate(workloadParameters);
+        return workloadParameters;
+    }
+
+    private static void validate(WorkloadParameters workloadParameters) {
+        if (workloadParameters.meanRidesPerSkier < 1) {
+            throw new IllegalArgumentException(MEAN_RIDES_PROP_NAME + " should be at least 1.");
+        }
+        if (Arrays.stream(workloadParameters.arrivalCurve).anyMatch(weight -> weight < 0)
+                || Arrays.stream(workloadParameters.arrivalCurve).sum() <= 0) {
+            throw new IllegalArgumentException(ARRIVAL_CURVE_PROP_NAME + " needs non-negative weights with a positive sum.");
+        }
+    }
+}
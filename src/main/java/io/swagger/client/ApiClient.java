@@ -68,6 +68,7 @@ public class ApiClient {
     private KeyManager[] keyManagers;
 
     private OkHttpClient httpClient;
+    private HttpTransport transport;
     private JSON json;
 
     private HttpLoggingInterceptor loggingInterceptor;
@@ -77,7 +78,7 @@ public class ApiClient {
      */
     public ApiClient() {
         httpClient = new OkHttpClient();
-
+        transport = new OkHttpTransport(this);
 
         verifyingSsl = true;
 
@@ -132,6 +133,26 @@ public class ApiClient {
         return this;
     }
 
+    /**
+     * Get the transport calls are created by
+     *
+     * @return The transport
+     */
+    public HttpTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Set the transport calls are created by
+     *
+     * @param transport The transport, {@link OkHttpTransport} by default
+     * @return Api Client
+     */
+    public ApiClient setTransport(HttpTransport transport) {
+        this.transport = transport;
+        return this;
+    }
+
     /**
      * Get JSON
      *
@@ -942,7 +963,7 @@ public class ApiClient {
     public Call buildCall(String path, String method, List<Pair> queryParams, List<Pair> collectionQueryParams, Object body, Map<String, String> headerParams, Map<String, Object> formParams, String[] authNames, ProgressRequestBody.ProgressRequestListener progressRequestListener) throws ApiException {
         Request request = buildRequest(path, method, queryParams, collectionQueryParams, body, headerParams, formParams, authNames, progressRequestListener);
 
-        return httpClient.newCall(request);
+        return transport.newCall(request);
     }
 
     /**
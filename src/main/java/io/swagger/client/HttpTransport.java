@@ -0,0 +1,21 @@
+/*
+ * Ski Data API for NEU Seattle distributed systems course
+ * An API for an emulation of skier managment system for RFID tagged lift tickets. Basis for CS6650 Assignments for 2019
+ *
+ * OpenAPI spec version: 1.13
+ * 
+ */
+
+package io.swagger.client;
+
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Request;
+
+/**
+ * Turns the requests built by {@link ApiClient#buildCall} into calls. {@link ApiClient#execute} and
+ * {@link ApiClient#executeAsync} only use {@link Call#execute()} and {@link Call#enqueue}, so a
+ * transport that does not use OkHttp's connections returns a Call subclass overriding those two.
+ */
+public interface HttpTransport {
+    Call newCall(Request request);
+}
@@ -0,0 +1,28 @@
+/*
+ * Ski Data API for NEU Seattle distributed systems course
+ * An API for an emulation of skier managment system for RFID tagged lift tickets. Basis for CS6650 Assignments for 2019
+ *
+ * OpenAPI spec version: 1.13
+ * 
+ */
+
+package io.swagger.client;
+
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Request;
+
+/**
+ * The default transport: calls go through the ApiClient's current OkHttpClient.
+ */
+public class OkHttpTransport implements HttpTransport {
+    private final ApiClient apiClient;
+
+    public OkHttpTransport(ApiClient apiClient) {
+        this.apiClient = apiClient;
+    }
+
+    @Override
+    public Call newCall(Request request) {
+        return apiClient.getHttpClient().newCall(request);
+    }
+}
@@ -78,6 +78,21 @@ public class SkiersApiTest {
         LiftRide body = null;
         api.writeNewLiftRide(body);
 
+        // TODO: test validations
+    }
+    /**
+     * write a batch of new lift rides
+     *
+     * Stores the details of several lift rides in the data store
+     *
+     * @throws ApiException
+     *          if the Api call fails
+     */
+    @Test
+    public void writeNewLiftRideBatchTest() throws ApiException {
+        List<LiftRide> body = null;
+        api.writeNewLiftRideBatch(body);
+
         // TODO: test validations
     }
 }